@@ -1,8 +1,10 @@
 package com.acme.auth;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AuthApplication {
   public static void main(String[] args){ SpringApplication.run(AuthApplication.class, args); }
 }
@@ -0,0 +1,31 @@
+package com.acme.auth.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.acme.common.PooledHttpClients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Transporte do UserClient (ver {@link PooledHttpClients}): um user-service lento vira erro rápido
+ * em vez de prender threads do Tomcat.
+ */
+@Configuration
+public class HttpClientConfig {
+
+  @Bean
+  HttpComponentsClientHttpRequestFactory userServiceRequestFactory(
+      MeterRegistry meters,
+      @Value("${services.user.http.max-connections:50}") int maxConnections,
+      @Value("${services.user.http.connect-timeout:1s}") Duration connectTimeout,
+      @Value("${services.user.http.pool-timeout:500ms}") Duration poolTimeout,
+      @Value("${services.user.http.read-timeout:5s}") Duration readTimeout) {
+    return PooledHttpClients.requestFactory(
+        meters, "user-service", maxConnections, connectTimeout, poolTimeout, readTimeout);
+  }
+}
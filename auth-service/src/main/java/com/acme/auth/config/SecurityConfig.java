@@ -10,7 +10,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import com.acme.auth.security.JwtFilter;
+import com.acme.security.JwtFilter;
 
 @Configuration
 @EnableMethodSecurity
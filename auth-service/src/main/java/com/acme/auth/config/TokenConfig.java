@@ -0,0 +1,24 @@
+package com.acme.auth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.acme.auth.security.SigningKeyStore;
+import com.acme.security.JwtService;
+import com.acme.security.JwtSettings;
+
+import io.jsonwebtoken.ProtectedHeader;
+
+@Configuration
+public class TokenConfig {
+
+  // O auth-service verifica com as próprias chaves, sem buscar o JWKS por HTTP
+  @Bean
+  JwtService jwtService(SigningKeyStore keys,
+      @Value("${security.jwt.cache-size:" + JwtService.DEFAULT_CACHE_SIZE + "}") int cacheSize) {
+    JwtSettings settings = JwtSettings.fromEnv();
+    return new JwtService(header -> keys.publicKey(((ProtectedHeader) header).getKeyId()),
+        settings.issuer(), settings.audience(), cacheSize);
+  }
+}
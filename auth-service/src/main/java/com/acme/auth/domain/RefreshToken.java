@@ -0,0 +1,19 @@
+package com.acme.auth.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Linha de refresh_tokens. {@code tokenHash} é o SHA-256 do token entregue ao cliente.
+ */
+public record RefreshToken(
+    byte[] tokenHash,
+    UUID familyId,
+    String userId,
+    String role,
+    Instant createdAt,
+    Instant expiresAt,
+    Instant familyExpiresAt,
+    Instant usedAt,
+    Instant revokedAt) {
+}
@@ -0,0 +1,92 @@
+package com.acme.auth.repository;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.acme.auth.domain.RefreshToken;
+
+// Todas as buscas são pela chave primária (hash) ou pelos índices da família e do usuário
+@Repository
+public class RefreshTokenRepository {
+
+  private static final String COLUMNS =
+      "token_hash, family_id, user_id, role, created_at, expires_at, family_expires_at, used_at, revoked_at";
+
+  private final JdbcTemplate jdbc;
+
+  public RefreshTokenRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public void insert(RefreshToken token) {
+    jdbc.update("INSERT INTO refresh_tokens (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, NULL, NULL)",
+        token.tokenHash(), toBytes(token.familyId()), token.userId(), token.role(),
+        Timestamp.from(token.createdAt()), Timestamp.from(token.expiresAt()),
+        Timestamp.from(token.familyExpiresAt()));
+  }
+
+  public Optional<RefreshToken> findByHash(byte[] tokenHash) {
+    List<RefreshToken> rows = jdbc.query("SELECT " + COLUMNS + " FROM refresh_tokens WHERE token_hash = ?",
+        (rs, i) -> map(rs), (Object) tokenHash);
+    return rows.stream().findFirst();
+  }
+
+  /** Marca o token como usado; 0 linhas significa que outra requisição já o usou ou que foi revogado. */
+  public int markUsed(byte[] tokenHash, Instant usedAt) {
+    return jdbc.update(
+        "UPDATE refresh_tokens SET used_at = ? WHERE token_hash = ? AND used_at IS NULL AND revoked_at IS NULL",
+        Timestamp.from(usedAt), tokenHash);
+  }
+
+  public int revokeFamily(UUID familyId, Instant revokedAt) {
+    return jdbc.update("UPDATE refresh_tokens SET revoked_at = ? WHERE family_id = ? AND revoked_at IS NULL",
+        Timestamp.from(revokedAt), toBytes(familyId));
+  }
+
+  public int revokeAllForUser(String userId, Instant revokedAt) {
+    return jdbc.update("UPDATE refresh_tokens SET revoked_at = ? WHERE user_id = ? AND revoked_at IS NULL",
+        Timestamp.from(revokedAt), userId);
+  }
+
+  public int deleteExpired(Instant before, int limit) {
+    return jdbc.update("DELETE FROM refresh_tokens WHERE expires_at < ? LIMIT ?", Timestamp.from(before), limit);
+  }
+
+  private static RefreshToken map(ResultSet rs) throws SQLException {
+    return new RefreshToken(
+        rs.getBytes("token_hash"),
+        fromBytes(rs.getBytes("family_id")),
+        rs.getString("user_id"),
+        rs.getString("role"),
+        rs.getTimestamp("created_at").toInstant(),
+        rs.getTimestamp("expires_at").toInstant(),
+        rs.getTimestamp("family_expires_at").toInstant(),
+        toInstant(rs.getTimestamp("used_at")),
+        toInstant(rs.getTimestamp("revoked_at")));
+  }
+
+  private static Instant toInstant(Timestamp ts) {
+    return ts == null ? null : ts.toInstant();
+  }
+
+  private static byte[] toBytes(UUID id) {
+    return ByteBuffer.allocate(16)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .array();
+  }
+
+  private static UUID fromBytes(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+}
@@ -0,0 +1,92 @@
+package com.acme.auth.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Freio de força bruta antes de qualquer bcrypt: conta falhas de login por email e por IP numa janela
+ * deslizante e recusa a tentativa sem chamar o user-service quando um dos dois passa do limite.
+ *
+ * Memória fixa (dois {@link SlidingCountMinSketch}), então um atacante variando emails aleatórios não
+ * faz a estrutura crescer. A contagem é aproximada para cima: com a atualização conservadora, falsos
+ * positivos ficam raros até cerca de {@code max-failures-per-email x sketch-width} falhas na janela
+ * (~160 mil no padrão), mas passam de 30% com o dobro disso. Por isso, a partir desse volume o sketch
+ * de emails é tratado como saturado e só o limite por IP vale, em vez de bloquear todo mundo.
+ */
+@Component
+public class LoginThrottle {
+
+  private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+  private static final int DEPTH = 4;
+
+  private final SlidingCountMinSketch byEmail;
+  private final SlidingCountMinSketch byIp;
+  private final int maxPerEmail;
+  private final int maxPerIp;
+  private final long emailSaturationLoad;
+  private final AtomicBoolean emailSaturated = new AtomicBoolean();
+
+  @Autowired
+  public LoginThrottle(
+      @Value("${auth.throttle.window:PT15M}") Duration window,
+      @Value("${auth.throttle.buckets:3}") int buckets,
+      @Value("${auth.throttle.max-failures-per-email:5}") int maxPerEmail,
+      @Value("${auth.throttle.max-failures-per-ip:50}") int maxPerIp,
+      @Value("${auth.throttle.sketch-width:32768}") int width) {
+    this(window, buckets, maxPerEmail, maxPerIp, width, Clock.systemUTC());
+  }
+
+  LoginThrottle(Duration window, int buckets, int maxPerEmail, int maxPerIp, int width, Clock clock) {
+    this.byEmail = new SlidingCountMinSketch(window.toMillis(), buckets, DEPTH, width, clock);
+    this.byIp = new SlidingCountMinSketch(window.toMillis(), buckets, DEPTH, width, clock);
+    this.maxPerEmail = maxPerEmail;
+    this.maxPerIp = maxPerIp;
+    this.emailSaturationLoad = (long) maxPerEmail * byEmail.width();
+  }
+
+  /** Segundos até tentar de novo (Retry-After), ou 0 se a tentativa pode seguir. */
+  public long retryAfterSeconds(String email, String clientIp) {
+    String emailKey = normalize(email);
+    boolean emailBlocked = !emailSketchSaturated() && byEmail.estimate(emailKey) >= maxPerEmail;
+    boolean ipBlocked = clientIp != null && byIp.estimate(clientIp) >= maxPerIp;
+    if (!emailBlocked && !ipBlocked) {
+      return 0;
+    }
+    log.warn("Login bloqueado por excesso de falhas (email={}, ip={})", emailBlocked ? emailKey : "-", ipBlocked ? clientIp : "-");
+    // a fatia mais antiga sai da janela em no máximo uma fatia
+    return Math.max(1, byEmail.bucketMillis() / 1000);
+  }
+
+  public void recordFailure(String email, String clientIp) {
+    byEmail.add(normalize(email));
+    if (clientIp != null) {
+      byIp.add(clientIp);
+    }
+  }
+
+  // Estimativas sem significado: toda chave já passaria do limite
+  private boolean emailSketchSaturated() {
+    boolean saturated = byEmail.load() >= emailSaturationLoad;
+    if (emailSaturated.compareAndSet(!saturated, saturated)) {
+      if (saturated) {
+        log.warn("Sketch de falhas por email saturado ({} falhas na janela): limitando só por IP", byEmail.load());
+      } else {
+        log.info("Sketch de falhas por email fora da saturação: limite por email reativado");
+      }
+    }
+    return saturated;
+  }
+
+  private static String normalize(String email) {
+    return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,194 @@
+package com.acme.auth.security;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+
+/**
+ * Pares de chaves ES256 usados para assinar os access tokens, persistidos em {@code auth.keys.dir}
+ * ({@code <kid>.key} PKCS#8 e {@code <kid>.pub} X.509).
+ *
+ * Rotação sem downtime: a chave nova é publicada no JWKS assim que gerada, mas só passa a assinar
+ * depois de {@code activation-delay} (tempo para verificadores e outras instâncias a verem); a anterior
+ * continua publicada por {@code retain} depois de aposentada, cobrindo os tokens ainda válidos.
+ */
+@Component
+public class SigningKeyStore {
+
+  private static final Logger log = LoggerFactory.getLogger(SigningKeyStore.class);
+
+  public record SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant createdAt) {}
+
+  private final Path dir;
+  private final Duration rotationInterval;
+  private final Duration activationDelay;
+  private final Duration retain;
+  private final Clock clock;
+
+  private volatile List<SigningKey> keys = List.of();
+  private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+
+  @Autowired
+  public SigningKeyStore(
+      @Value("${auth.keys.dir:./data/keys}") Path dir,
+      @Value("${auth.keys.rotation-interval:P7D}") Duration rotationInterval,
+      @Value("${auth.keys.activation-delay:PT5M}") Duration activationDelay,
+      @Value("${auth.keys.retain:PT1H}") Duration retain) {
+    this(dir, rotationInterval, activationDelay, retain, Clock.systemUTC());
+  }
+
+  SigningKeyStore(Path dir, Duration rotationInterval, Duration activationDelay, Duration retain, Clock clock) {
+    this.dir = dir;
+    this.rotationInterval = rotationInterval;
+    this.activationDelay = activationDelay;
+    this.retain = retain;
+    this.clock = clock;
+    try {
+      Files.createDirectories(dir);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Não foi possível criar " + dir, e);
+    }
+    rotateIfDue();
+  }
+
+  /** Chave que assina agora: a mais nova já ativada, ou a única existente logo após a primeira geração. */
+  public SigningKey active() {
+    List<SigningKey> current = keys;
+    Instant cutoff = clock.instant().minus(activationDelay);
+    for (int i = current.size() - 1; i >= 0; i--) {
+      if (!current.get(i).createdAt().isAfter(cutoff)) {
+        return current.get(i);
+      }
+    }
+    return current.get(0);
+  }
+
+  public PublicKey publicKey(String kid) {
+    for (SigningKey key : keys) {
+      if (key.kid().equals(kid)) {
+        return key.publicKey();
+      }
+    }
+    return null;
+  }
+
+  /** Conjunto JWKS com todas as chaves publicadas (pendente, ativa e aposentadas ainda retidas). */
+  public Map<String, Object> jwks() {
+    return jwks;
+  }
+
+  /** Relê o diretório (chaves geradas por outras instâncias), gera a próxima chave quando vence e remove as expiradas. */
+  @Scheduled(fixedDelayString = "${auth.keys.check-interval-ms:60000}")
+  public synchronized void rotateIfDue() {
+    List<SigningKey> loaded = load();
+    Instant now = clock.instant();
+    if (loaded.isEmpty() || !loaded.get(loaded.size() - 1).createdAt().plus(rotationInterval).isAfter(now)) {
+      SigningKey generated = generate(now);
+      loaded.add(generated);
+      log.info("Nova chave de assinatura {} publicada; assina a partir de {}", generated.kid(),
+          loaded.size() == 1 ? now : now.plus(activationDelay));
+    }
+    // chave i é aposentada quando a i+1 ativa; fica publicada por mais 'retain'
+    while (loaded.size() > 1 && !loaded.get(1).createdAt().plus(activationDelay).plus(retain).isAfter(now)) {
+      SigningKey retired = loaded.remove(0);
+      delete(retired.kid());
+      log.info("Chave de assinatura {} removida do JWKS", retired.kid());
+    }
+    keys = List.copyOf(loaded);
+    jwks = toJwks(keys);
+  }
+
+  private List<SigningKey> load() {
+    List<SigningKey> loaded = new ArrayList<>();
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path pub : (Iterable<Path>) files.filter(p -> p.getFileName().toString().endsWith(".pub"))::iterator) {
+        String name = pub.getFileName().toString();
+        String kid = name.substring(0, name.length() - ".pub".length());
+        Path priv = dir.resolve(kid + ".key");
+        if (!Files.exists(priv)) {
+          continue;
+        }
+        KeyFactory kf = KeyFactory.getInstance("EC");
+        loaded.add(new SigningKey(kid,
+            kf.generatePrivate(new PKCS8EncodedKeySpec(Files.readAllBytes(priv))),
+            kf.generatePublic(new X509EncodedKeySpec(Files.readAllBytes(pub))),
+            Files.getLastModifiedTime(pub).toInstant()));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao ler chaves de " + dir, e);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Chave de assinatura inválida em " + dir, e);
+    }
+    loaded.sort(Comparator.comparing(SigningKey::createdAt).thenComparing(SigningKey::kid));
+    return loaded;
+  }
+
+  private SigningKey generate(Instant now) {
+    KeyPair pair = Jwts.SIG.ES256.keyPair().build();
+    String kid = Jwks.builder().key((ECPublicKey) pair.getPublic()).idFromThumbprint().build().getId();
+    try {
+      // .key antes do .pub: load() só considera chaves com o .pub presente
+      write(dir.resolve(kid + ".key"), pair.getPrivate().getEncoded(), now);
+      write(dir.resolve(kid + ".pub"), pair.getPublic().getEncoded(), now);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao gravar chave " + kid, e);
+    }
+    return new SigningKey(kid, pair.getPrivate(), pair.getPublic(), now);
+  }
+
+  private static void write(Path target, byte[] content, Instant createdAt) throws IOException {
+    Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+    Files.write(tmp, content);
+    Files.setLastModifiedTime(tmp, FileTime.from(createdAt));
+    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void delete(String kid) {
+    try {
+      Files.deleteIfExists(dir.resolve(kid + ".pub"));
+      Files.deleteIfExists(dir.resolve(kid + ".key"));
+    } catch (IOException e) {
+      log.warn("Falha ao remover chave {}: {}", kid, e.toString());
+    }
+  }
+
+  private static Map<String, Object> toJwks(List<SigningKey> keys) {
+    List<Map<String, Object>> published = new ArrayList<>(keys.size());
+    for (SigningKey key : keys) {
+      var jwk = Jwks.builder().key((ECPublicKey) key.publicKey()).id(key.kid())
+          .algorithm("ES256").publicKeyUse("sig").build();
+      published.add(new LinkedHashMap<>(jwk));
+    }
+    return Map.of("keys", List.copyOf(published));
+  }
+}
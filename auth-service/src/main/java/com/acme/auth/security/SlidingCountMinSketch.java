@@ -0,0 +1,141 @@
+package com.acme.auth.security;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contagem aproximada de eventos por chave numa janela deslizante, com memória fixa: um anel de
+ * {@code buckets} count-min sketches ({@code depth} x {@code width} contadores cada), um por fatia da janela.
+ *
+ * Sem locks: contadores atômicos com atualização conservadora (só sobe as linhas que estão no mínimo),
+ * o que reduz a superestimação quando muitas chaves distintas colidem. A semente do hash é aleatória
+ * por instância, então não dá para escolher chaves que colidam de propósito com a de outro usuário.
+ * A estimativa nunca é menor que a contagem real (a menos de incrementos perdidos na virada de fatia).
+ * {@link #load()} diz quantos eventos a janela já tem: com muito mais eventos que contadores por linha,
+ * toda chave passa a ter estimativa alta e o sketch deixa de distinguir uma chave da outra.
+ */
+final class SlidingCountMinSketch {
+
+  private final int depth;
+  private final int mask;
+  private final int buckets;
+  private final long bucketMillis;
+  private final AtomicIntegerArray[] counters;
+  private final AtomicLongArray epochs;
+  private final AtomicLongArray adds;
+  private final long seed = new SecureRandom().nextLong();
+  private final Clock clock;
+
+  SlidingCountMinSketch(long windowMillis, int buckets, int depth, int width, Clock clock) {
+    if (Integer.bitCount(width) != 1) {
+      throw new IllegalArgumentException("width deve ser potência de 2: " + width);
+    }
+    this.depth = depth;
+    this.mask = width - 1;
+    this.buckets = buckets;
+    this.bucketMillis = Math.max(1, windowMillis / buckets);
+    this.counters = new AtomicIntegerArray[buckets];
+    for (int b = 0; b < buckets; b++) {
+      counters[b] = new AtomicIntegerArray(depth * width);
+    }
+    this.epochs = new AtomicLongArray(buckets);
+    this.adds = new AtomicLongArray(buckets);
+    for (int b = 0; b < buckets; b++) {
+      epochs.set(b, Long.MIN_VALUE);
+    }
+    this.clock = clock;
+  }
+
+  long bucketMillis() {
+    return bucketMillis;
+  }
+
+  int width() {
+    return mask + 1;
+  }
+
+  void add(String key) {
+    int b = currentBucket();
+    adds.incrementAndGet(b);
+    AtomicIntegerArray c = counters[b];
+    long h = hash(key);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32) | 1;
+
+    int min = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      min = Math.min(min, c.get(index(row, h1, h2)));
+    }
+    int target = min + 1;
+    for (int row = 0; row < depth; row++) {
+      c.accumulateAndGet(index(row, h1, h2), target, Math::max);
+    }
+  }
+
+  int estimate(String key) {
+    long epoch = clock.millis() / bucketMillis;
+    long h = hash(key);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32) | 1;
+
+    int total = 0;
+    for (int b = 0; b < buckets; b++) {
+      if (epochs.get(b) <= epoch - buckets) {
+        continue;   // fatia fora da janela (ou nunca usada)
+      }
+      AtomicIntegerArray c = counters[b];
+      int min = Integer.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        min = Math.min(min, c.get(index(row, h1, h2)));
+      }
+      total += min;
+    }
+    return total;
+  }
+
+  /** Eventos registrados nas fatias ainda dentro da janela. */
+  long load() {
+    long epoch = clock.millis() / bucketMillis;
+    long total = 0;
+    for (int b = 0; b < buckets; b++) {
+      if (epochs.get(b) > epoch - buckets) {
+        total += adds.get(b);
+      }
+    }
+    return total;
+  }
+
+  // Fatia do instante atual; quem vira a fatia zera os contadores da volta anterior do anel
+  private int currentBucket() {
+    long epoch = clock.millis() / bucketMillis;
+    int b = (int) Math.floorMod(epoch, (long) buckets);
+    long seen = epochs.get(b);
+    if (seen != epoch && epochs.compareAndSet(b, seen, epoch)) {
+      adds.set(b, 0);
+      AtomicIntegerArray c = counters[b];
+      for (int i = 0; i < c.length(); i++) {
+        c.set(i, 0);
+      }
+    }
+    return b;
+  }
+
+  // Linha r usa h1 + r*h2 (Kirsch-Mitzenmacher): um único hash de 64 bits por chave
+  private int index(int row, int h1, int h2) {
+    return row * (mask + 1) + ((h1 + row * h2) & mask);
+  }
+
+  private long hash(String key) {
+    long h = seed ^ 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      h ^= key.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    // finalizador do splitmix64
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+}
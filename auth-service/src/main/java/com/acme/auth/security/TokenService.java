@@ -0,0 +1,44 @@
+package com.acme.auth.security;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import com.acme.security.JwtSettings;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Emite access tokens ES256 com a chave ativa do {@link SigningKeyStore}; o {@code kid} no cabeçalho
+ * permite que os serviços achem a chave pública no JWKS.
+ */
+@Service
+public class TokenService {
+
+  private final SigningKeyStore keys;
+  private final JwtSettings settings;
+
+  public TokenService(SigningKeyStore keys) {
+    this.keys = keys;
+    this.settings = JwtSettings.fromEnv();
+  }
+
+  public String issue(String subject, String role) {
+    var key = keys.active();
+    Instant now = Instant.now();
+    return Jwts.builder()
+      .header().keyId(key.kid()).and()
+      .subject(subject)
+      .issuer(settings.issuer())
+      .audience().add(settings.audience()).and()
+      .claim("role", role)
+      .id(UUID.randomUUID().toString())
+      .issuedAt(Date.from(now))
+      .expiration(Date.from(now.plus(settings.accessTtlMinutes(), ChronoUnit.MINUTES)))
+      .signWith(key.privateKey(), Jwts.SIG.ES256)
+      .compact();
+  }
+}
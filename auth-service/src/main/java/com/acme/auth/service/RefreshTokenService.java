@@ -0,0 +1,158 @@
+package com.acme.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.auth.domain.RefreshToken;
+import com.acme.auth.repository.RefreshTokenRepository;
+
+/**
+ * Refresh tokens opacos, de uso único e rotacionados a cada renovação. Renovar é uma busca pela
+ * chave primária (hash do token), sem bcrypt nem chamada ao user-service.
+ */
+@Service
+public class RefreshTokenService {
+
+  private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int PURGE_BATCH = 1000;
+
+  public record Issued(String token, Instant expiresAt) {}
+
+  public record Rotated(String userId, String role, Issued refreshToken) {}
+
+  private final RefreshTokenRepository repository;
+  private final TransactionTemplate tx;
+  private final Duration ttl;
+  private final Duration maxLifetime;
+  private final Clock clock;
+
+  @Autowired
+  public RefreshTokenService(RefreshTokenRepository repository, TransactionTemplate tx,
+      @Value("${auth.refresh.ttl:P14D}") Duration ttl,
+      @Value("${auth.refresh.max-lifetime:P30D}") Duration maxLifetime) {
+    this(repository, tx, ttl, maxLifetime, Clock.systemUTC());
+  }
+
+  RefreshTokenService(RefreshTokenRepository repository, TransactionTemplate tx, Duration ttl,
+      Duration maxLifetime, Clock clock) {
+    this.repository = repository;
+    this.tx = tx;
+    this.ttl = ttl;
+    this.maxLifetime = maxLifetime;
+    this.clock = clock;
+  }
+
+  /** Abre uma nova sessão (família) para o usuário; chamado no login e no cadastro. */
+  public Issued issue(String userId, String role) {
+    Instant now = clock.instant();
+    return store(UUID.randomUUID(), userId, role, now, now.plus(maxLifetime));
+  }
+
+  /**
+   * Troca o refresh token por um novo da mesma família.
+   *
+   * @throws IllegalArgumentException token desconhecido, revogado ou expirado
+   * @throws IllegalStateException token já usado: a família é revogada
+   */
+  public Rotated rotate(String presented) {
+    byte[] hash = hash(presented);
+    RefreshToken current = repository.findByHash(hash)
+        .orElseThrow(() -> new IllegalArgumentException("Refresh token inválido"));
+    Instant now = clock.instant();
+
+    if (current.revokedAt() != null) {
+      throw new IllegalArgumentException("Refresh token revogado");
+    }
+    if (current.usedAt() != null) {
+      throw reuseDetected(current, now);
+    }
+    if (!now.isBefore(current.expiresAt())) {
+      throw new IllegalArgumentException("Refresh token expirado");
+    }
+
+    Issued next = tx.execute(status -> {
+      // update condicional: de duas renovações simultâneas com o mesmo token, só uma passa
+      if (repository.markUsed(hash, now) == 0) {
+        return null;
+      }
+      return store(current.familyId(), current.userId(), current.role(), now, current.familyExpiresAt());
+    });
+    if (next == null) {
+      throw reuseDetected(current, now);
+    }
+    return new Rotated(current.userId(), current.role(), next);
+  }
+
+  /** Logout: revoga a família do token informado; token desconhecido é ignorado. */
+  public void revoke(String presented) {
+    repository.findByHash(hash(presented))
+        .ifPresent(token -> repository.revokeFamily(token.familyId(), clock.instant()));
+  }
+
+  /**
+   * Encerra todas as sessões do usuário; chamado pelo user-service ao trocar a senha ou remover o usuário.
+   * A próxima renovação de qualquer família dele falha como token revogado.
+   */
+  public int revokeAllForUser(String userId) {
+    int revoked = repository.revokeAllForUser(userId, clock.instant());
+    log.info("{} refresh token(s) do usuário {} revogados", revoked, userId);
+    return revoked;
+  }
+
+  @Scheduled(cron = "${auth.refresh.purge-cron:0 17 * * * *}")
+  public void purgeExpired() {
+    Instant cutoff = clock.instant();
+    int deleted;
+    int total = 0;
+    do {
+      deleted = repository.deleteExpired(cutoff, PURGE_BATCH);
+      total += deleted;
+    } while (deleted == PURGE_BATCH);
+    if (total > 0) {
+      log.info("{} refresh token(s) expirados removidos", total);
+    }
+  }
+
+  private Issued store(UUID familyId, String userId, String role, Instant now, Instant familyExpiresAt) {
+    byte[] raw = new byte[32];
+    RANDOM.nextBytes(raw);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    Instant expiresAt = now.plus(ttl).isBefore(familyExpiresAt) ? now.plus(ttl) : familyExpiresAt;
+    repository.insert(new RefreshToken(hash(token), familyId, userId, role, now, expiresAt, familyExpiresAt,
+        null, null));
+    return new Issued(token, expiresAt);
+  }
+
+  private IllegalStateException reuseDetected(RefreshToken token, Instant now) {
+    repository.revokeFamily(token.familyId(), now);
+    log.warn("Refresh token reutilizado; sessão {} do usuário {} revogada", token.familyId(), token.userId());
+    return new IllegalStateException("Refresh token já utilizado; sessão revogada");
+  }
+
+  private static byte[] hash(String token) {
+    if (token == null || token.isBlank()) {
+      throw new IllegalArgumentException("Refresh token ausente");
+    }
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+}
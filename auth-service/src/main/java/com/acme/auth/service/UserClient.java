@@ -5,6 +5,7 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
@@ -40,8 +41,9 @@ public class UserClient {
 
   public UserClient(
       @Value("${services.user.base-url:http://localhost:8084}") String baseUrl,
-      @Value("${internal.secret:}") String internalSecret) {
-    this.http = RestClient.builder().baseUrl(baseUrl).build();
+      @Value("${internal.secret:}") String internalSecret,
+      ClientHttpRequestFactory userServiceRequestFactory) {
+    this.http = RestClient.builder().baseUrl(baseUrl).requestFactory(userServiceRequestFactory).build();
     this.internalSecret = internalSecret;
     this.baseUrl = baseUrl;
   }
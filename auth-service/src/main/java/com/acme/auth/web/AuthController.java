@@ -2,44 +2,61 @@ package com.acme.auth.web;
 
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.server.ResponseStatusException;
 
-import com.acme.auth.security.JwtService;
+import com.acme.auth.security.LoginThrottle;
+import com.acme.auth.security.TokenService;
+import com.acme.auth.service.RefreshTokenService;
 import com.acme.auth.service.UserClient;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
   public record LoginRequest(String email, String password) {}
 
+  public record RefreshRequest(String refreshToken) {}
+
   private final UserClient users;
-  private final JwtService jwt;
-  private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+  private final TokenService jwt;
+  private final RefreshTokenService refreshTokens;
+  private final LoginThrottle throttle;
 
-  public AuthController(UserClient users, JwtService jwt) {
+  public AuthController(UserClient users, TokenService jwt, RefreshTokenService refreshTokens, LoginThrottle throttle) {
     this.users = users;
     this.jwt = jwt;
+    this.refreshTokens = refreshTokens;
+    this.throttle = throttle;
   }
 
+  // Uma única chamada ao user-service: o email duplicado é detectado pela constraint de unicidade de lá
   @PostMapping("/signup")
   public Map<String, Object> signup(@RequestBody SignupRequest req) {
-    var existing = users.findByEmail(req.email());
-    if (existing != null) {
+    UserClient.InternalUser newUser;
+    try {
+      newUser = users.createUser(req.name(), req.email(), req.password(), req.role());
+    } catch (IllegalArgumentException e) {
       throw new ResponseStatusException(HttpStatus.CONFLICT, "Email já cadastrado");
     }
 
-    var newUser = users.createUser(req.name(), req.email(), req.password(), req.role());
     String role = newUser.getRole();
     if (role == null || role.isBlank()) role = "ROLE_USER";
     if (!role.startsWith("ROLE_")) role = "ROLE_" + role.toUpperCase();
 
     var token = jwt.issue(newUser.getId(), role);
+    var refresh = refreshTokens.issue(newUser.getId(), role);
 
     var userInfo = Map.of(
       "id", newUser.getId(),
@@ -54,23 +71,25 @@ public class AuthController {
       "email", newUser.getEmail(),
       "token", token,
       "tokenType", "Bearer",
+      "refreshToken", refresh.token(),
+      "refreshExpiresAt", refresh.expiresAt().toString(),
       "user", userInfo
     );
   }
 
   @PostMapping("/login")
-  public Map<String, Object> login(@RequestBody LoginRequest req) {
+  public Map<String, Object> login(@RequestBody LoginRequest req, HttpServletRequest http) {
     System.out.println("[AUTH] Login de " + req.email());
-    var u = users.verifyCredentials(req.email(), req.password());
+    String clientIp = clientIp(http);
+    long retryAfter = throttle.retryAfterSeconds(req.email(), clientIp);
+    if (retryAfter > 0) {
+      throw tooManyAttempts(retryAfter);
+    }
 
+    var u = users.verifyCredentials(req.email(), req.password());
     if (u == null) {
-      // Fallback para compatibilidade (caso o endpoint /verify ainda não esteja disponível)
-      System.out.println("[AUTH] verifyCredentials retornou null, tentando fallback findByEmail()");
-      u = users.findByEmail(req.email());
-      var fallbackHash = u != null ? u.getPasswordHash() : null;
-      if (u == null || fallbackHash == null || fallbackHash.isBlank() || !encoder.matches(req.password(), fallbackHash)) {
-        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciais inválidas");
-      }
+      throttle.recordFailure(req.email(), clientIp);
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciais inválidas");
     }
 
     String role = u.getRole();
@@ -78,6 +97,7 @@ public class AuthController {
     if (!role.startsWith("ROLE_")) role = "ROLE_" + role.toUpperCase();
 
     var token = jwt.issue(u.getId(), role);
+    var refresh = refreshTokens.issue(u.getId(), role);
 
     var userInfo = Map.of(
       "id", u.getId(),
@@ -89,9 +109,66 @@ public class AuthController {
     return Map.of(
       "token", token,
       "tokenType", "Bearer",
+      "refreshToken", refresh.token(),
+      "refreshExpiresAt", refresh.expiresAt().toString(),
       "user", userInfo
     );
   }
 
+  // Renova o access token sem senha: uma busca indexada e a rotação do refresh token
+  @PostMapping("/refresh")
+  public Map<String, Object> refresh(@RequestBody RefreshRequest req) {
+    try {
+      var rotated = refreshTokens.rotate(req.refreshToken());
+      return Map.of(
+        "token", jwt.issue(rotated.userId(), rotated.role()),
+        "tokenType", "Bearer",
+        "refreshToken", rotated.refreshToken().token(),
+        "refreshExpiresAt", rotated.refreshToken().expiresAt().toString()
+      );
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+    }
+  }
+
+  @PostMapping("/logout")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void logout(@RequestBody RefreshRequest req) {
+    try {
+      refreshTokens.revoke(req.refreshToken());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+  }
+
+  // user-service fora do prazo, pool esgotado ou PasswordHasher saturado: 503 imediato, sem 500 genérico
+  @ExceptionHandler({ResourceAccessException.class, HttpServerErrorException.ServiceUnavailable.class})
+  public ResponseEntity<Map<String, String>> userServiceUnavailable(Exception e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(Map.of("message", "Serviço de usuários indisponível; tente novamente"));
+  }
+
+  // Atrás do gateway o IP real é o último item do X-Forwarded-For (o que o próprio gateway acrescentou);
+  // os anteriores vêm do cliente e não são confiáveis
+  private static String clientIp(HttpServletRequest http) {
+    String forwarded = http.getHeader("X-Forwarded-For");
+    if (forwarded != null && !forwarded.isBlank()) {
+      return forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+    }
+    return http.getRemoteAddr();
+  }
+
+  private static ResponseStatusException tooManyAttempts(long retryAfterSeconds) {
+    return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Muitas tentativas de login; tente novamente mais tarde") {
+      @Override
+      public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+      }
+    };
+  }
+
   public record SignupRequest(String name, String email, String password, String role) {}
 }
@@ -0,0 +1,43 @@
+package com.acme.auth.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.auth.service.RefreshTokenService;
+
+// Chamado só pelo user-service
+@RestController
+@RequestMapping("/internal/auth")
+public class InternalAuthController {
+
+  private final RefreshTokenService refreshTokens;
+  private final String expectedSecret;
+
+  public InternalAuthController(RefreshTokenService refreshTokens,
+      @Value("${internal.secret:change-me}") String expectedSecret) {
+    this.refreshTokens = refreshTokens;
+    this.expectedSecret = expectedSecret;
+  }
+
+  private void assertSecret(String provided) {
+    if (provided == null || !provided.equals(expectedSecret)) {
+      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid internal secret");
+    }
+  }
+
+  @DeleteMapping("/users/{userId}/sessions")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void revokeSessions(
+      @RequestHeader("X-Internal-Secret") String secret,
+      @PathVariable String userId) {
+    assertSecret(secret);
+    refreshTokens.revokeAllForUser(userId);
+  }
+}
@@ -0,0 +1,29 @@
+package com.acme.auth.web;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.acme.auth.security.SigningKeyStore;
+
+@RestController
+public class JwksController {
+
+  private final SigningKeyStore keys;
+
+  public JwksController(SigningKeyStore keys) {
+    this.keys = keys;
+  }
+
+  // Chaves públicas para os serviços verificarem os tokens localmente
+  @GetMapping("/.well-known/jwks.json")
+  public ResponseEntity<Map<String, Object>> jwks() {
+    return ResponseEntity.ok()
+      .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic())
+      .body(keys.jwks());
+  }
+}
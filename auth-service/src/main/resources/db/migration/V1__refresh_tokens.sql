@@ -0,0 +1,16 @@
+-- Refresh tokens opacos: só o SHA-256 é guardado. Cada rotação gera um token novo na mesma família;
+-- um token já usado que reaparece revoga a família inteira (token roubado).
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+  token_hash BINARY(32) NOT NULL,
+  family_id BINARY(16) NOT NULL,
+  user_id VARCHAR(64) NOT NULL,
+  role VARCHAR(32) NOT NULL,
+  created_at DATETIME(6) NOT NULL,
+  expires_at DATETIME(6) NOT NULL,
+  family_expires_at DATETIME(6) NOT NULL,
+  used_at DATETIME(6) NULL,
+  revoked_at DATETIME(6) NULL,
+  PRIMARY KEY (token_hash),
+  KEY idx_refresh_tokens_family (family_id),
+  KEY idx_refresh_tokens_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
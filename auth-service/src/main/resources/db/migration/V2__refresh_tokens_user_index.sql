@@ -0,0 +1,2 @@
+-- Revogação de todas as sessões de um usuário (troca de senha, remoção) sem varrer a tabela
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
@@ -0,0 +1,96 @@
+package com.acme.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para LoginThrottle
+ */
+class LoginThrottleTest {
+
+    private Instant now = Instant.parse("2026-10-18T10:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    };
+
+    private final LoginThrottle throttle = new LoginThrottle(Duration.ofMinutes(15), 3, 5, 50, 4096, clock);
+
+    @Test
+    void shouldBlockEmail_AfterMaxFailures_IgnoringCase() {
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("joao@email.com", "10.0.0." + i);
+        }
+        assertEquals(0, throttle.retryAfterSeconds("joao@email.com", "10.0.0.99"));
+
+        throttle.recordFailure("joao@email.com", "10.0.0.4");
+
+        assertEquals(300, throttle.retryAfterSeconds(" JOAO@email.com ", "10.0.0.99"));
+        assertEquals(0, throttle.retryAfterSeconds("maria@email.com", "10.0.0.99"));
+    }
+
+    @Test
+    void shouldBlockIp_WhenSprayingManyEmails() {
+        for (int i = 0; i < 50; i++) {
+            throttle.recordFailure(UUID.randomUUID() + "@email.com", "203.0.113.7");
+        }
+
+        assertTrue(throttle.retryAfterSeconds("novo@email.com", "203.0.113.7") > 0);
+        assertEquals(0, throttle.retryAfterSeconds("novo@email.com", "203.0.113.8"));
+    }
+
+    @Test
+    void shouldForgetFailures_OnceTheyLeaveTheWindow() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("joao@email.com", "10.0.0.1");
+        }
+        assertTrue(throttle.retryAfterSeconds("joao@email.com", "10.0.0.1") > 0);
+
+        now = now.plus(Duration.ofMinutes(10));
+        assertTrue(throttle.retryAfterSeconds("joao@email.com", "10.0.0.1") > 0);
+
+        now = now.plus(Duration.ofMinutes(6));
+        assertEquals(0, throttle.retryAfterSeconds("joao@email.com", "10.0.0.1"));
+    }
+
+    @Test
+    void shouldNotFlagInnocentEmails_WhenAttackerSpraysRandomEmails() {
+        // Given: 20 mil falhas com emails aleatórios de IPs variados, num sketch pequeno (4096 x 4)
+        for (int i = 0; i < 20_000; i++) {
+            throttle.recordFailure(UUID.randomUUID() + "@email.com", "198.51.100." + (i % 250));
+        }
+
+        // Then: emails que nunca falharam continuam passando (salvo raríssimas colisões em todas as linhas)
+        int blocked = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (throttle.retryAfterSeconds("inocente" + i + "@email.com", null) > 0) blocked++;
+        }
+        assertTrue(blocked < 10, "falsos positivos: " + blocked);
+    }
+
+    @Test
+    void shouldFallBackToIpLimit_WhenEmailSketchIsSaturatedBySpray() {
+        // Given: 10 falhas por contador (4096 x 4), bem além do ponto em que toda estimativa passa de 5
+        for (int i = 0; i < 10 * 4096; i++) {
+            throttle.recordFailure(UUID.randomUUID() + "@email.com", "198.51.100." + (i % 250));
+        }
+
+        // Then: nenhum email inocente é bloqueado, mas os IPs do ataque continuam barrados
+        int blocked = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (throttle.retryAfterSeconds("inocente" + i + "@email.com", "10.1.0.1") > 0) blocked++;
+        }
+        assertEquals(0, blocked);
+        assertTrue(throttle.retryAfterSeconds("inocente@email.com", "198.51.100.1") > 0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.acme.auth.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Testes unitários para SigningKeyStore
+ */
+class SigningKeyStoreTest {
+
+    private static final Duration ROTATION = Duration.ofDays(7);
+    private static final Duration ACTIVATION = Duration.ofMinutes(5);
+    private static final Duration RETAIN = Duration.ofHours(1);
+
+    @TempDir
+    Path dir;
+
+    private Instant now = Instant.parse("2026-10-18T10:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    };
+
+    private SigningKeyStore store() {
+        return new SigningKeyStore(dir, ROTATION, ACTIVATION, RETAIN, clock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> publishedKids(SigningKeyStore store) {
+        return ((List<Map<String, Object>>) store.jwks().get("keys")).stream()
+                .map(k -> (String) k.get("kid"))
+                .toList();
+    }
+
+    @Test
+    void constructor_EmptyDir_ShouldGenerateAndActivateImmediately() {
+        SigningKeyStore store = store();
+
+        assertEquals(List.of(store.active().kid()), publishedKids(store));
+        assertNotNull(store.publicKey(store.active().kid()));
+    }
+
+    @Test
+    void constructor_ExistingKeys_ShouldReloadSameKid() {
+        String kid = store().active().kid();
+
+        assertEquals(kid, store().active().kid());
+    }
+
+    @Test
+    void rotateIfDue_ShouldPublishBeforeSigningAndRetainOldKey() {
+        SigningKeyStore store = store();
+        String first = store.active().kid();
+
+        now = now.plus(ROTATION);
+        store.rotateIfDue();
+        List<String> kids = publishedKids(store);
+        assertEquals(2, kids.size());
+        assertEquals(first, store.active().kid(), "chave nova não assina antes do activation-delay");
+
+        now = now.plus(ACTIVATION);
+        store.rotateIfDue();
+        String second = store.active().kid();
+        assertNotEquals(first, second);
+        assertTrue(publishedKids(store).contains(first), "chave aposentada continua publicada");
+
+        now = now.plus(RETAIN);
+        store.rotateIfDue();
+        assertEquals(List.of(second), publishedKids(store));
+        assertNull(store.publicKey(first));
+    }
+}
@@ -0,0 +1,128 @@
+package com.acme.auth.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.auth.domain.RefreshToken;
+import com.acme.auth.repository.RefreshTokenRepository;
+
+/**
+ * Testes unitários para RefreshTokenService
+ */
+class RefreshTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    private RefreshTokenRepository repository;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        service = new RefreshTokenService(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Duration.ofDays(14), Duration.ofDays(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private RefreshToken issueAndCapture() {
+        service.issue("user-1", "ROLE_USER");
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).insert(stored.capture());
+        clearInvocations(repository);
+        return stored.getValue();
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyHashWithTtl() {
+        var issued = service.issue("user-1", "ROLE_USER");
+
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).insert(stored.capture());
+        assertEquals(32, stored.getValue().tokenHash().length);
+        assertEquals(NOW.plus(Duration.ofDays(14)), issued.expiresAt());
+        assertEquals(NOW.plus(Duration.ofDays(30)), stored.getValue().familyExpiresAt());
+    }
+
+    @Test
+    void rotate_ValidToken_ShouldMarkUsedAndIssueSameFamily() {
+        var issued = service.issue("user-1", "ROLE_USER");
+        ArgumentCaptor<RefreshToken> first = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).insert(first.capture());
+        when(repository.findByHash(any())).thenReturn(Optional.of(first.getValue()));
+        when(repository.markUsed(any(), eq(NOW))).thenReturn(1);
+
+        var rotated = service.rotate(issued.token());
+
+        assertEquals("user-1", rotated.userId());
+        assertEquals("ROLE_USER", rotated.role());
+        assertNotEquals(issued.token(), rotated.refreshToken().token());
+        ArgumentCaptor<RefreshToken> all = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository, times(2)).insert(all.capture());
+        assertEquals(first.getValue().familyId(), all.getAllValues().get(1).familyId());
+        verify(repository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void rotate_AlreadyUsedToken_ShouldRevokeFamily() {
+        RefreshToken stored = issueAndCapture();
+        RefreshToken used = new RefreshToken(stored.tokenHash(), stored.familyId(), stored.userId(), stored.role(),
+                stored.createdAt(), stored.expiresAt(), stored.familyExpiresAt(), NOW.minusSeconds(60), null);
+        when(repository.findByHash(any())).thenReturn(Optional.of(used));
+
+        assertThrows(IllegalStateException.class, () -> service.rotate("qualquer"));
+
+        verify(repository).revokeFamily(stored.familyId(), NOW);
+        verify(repository, never()).insert(any());
+    }
+
+    @Test
+    void rotate_ConcurrentUse_ShouldRevokeFamily() {
+        RefreshToken stored = issueAndCapture();
+        when(repository.findByHash(any())).thenReturn(Optional.of(stored));
+        when(repository.markUsed(any(), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> service.rotate("qualquer"));
+
+        verify(repository).revokeFamily(stored.familyId(), NOW);
+        verify(repository, never()).insert(any());
+    }
+
+    @Test
+    void rotate_UnknownOrExpired_ShouldThrowIllegalArgument() {
+        when(repository.findByHash(any())).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class, () -> service.rotate("desconhecido"));
+
+        RefreshToken stored = issueAndCapture();
+        RefreshToken expired = new RefreshToken(stored.tokenHash(), stored.familyId(), stored.userId(), stored.role(),
+                stored.createdAt(), NOW, stored.familyExpiresAt(), null, null);
+        when(repository.findByHash(any())).thenReturn(Optional.of(expired));
+        assertThrows(IllegalArgumentException.class, () -> service.rotate("expirado"));
+        assertThrows(IllegalArgumentException.class, () -> service.rotate(" "));
+    }
+
+    @Test
+    void revokeAllForUser_ShouldRevokeEveryFamilyAndRejectLaterRotation() {
+        RefreshToken stored = issueAndCapture();
+        when(repository.revokeAllForUser("user-1", NOW)).thenReturn(3);
+
+        assertEquals(3, service.revokeAllForUser("user-1"));
+
+        RefreshToken revoked = new RefreshToken(stored.tokenHash(), stored.familyId(), stored.userId(), stored.role(),
+                stored.createdAt(), stored.expiresAt(), stored.familyExpiresAt(), null, NOW);
+        when(repository.findByHash(any())).thenReturn(Optional.of(revoked));
+        assertThrows(IllegalArgumentException.class, () -> service.rotate("revogado"));
+        verify(repository, never()).insert(any());
+    }
+}
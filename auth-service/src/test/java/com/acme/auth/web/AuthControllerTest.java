@@ -0,0 +1,114 @@
+package com.acme.auth.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.auth.domain.RefreshToken;
+import com.acme.auth.repository.RefreshTokenRepository;
+import com.acme.auth.security.LoginThrottle;
+import com.acme.auth.security.TokenService;
+import com.acme.auth.service.RefreshTokenService;
+import com.acme.auth.service.UserClient;
+
+/**
+ * Testes unitários para AuthController e InternalAuthController (renovação após revogação das sessões)
+ */
+class AuthControllerTest {
+
+    private static final String SECRET = "segredo-interno";
+
+    // refresh_tokens em memória, com a mesma semântica dos UPDATEs condicionais do repositório
+    private final Map<ByteBuffer, RefreshToken> rows = new ConcurrentHashMap<>();
+
+    private RefreshTokenService refreshTokens;
+    private AuthController auth;
+    private InternalAuthController internal;
+
+    @BeforeEach
+    void setUp() {
+        RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        doAnswer(inv -> {
+            RefreshToken token = inv.getArgument(0);
+            rows.put(ByteBuffer.wrap(token.tokenHash()), token);
+            return null;
+        }).when(repository).insert(any());
+        when(repository.findByHash(any()))
+                .thenAnswer(inv -> Optional.ofNullable(rows.get(ByteBuffer.wrap(inv.getArgument(0)))));
+        when(repository.markUsed(any(), any())).thenAnswer(inv -> {
+            RefreshToken t = rows.get(ByteBuffer.wrap(inv.getArgument(0)));
+            if (t == null || t.usedAt() != null || t.revokedAt() != null) return 0;
+            rows.put(ByteBuffer.wrap(t.tokenHash()), with(t, inv.getArgument(1), null));
+            return 1;
+        });
+        when(repository.revokeAllForUser(anyString(), any())).thenAnswer(inv -> {
+            int revoked = 0;
+            for (RefreshToken t : rows.values()) {
+                if (t.userId().equals(inv.getArgument(0)) && t.revokedAt() == null) {
+                    rows.put(ByteBuffer.wrap(t.tokenHash()), with(t, t.usedAt(), inv.getArgument(1)));
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+
+        refreshTokens = new RefreshTokenService(repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), Duration.ofDays(14), Duration.ofDays(30));
+        TokenService jwt = mock(TokenService.class);
+        when(jwt.issue(anyString(), anyString())).thenReturn("access-token");
+        auth = new AuthController(mock(UserClient.class), jwt, refreshTokens, mock(LoginThrottle.class));
+        internal = new InternalAuthController(refreshTokens, SECRET);
+    }
+
+    private static RefreshToken with(RefreshToken t, Instant usedAt, Instant revokedAt) {
+        return new RefreshToken(t.tokenHash(), t.familyId(), t.userId(), t.role(), t.createdAt(), t.expiresAt(),
+                t.familyExpiresAt(), usedAt, revokedAt);
+    }
+
+    @Test
+    void refresh_ShouldFailWith401_AfterUserSessionsAreRevoked() {
+        // Given: sessão aberta e já renovada uma vez (a família tem dois tokens)
+        var login = auth.refresh(new AuthController.RefreshRequest(issue("user-1")));
+        String current = (String) login.get("refreshToken");
+        String otherDevice = issue("user-1");
+        String otherUser = issue("user-2");
+
+        // When: o user-service avisa da troca de senha
+        internal.revokeSessions(SECRET, "user-1");
+
+        // Then
+        for (String token : new String[] { current, otherDevice }) {
+            var e = assertThrows(ResponseStatusException.class,
+                    () -> auth.refresh(new AuthController.RefreshRequest(token)));
+            assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        }
+        assertNotNull(auth.refresh(new AuthController.RefreshRequest(otherUser)).get("refreshToken"));
+    }
+
+    @Test
+    void revokeSessions_ShouldRejectWrongSecret() {
+        // When
+        var e = assertThrows(ResponseStatusException.class, () -> internal.revokeSessions("errado", "user-1"));
+
+        // Then
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+    }
+
+    private String issue(String userId) {
+        return refreshTokens.issue(userId, "ROLE_USER").token();
+    }
+}
@@ -1,8 +1,10 @@
 package com.acme.card;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CardApplication {
   public static void main(String[] args){ SpringApplication.run(CardApplication.class, args); }
 }
@@ -11,7 +11,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import com.acme.card.security.JwtFilter;
+import com.acme.security.JwtFilter;
 
 @Configuration
 @EnableMethodSecurity
@@ -1,5 +1,6 @@
 package com.acme.card.domain;
 
+import java.time.Instant;
 import java.util.UUID;
 
 import jakarta.persistence.Column;
@@ -11,6 +12,8 @@ import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
+import com.acme.common.UuidV7;
+
 @Entity
 @Table(
     name = "cards",
@@ -18,13 +21,19 @@ import jakarta.persistence.UniqueConstraint;
         @UniqueConstraint(name = "uk_cards_user_numero", columnNames = {"user_id", "numero_cartao"})
     },
     indexes = {
-        @Index(name = "idx_cards_user", columnList = "user_id")
+        @Index(name = "idx_cards_user", columnList = "user_id"),
+        @Index(name = "idx_cards_nome_id", columnList = "nome, id"),
+        @Index(name = "idx_cards_status_nome_id", columnList = "status, nome, id"),
+        @Index(name = "idx_cards_tipo_nome_id", columnList = "tipo_cartao, nome, id"),
+        @Index(name = "idx_cards_tipo_status_nome_id", columnList = "tipo_cartao, status, nome, id"),
+        @Index(name = "idx_cards_user_nome_id", columnList = "user_id, nome, id"),
+        @Index(name = "idx_cards_created_at_tipo", columnList = "created_at, tipo_cartao")
     }
 )
 public class Card {
 
   @Id
-  private UUID id = UUID.randomUUID();
+  private UUID id = UuidV7.randomUUID();   // ordenado por tempo: inserts no fim do índice
 
   @Column(name="numero_cartao", nullable=false, length=19)
   private String numeroCartao;
@@ -42,6 +51,9 @@ public class Card {
   @Column(name="user_id", nullable=false)
   private UUID userId;
 
+  @Column(name="created_at", nullable=false, updatable=false)
+  private Instant createdAt = Instant.now();
+
   protected Card() {}
 
   private Card(String numero, String nome, TipoCartao tipo, UUID userId) {
@@ -61,6 +73,7 @@ public class Card {
   public boolean isStatus() { return status; }
   public TipoCartao getTipoCartao() { return tipoCartao; }
   public UUID getUserId() { return userId; }
+  public Instant getCreatedAt() { return createdAt; }
 
   public void rename(String n){ this.nome = n; }
   public void activate(){ this.status = true; }
@@ -0,0 +1,51 @@
+package com.acme.card.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+// Saldo corrente do cartão: cache da soma do ledger, atualizado na mesma transação de cada lançamento
+@Entity
+@Table(name = "card_balances")
+public class CardBalance {
+
+  @Id
+  @Column(name="card_id")
+  private UUID cardId;
+
+  @Column(name="balance_cents", nullable=false)
+  private long balanceCents;
+
+  // Controle otimista entre instâncias; null = ainda não persistido
+  @Version
+  private Long version;
+
+  @Column(name="updated_at", nullable=false)
+  private Instant updatedAt;
+
+  protected CardBalance() {}
+
+  private CardBalance(UUID cardId) {
+    this.cardId = cardId;
+    this.updatedAt = Instant.now();
+  }
+
+  public static CardBalance open(UUID cardId) {
+    return new CardBalance(cardId);
+  }
+
+  public UUID getCardId() { return cardId; }
+  public long getBalanceCents() { return balanceCents; }
+  public Long getVersion() { return version; }
+  public Instant getUpdatedAt() { return updatedAt; }
+
+  public void apply(long deltaCents) {
+    this.balanceCents = Math.addExact(balanceCents, deltaCents);
+    this.updatedAt = Instant.now();
+  }
+}
@@ -0,0 +1,15 @@
+package com.acme.card.domain;
+
+import java.util.UUID;
+
+public record CardChangedEvent(UUID cardId, UUID userId, String numeroCartao, TipoCartao tipoCartao,
+        boolean active, Kind kind) {
+
+    public enum Kind { CREATED, ACTIVATED, DEACTIVATED, DELETED }
+
+    public static CardChangedEvent of(Card card, Kind kind) {
+        boolean active = kind != Kind.DELETED && card.isStatus();
+        return new CardChangedEvent(card.getId(), card.getUserId(), card.getNumeroCartao(),
+                card.getTipoCartao(), active, kind);
+    }
+}
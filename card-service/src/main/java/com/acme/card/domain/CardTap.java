@@ -0,0 +1,10 @@
+package com.acme.card.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Passagem de um cartão num validador. {@code cardId} e {@code tipoCartao} ficam nulos quando o número
+ * não está no índice de cartões ativos no momento da ingestão.
+ */
+public record CardTap(long cardNumber, String validatorId, Instant tappedAt, UUID cardId, TipoCartao tipoCartao) {}
@@ -0,0 +1,74 @@
+package com.acme.card.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Lançamento imutável do ledger do cartão (append-only)
+@Entity
+@Table(
+    name = "card_ledger",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_card_ledger_idempotency", columnNames = {"card_id", "idempotency_key"})
+    },
+    indexes = {
+        @Index(name = "idx_card_ledger_card_created", columnList = "card_id, created_at")
+    }
+)
+public class LedgerEntry {
+
+  public enum Type { RECHARGE, DEBIT }
+
+  @Id
+  private UUID id = UUID.randomUUID();
+
+  @Column(name="card_id", nullable=false)
+  private UUID cardId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable=false, length=10)
+  private Type type;
+
+  @Column(name="amount_cents", nullable=false)
+  private long amountCents;
+
+  @Column(name="balance_after_cents", nullable=false)
+  private long balanceAfterCents;
+
+  @Column(name="idempotency_key", length=64)
+  private String idempotencyKey;
+
+  @Column(name="created_at", nullable=false, updatable=false)
+  private Instant createdAt;
+
+  protected LedgerEntry() {}
+
+  private LedgerEntry(UUID cardId, Type type, long amountCents, long balanceAfterCents, String idempotencyKey) {
+    this.cardId = cardId;
+    this.type = type;
+    this.amountCents = amountCents;
+    this.balanceAfterCents = balanceAfterCents;
+    this.idempotencyKey = idempotencyKey;
+    this.createdAt = Instant.now();
+  }
+
+  public static LedgerEntry create(UUID cardId, Type type, long amountCents, long balanceAfterCents, String idempotencyKey) {
+    return new LedgerEntry(cardId, type, amountCents, balanceAfterCents, idempotencyKey);
+  }
+
+  public UUID getId() { return id; }
+  public UUID getCardId() { return cardId; }
+  public Type getType() { return type; }
+  public long getAmountCents() { return amountCents; }
+  public long getBalanceAfterCents() { return balanceAfterCents; }
+  public String getIdempotencyKey() { return idempotencyKey; }
+  public Instant getCreatedAt() { return createdAt; }
+}
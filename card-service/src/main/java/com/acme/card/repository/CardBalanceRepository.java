@@ -0,0 +1,10 @@
+package com.acme.card.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.acme.card.domain.CardBalance;
+
+public interface CardBalanceRepository extends JpaRepository<CardBalance, UUID> {
+}
@@ -1,19 +1,25 @@
 package com.acme.card.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.acme.card.domain.Card;
 
 
-public interface CardRepository extends JpaRepository<Card, UUID> {
+public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificationExecutor<Card> {
    
     List<Card> findByUserId(UUID userId);
+
+    @Query("SELECT c FROM Card c WHERE c.userId IN :userIds ORDER BY c.userId, c.nome")
+    List<Card> findByUserIdIn(@Param("userIds") Collection<UUID> userIds);
    
     @Query(value = "SELECT * FROM cards c WHERE c.user_id = :userId AND c.numero_cartao = :numeroCartao", nativeQuery = true)
     Optional<Card> findByUserIdAndNumeroCartao(@Param("userId") UUID userId, @Param("numeroCartao") String numeroCartao);
@@ -35,4 +41,11 @@ public interface CardRepository extends JpaRepository<Card, UUID> {
     
     @Query(value = "SELECT * FROM cards c WHERE c.tipo_cartao = :tipo ORDER BY c.nome", nativeQuery = true)
     List<Card> findByTipoCartao(@Param("tipo") String tipo);
+
+    // Varredura paginada por id dos cartões ativos (carga do índice em memória)
+    @Query("SELECT c FROM Card c WHERE c.status = true ORDER BY c.id")
+    List<Card> findActiveFirstPage(Limit limit);
+
+    @Query("SELECT c FROM Card c WHERE c.status = true AND c.id > :after ORDER BY c.id")
+    List<Card> findActivePageAfter(@Param("after") UUID after, Limit limit);
 }
@@ -0,0 +1,41 @@
+package com.acme.card.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.TipoCartao;
+
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static Specification<Card> hasTipo(TipoCartao tipo) {
+        return (root, query, cb) -> cb.equal(root.get("tipoCartao"), tipo);
+    }
+
+    public static Specification<Card> hasStatus(boolean status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Card> ofUser(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Card> nomeStartsWith(String prefix) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return (root, query, cb) -> cb.like(root.get("nome"), escaped + "%", '\\');
+    }
+
+    // Keyset: (nome, id) > (:nome, :id), na mesma ordem do índice
+    public static Specification<Card> after(String nome, UUID id) {
+        return (root, query, cb) -> cb.or(
+            cb.greaterThan(root.get("nome"), nome),
+            cb.and(
+                cb.equal(root.get("nome"), nome),
+                cb.greaterThan(root.<UUID>get("id"), id)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.acme.card.repository;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.acme.card.domain.CardTap;
+
+// Gravação em lote via JDBC: com rewriteBatchedStatements o driver envia um INSERT multi-valores por lote
+@Repository
+public class CardTapRepository {
+
+    // Chave primária (tap_date, card_number, validator_id, tapped_at): reenvios viram no-op
+    private static final String INSERT_SQL = """
+            INSERT IGNORE INTO card_taps
+              (tap_date, card_number, validator_id, tapped_at, card_id, tipo_cartao, received_at)
+            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP(3))
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public CardTapRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void insertBatch(List<CardTap> taps) {
+        jdbc.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CardTap tap = taps.get(i);
+                ps.setObject(1, tap.tappedAt().atOffset(ZoneOffset.UTC).toLocalDate());
+                ps.setLong(2, tap.cardNumber());
+                ps.setString(3, tap.validatorId());
+                ps.setTimestamp(4, Timestamp.from(tap.tappedAt()));
+                if (tap.cardId() != null) {
+                    ps.setBytes(5, toBytes(tap.cardId()));
+                } else {
+                    ps.setNull(5, Types.BINARY);
+                }
+                if (tap.tipoCartao() != null) {
+                    ps.setString(6, tap.tipoCartao().name());
+                } else {
+                    ps.setNull(6, Types.VARCHAR);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return taps.size();
+            }
+        });
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,17 @@
+package com.acme.card.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.acme.card.domain.LedgerEntry;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    Optional<LedgerEntry> findByCardIdAndIdempotencyKey(UUID cardId, String idempotencyKey);
+
+    List<LedgerEntry> findByCardIdOrderByCreatedAtDesc(UUID cardId, Limit limit);
+}
@@ -0,0 +1,110 @@
+package com.acme.card.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.acme.card.domain.TipoCartao;
+
+// Tabela usage_rollups_hourly: incrementos do caminho de escrita e reagregação exata por hora
+@Repository
+public class UsageRollupRepository {
+
+    public static final String UNKNOWN_TIPO = "DESCONHECIDO";
+
+    public record RollupRow(Instant bucket, String tipoCartao, long taps, long cardsIssued) {}
+
+    private static final String INCREMENT_SQL = """
+            INSERT INTO usage_rollups_hourly (bucket_hour, tipo_cartao, taps, cards_issued, updated_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP(3))
+            ON DUPLICATE KEY UPDATE taps = taps + VALUES(taps), cards_issued = cards_issued + VALUES(cards_issued),
+              updated_at = VALUES(updated_at)
+            """;
+
+    private static final String REPLACE_SQL = """
+            INSERT INTO usage_rollups_hourly (bucket_hour, tipo_cartao, taps, cards_issued, updated_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP(3))
+            ON DUPLICATE KEY UPDATE taps = VALUES(taps), cards_issued = VALUES(cards_issued),
+              updated_at = VALUES(updated_at)
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public UsageRollupRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void addIncrements(List<RollupRow> rows) {
+        jdbc.batchUpdate(INCREMENT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setTimestamp(1, Timestamp.from(row.bucket()));
+            ps.setString(2, row.tipoCartao());
+            ps.setLong(3, row.taps());
+            ps.setLong(4, row.cardsIssued());
+        });
+    }
+
+    /** Recalcula a hora a partir das tabelas de origem e grava os valores absolutos (idempotente). */
+    public void reaggregate(Instant hourStart) {
+        Timestamp from = Timestamp.from(hourStart);
+        Timestamp to = Timestamp.from(hourStart.plus(1, ChronoUnit.HOURS));
+
+        Map<String, long[]> counts = new LinkedHashMap<>();
+        for (TipoCartao tipo : TipoCartao.values()) {
+            counts.put(tipo.name(), new long[2]);
+        }
+        counts.put(UNKNOWN_TIPO, new long[2]);
+
+        jdbc.query("""
+                SELECT COALESCE(tipo_cartao, ?) AS tipo, COUNT(*) AS total FROM card_taps
+                WHERE tap_date = ? AND tapped_at >= ? AND tapped_at < ?
+                GROUP BY tipo_cartao
+                """,
+                rs -> { counts.get(rs.getString("tipo"))[0] = rs.getLong("total"); },
+                UNKNOWN_TIPO, hourStart.atOffset(ZoneOffset.UTC).toLocalDate(), from, to);
+        jdbc.query("""
+                SELECT tipo_cartao AS tipo, COUNT(*) AS total FROM cards
+                WHERE created_at >= ? AND created_at < ?
+                GROUP BY tipo_cartao
+                """,
+                rs -> { counts.get(rs.getString("tipo"))[1] = rs.getLong("total"); },
+                from, to);
+
+        jdbc.batchUpdate(REPLACE_SQL, List.copyOf(counts.entrySet()), counts.size(), (ps, e) -> {
+            ps.setTimestamp(1, from);
+            ps.setString(2, e.getKey());
+            ps.setLong(3, e.getValue()[0]);
+            ps.setLong(4, e.getValue()[1]);
+        });
+    }
+
+    public List<RollupRow> findHourly(Instant from, Instant to) {
+        return jdbc.query("""
+                SELECT bucket_hour, tipo_cartao, taps, cards_issued FROM usage_rollups_hourly
+                WHERE bucket_hour >= ? AND bucket_hour < ?
+                ORDER BY bucket_hour, tipo_cartao
+                """,
+                (rs, i) -> new RollupRow(rs.getTimestamp(1).toInstant(), rs.getString(2), rs.getLong(3), rs.getLong(4)),
+                Timestamp.from(from), Timestamp.from(to));
+    }
+
+    // Soma das 24 linhas horárias de cada dia (UTC); não toca nas tabelas de origem
+    public List<RollupRow> findDaily(Instant from, Instant to) {
+        return jdbc.query("""
+                SELECT DATE(bucket_hour) AS day, tipo_cartao, SUM(taps), SUM(cards_issued) FROM usage_rollups_hourly
+                WHERE bucket_hour >= ? AND bucket_hour < ?
+                GROUP BY DATE(bucket_hour), tipo_cartao
+                ORDER BY day, tipo_cartao
+                """,
+                (rs, i) -> new RollupRow(rs.getObject(1, LocalDate.class).atStartOfDay().toInstant(ZoneOffset.UTC),
+                        rs.getString(2), rs.getLong(3), rs.getLong(4)),
+                Timestamp.from(from), Timestamp.from(to));
+    }
+}
@@ -0,0 +1,173 @@
+package com.acme.card.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.repository.CardRepository;
+import com.acme.card.utils.CardNumberCodec;
+
+/**
+ * Índice em memória dos cartões ativos, chaveado pelo número codificado em {@link CardNumberCodec}.
+ * Carregado uma vez na subida e mantido pelos {@link CardChangedEvent} após o commit.
+ *
+ * <p>O banco só garante número único por usuário: se dois usuários têm cartão ativo com o mesmo número,
+ * a consulta devolve o ativado por último e os demais ficam guardados à parte ({@code shadowed}), para
+ * voltarem ao índice quando esse for desativado.
+ */
+@Component
+public class ActiveCardIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveCardIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 5_000;
+
+    public record ActiveCard(UUID cardId, TipoCartao tipoCartao) {}
+
+    private final CardRepository repository;
+    private final ConcurrentHashMap<Long, ActiveCard> active = new ConcurrentHashMap<>(1 << 16);
+    // Outros cartões ativos com o mesmo número; só alterado dentro do compute de active para a mesma chave
+    private final ConcurrentHashMap<Long, List<ActiveCard>> shadowed = new ConcurrentHashMap<>();
+    // Cartões alterados por eventos durante a carga inicial; a carga não sobrescreve o que o evento decidiu
+    private final Set<UUID> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public ActiveCardIndex(CardRepository repository) {
+        this.repository = repository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return active.size();
+    }
+
+    public ActiveCard lookup(String numeroCartao) {
+        return lookup(CardNumberCodec.encode(numeroCartao));
+    }
+
+    public ActiveCard lookup(long encodedNumber) {
+        return encodedNumber == CardNumberCodec.INVALID ? null : active.get(encodedNumber);
+    }
+
+    public void forEach(BiConsumer<Long, ActiveCard> consumer) {
+        active.forEach(consumer);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        long key = CardNumberCodec.encode(event.numeroCartao());
+        if (key == CardNumberCodec.INVALID) {
+            return;
+        }
+        if (loading) {
+            changedDuringLoad.add(event.cardId());
+        }
+        if (event.active()) {
+            active.compute(key, (k, current) -> activate(k, current, new ActiveCard(event.cardId(), event.tipoCartao())));
+        } else {
+            active.computeIfPresent(key, (k, current) -> deactivate(k, current, event.cardId()));
+        }
+    }
+
+    int shadowedCount() {
+        return shadowed.values().stream().mapToInt(List::size).sum();
+    }
+
+    // O cartão recém-ativado assume o número; quem o tinha (outro usuário) fica guardado
+    private ActiveCard activate(long key, ActiveCard current, ActiveCard card) {
+        if (current != null && !current.cardId().equals(card.cardId())) {
+            updateShadowed(key, list -> {
+                list.removeIf(c -> c.cardId().equals(card.cardId()));
+                list.add(current);
+            });
+        }
+        return card;
+    }
+
+    // Desativar o cartão que está no índice promove o último guardado com o mesmo número
+    private ActiveCard deactivate(long key, ActiveCard current, UUID cardId) {
+        List<ActiveCard> others = shadowed.get(key);
+        if (!current.cardId().equals(cardId)) {
+            if (others != null) {
+                updateShadowed(key, list -> list.removeIf(c -> c.cardId().equals(cardId)));
+            }
+            return current;
+        }
+        if (others == null) {
+            return null;
+        }
+        ActiveCard next = others.get(others.size() - 1);
+        updateShadowed(key, list -> list.remove(list.size() - 1));
+        return next;
+    }
+
+    // Listas imutáveis: forEach e lookups nunca veem uma lista pela metade
+    private void updateShadowed(long key, Consumer<List<ActiveCard>> change) {
+        shadowed.compute(key, (k, list) -> {
+            List<ActiveCard> copy = list == null ? new ArrayList<>(2) : new ArrayList<>(list);
+            change.accept(copy);
+            return copy.isEmpty() ? null : List.copyOf(copy);
+        });
+    }
+
+    // Linha lida do banco é mais antiga que qualquer evento: não tira do índice um cartão ativado durante a carga
+    private ActiveCard loadRow(long key, ActiveCard current, ActiveCard card) {
+        if (changedDuringLoad.contains(card.cardId())) {
+            return current;
+        }
+        if (current != null && changedDuringLoad.contains(current.cardId())) {
+            updateShadowed(key, list -> list.add(0, card));
+            return current;
+        }
+        return activate(key, current, card);
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        loading = true;
+        try {
+            List<Card> page = repository.findActiveFirstPage(Limit.of(LOAD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Card card : page) {
+                    long key = CardNumberCodec.encode(card.getNumeroCartao());
+                    if (key != CardNumberCodec.INVALID) {
+                        active.compute(key, (k, current) -> loadRow(k, current, new ActiveCard(card.getId(), card.getTipoCartao())));
+                    }
+                }
+                if (page.size() < LOAD_PAGE_SIZE) {
+                    break;
+                }
+                page = repository.findActivePageAfter(page.get(page.size() - 1).getId(), Limit.of(LOAD_PAGE_SIZE));
+            }
+        } finally {
+            loading = false;
+            changedDuringLoad.clear();
+        }
+        ready = true;
+        log.info("Índice de cartões ativos carregado: {} cartões ({} com número repetido) em {} ms",
+                active.size() + shadowedCount(), shadowedCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
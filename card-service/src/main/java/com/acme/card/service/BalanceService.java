@@ -0,0 +1,245 @@
+package com.acme.card.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.CardBalance;
+import com.acme.card.domain.LedgerEntry;
+import com.acme.card.repository.CardBalanceRepository;
+import com.acme.card.repository.CardRepository;
+import com.acme.card.repository.LedgerEntryRepository;
+import com.acme.card.web.CardMapper;
+import com.acme.card.web.dto.BalanceDTOs.BalanceResponse;
+import com.acme.card.web.dto.BalanceDTOs.LedgerEntryResponse;
+import com.acme.card.web.dto.BalanceDTOs.LedgerOperationResponse;
+
+/**
+ * Saldo e ledger dos cartões. Lançamentos no mesmo cartão são serializados em memória por um lock
+ * listrado (sem SELECT ... FOR UPDATE); entre instâncias, o {@code @Version} de {@link CardBalance}
+ * detecta conflitos e o lançamento é repetido.
+ */
+@Service
+public class BalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceService.class);
+
+    private static final int STRIPES = 1024;
+    private static final int MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_LEDGER_SIZE = 20;
+    public static final int MAX_LEDGER_SIZE = 100;
+
+    private final CardRepository cards;
+    private final CardBalanceRepository balances;
+    private final LedgerEntryRepository ledger;
+    private final ActiveCardIndex index;
+    private final FareEngine fares;
+    private final TransactionTemplate tx;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    // Estado de integração/teto por cartão, em memória (um reinício apenas perde integrações em curso).
+    // Estados vencidos são removidos por expireRiderStates, senão o mapa cresceria com todo cartão já usado.
+    private final ConcurrentHashMap<UUID, RiderFareState> riderStates = new ConcurrentHashMap<>();
+
+    public BalanceService(CardRepository cards, CardBalanceRepository balances, LedgerEntryRepository ledger,
+            ActiveCardIndex index, FareEngine fares, TransactionTemplate tx) {
+        this.cards = cards;
+        this.balances = balances;
+        this.ledger = ledger;
+        this.index = index;
+        this.fares = fares;
+        this.tx = tx;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public BalanceResponse getBalance(UUID cardId, UUID authUserId, boolean isAdmin) {
+        checkOwner(cardId, authUserId, isAdmin);
+        long balance = balances.findById(cardId).map(CardBalance::getBalanceCents).orElse(0L);
+        return new BalanceResponse(cardId, balance);
+    }
+
+    public List<LedgerEntryResponse> getLedger(UUID cardId, int limit, UUID authUserId, boolean isAdmin) {
+        checkOwner(cardId, authUserId, isAdmin);
+        int size = Math.max(1, Math.min(limit, MAX_LEDGER_SIZE));
+        return ledger.findByCardIdOrderByCreatedAtDesc(cardId, Limit.of(size)).stream()
+                .map(CardMapper::toResponse)
+                .toList();
+    }
+
+    /** Recarga idempotente: a mesma chave no mesmo cartão devolve o lançamento original. */
+    public LedgerOperationResponse recharge(UUID cardId, long amountCents, String idempotencyKey,
+            UUID authUserId, boolean isAdmin) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > 64) {
+            throw new IllegalArgumentException("Chave de idempotência obrigatória (até 64 caracteres)");
+        }
+        checkOwner(cardId, authUserId, isAdmin);
+        return post(cardId, LedgerEntry.Type.RECHARGE, amountCents, idempotencyKey);
+    }
+
+    /** Débito de tarifa pelo número do cartão; só cartões ativos podem ser debitados. */
+    public LedgerOperationResponse debit(String numeroCartao, long amountCents, String idempotencyKey) {
+        var card = index.lookup(numeroCartao);
+        if (card == null) {
+            throw new NoSuchElementException("Cartão não encontrado ou inativo");
+        }
+        return post(card.cardId(), LedgerEntry.Type.DEBIT, amountCents, idempotencyKey);
+    }
+
+    /** Débito com a tarifa calculada pelo {@link FareEngine} (integração e teto diário por tipo de cartão). */
+    public LedgerOperationResponse debitFare(String numeroCartao, Instant tappedAt, String idempotencyKey) {
+        var card = index.lookup(numeroCartao);
+        if (card == null) {
+            throw new NoSuchElementException("Cartão não encontrado ou inativo");
+        }
+        long tapAt = (tappedAt != null ? tappedAt : Instant.now()).toEpochMilli();
+        FareTable table = fares.current();
+        ReentrantLock lock = lockFor(card.cardId());
+        lock.lock();
+        try {
+            RiderFareState state = riderStates.computeIfAbsent(card.cardId(), id -> new RiderFareState());
+            long fare = table.fareCents(card.tipoCartao(), tapAt, state);
+            LedgerOperationResponse response = fare > 0
+                    ? post(card.cardId(), LedgerEntry.Type.DEBIT, fare, idempotencyKey)
+                    : noCharge(card.cardId());
+            if (!response.replayed) {
+                table.record(card.tipoCartao(), tapAt, fare, state);
+            }
+            return response;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fares.state-sweep-interval-ms:600000}")
+    public void expireRiderStates() {
+        int removed = expireRiderStates(System.currentTimeMillis());
+        if (removed > 0) {
+            log.debug("{} estados tarifários vencidos removidos ({} em memória)", removed, riderStates.size());
+        }
+    }
+
+    // Sob o lock do cartão, como debitFare; cartão ocupado fica para a próxima varredura
+    int expireRiderStates(long nowMillis) {
+        FareTable table = fares.current();
+        int removed = 0;
+        for (UUID cardId : riderStates.keySet()) {
+            ReentrantLock lock = lockFor(cardId);
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                RiderFareState kept = riderStates.computeIfPresent(cardId,
+                        (id, state) -> table.isExpired(nowMillis, state) ? null : state);
+                if (kept == null) {
+                    removed++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    int riderStateCount() {
+        return riderStates.size();
+    }
+
+    private void checkOwner(UUID cardId, UUID authUserId, boolean isAdmin) {
+        Card card = cards.findById(cardId)
+            .orElseThrow(() -> new NoSuchElementException("Cartão não encontrado"));
+        if (!isAdmin && !card.getUserId().equals(authUserId)) {
+            throw new AccessDeniedException("Não autorizado a acessar o saldo deste cartão");
+        }
+    }
+
+    private LedgerOperationResponse post(UUID cardId, LedgerEntry.Type type, long amountCents, String idempotencyKey) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Valor deve ser positivo");
+        }
+        ReentrantLock lock = lockFor(cardId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return tx.execute(status -> postInTransaction(cardId, type, amountCents, idempotencyKey));
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    // Outra instância gravou antes: mesma chave de idempotência ou versão do saldo
+                    if (idempotencyKey != null) {
+                        var existing = ledger.findByCardIdAndIdempotencyKey(cardId, idempotencyKey);
+                        if (existing.isPresent()) {
+                            return replay(existing.get());
+                        }
+                    }
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw new IllegalStateException("Conflito ao atualizar o saldo, tente novamente");
+                    }
+                    log.debug("Conflito no saldo do cartão {} (tentativa {})", cardId, attempt);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LedgerOperationResponse postInTransaction(UUID cardId, LedgerEntry.Type type, long amountCents,
+            String idempotencyKey) {
+        if (idempotencyKey != null) {
+            var existing = ledger.findByCardIdAndIdempotencyKey(cardId, idempotencyKey);
+            if (existing.isPresent()) {
+                return replay(existing.get());
+            }
+        }
+        CardBalance balance = balances.findById(cardId).orElseGet(() -> CardBalance.open(cardId));
+        long delta = type == LedgerEntry.Type.DEBIT ? -amountCents : amountCents;
+        if (balance.getBalanceCents() + delta < 0) {
+            throw new IllegalStateException("Saldo insuficiente");
+        }
+        balance.apply(delta);
+        balances.saveAndFlush(balance);
+        LedgerEntry entry = ledger.save(LedgerEntry.create(cardId, type, amountCents,
+                balance.getBalanceCents(), idempotencyKey));
+
+        var response = new LedgerOperationResponse();
+        response.cardId = cardId;
+        response.entry = CardMapper.toResponse(entry);
+        response.balanceCents = balance.getBalanceCents();
+        return response;
+    }
+
+    private LedgerOperationResponse noCharge(UUID cardId) {
+        var response = new LedgerOperationResponse();
+        response.cardId = cardId;
+        response.balanceCents = balances.findById(cardId).map(CardBalance::getBalanceCents).orElse(0L);
+        return response;
+    }
+
+    private LedgerOperationResponse replay(LedgerEntry entry) {
+        var response = new LedgerOperationResponse();
+        response.cardId = entry.getCardId();
+        response.entry = CardMapper.toResponse(entry);
+        response.balanceCents = balances.findById(entry.getCardId()).map(CardBalance::getBalanceCents)
+                .orElse(entry.getBalanceAfterCents());
+        response.replayed = true;
+        return response;
+    }
+
+    private ReentrantLock lockFor(UUID cardId) {
+        int h = cardId.hashCode();
+        return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,32 @@
+package com.acme.card.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.acme.card.domain.Card;
+
+/**
+ * Cursor opaco da busca de cartões: posição (nome, id) do último item da página.
+ */
+public record CardCursor(String nome, UUID id) {
+
+    public static CardCursor of(Card card) {
+        return new CardCursor(card.getNome(), card.getId());
+    }
+
+    public String encode() {
+        String raw = id + ":" + nome;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CardCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new CardCursor(raw.substring(sep + 1), UUID.fromString(raw.substring(0, sep)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.acme.card.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.acme.card.domain.Card;
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.CardChangedEvent.Kind;
 import com.acme.card.repository.CardRepository;
+import com.acme.card.repository.CardSpecifications;
 import com.acme.card.utils.CardNumberGenerator;
 import com.acme.card.web.CardMapper;
 import com.acme.card.web.dto.CardDTOs.AddCardRequest;
+import com.acme.card.web.dto.CardDTOs.CardPage;
 import com.acme.card.web.dto.CardDTOs.CardResponse;
+import com.acme.card.web.dto.CardDTOs.CardSearchFilter;
 import com.acme.card.web.dto.CardDTOs.CreateCardRequest;
 import com.acme.card.web.dto.CardDTOs.UpdateCardRequest;
 
@@ -23,19 +35,51 @@ import com.acme.card.web.dto.CardDTOs.UpdateCardRequest;
 public class CardService {
     
     private static final Logger log = LoggerFactory.getLogger(CardService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final Sort SEARCH_ORDER = Sort.by("nome", "id");
     
     private final CardRepository repository;
+    private final ApplicationEventPublisher events;
     private final java.util.Random random = new java.util.Random();
 
-    public CardService(CardRepository repository) {
+    public CardService(CardRepository repository, ApplicationEventPublisher events) {
         this.repository = repository;
+        this.events = events;
     }
     
-    public List<CardResponse> getAllCards() {
-        log.debug("Listando todos os cartões");
-        return repository.findAll().stream()
-            .map(CardMapper::toResponse)
-            .toList();
+    public CardPage searchCards(CardSearchFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.debug("Buscando cartões (cursor: {}, limite: {})", cursor, pageSize);
+
+        Specification<Card> spec = Specification.where(null);
+        if (filter.tipoCartao != null) {
+            spec = spec.and(CardSpecifications.hasTipo(filter.tipoCartao));
+        }
+        if (filter.status != null) {
+            spec = spec.and(CardSpecifications.hasStatus(filter.status));
+        }
+        if (filter.userId != null) {
+            spec = spec.and(CardSpecifications.ofUser(filter.userId));
+        }
+        if (filter.nome != null && !filter.nome.isBlank()) {
+            spec = spec.and(CardSpecifications.nomeStartsWith(filter.nome.trim()));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            CardCursor after = CardCursor.decode(cursor);
+            spec = spec.and(CardSpecifications.after(after.nome(), after.id()));
+        }
+
+        // Busca um item a mais só para saber se existe próxima página
+        List<Card> cards = repository.findBy(spec, q -> q.sortBy(SEARCH_ORDER).limit(pageSize + 1).all());
+        boolean hasNext = cards.size() > pageSize;
+        if (hasNext) {
+            cards = cards.subList(0, pageSize);
+        }
+
+        String nextCursor = hasNext ? CardCursor.of(cards.get(cards.size() - 1)).encode() : null;
+        return new CardPage(cards.stream().map(CardMapper::toResponse).toList(), nextCursor);
     }
 
     public CardResponse getCardById(UUID cardId) {
@@ -77,6 +121,7 @@ public class CardService {
 
         Card card = Card.create(numeroCartao, nomeCartao, request.tipoCartao, request.userId);
         Card savedCard = repository.save(card);
+        events.publishEvent(CardChangedEvent.of(savedCard, Kind.CREATED));
         
         log.info("Cartão criado com sucesso: {} para usuário: {}", savedCard.getId(), request.userId);
         return CardMapper.toResponse(savedCard);
@@ -105,6 +150,7 @@ public class CardService {
 
         Card card = Card.create(numeroCartao, nomeCartao, request.tipoCartao, userId);
         Card savedCard = repository.save(card);
+        events.publishEvent(CardChangedEvent.of(savedCard, Kind.CREATED));
         
         log.info("Cartão adicionado com sucesso: {} para usuário: {}", savedCard.getId(), userId);
         return CardMapper.toResponse(savedCard);
@@ -129,6 +175,7 @@ public class CardService {
             } else {
                 card.deactivate();
             }
+            events.publishEvent(CardChangedEvent.of(card, request.status ? Kind.ACTIVATED : Kind.DEACTIVATED));
         }
         
         log.info("Cartão atualizado com sucesso: {}", cardId);
@@ -147,6 +194,7 @@ public class CardService {
         }
         
         repository.delete(card);
+        events.publishEvent(CardChangedEvent.of(card, Kind.DELETED));
         log.info("Cartão removido com sucesso: {}", cardId);
     }
 
@@ -166,6 +214,7 @@ public class CardService {
         }
         
         repository.delete(card);
+        events.publishEvent(CardChangedEvent.of(card, Kind.DELETED));
         log.info("Cartão {} removido do usuário: {}", cardId, userId);
     }
 
@@ -195,6 +244,7 @@ public class CardService {
         } else {
             card.deactivate();
         }
+        events.publishEvent(CardChangedEvent.of(card, activate ? Kind.ACTIVATED : Kind.DEACTIVATED));
         
         log.info("Cartão {} {}: {}", cardId, activate ? "ativado" : "desativado", card.getNumeroCartao());
         return CardMapper.toResponse(card);
@@ -214,6 +264,25 @@ public class CardService {
             .toList();
     }
 
+    public Map<UUID, List<CardResponse>> internalGetCardsByUserIds(Collection<UUID> userIds) {
+        log.debug("Acesso interno - listando cartões de {} usuários", userIds.size());
+
+        // Todo usuário solicitado aparece no resultado, mesmo sem cartões
+        Map<UUID, List<CardResponse>> cardsByUser = new LinkedHashMap<>();
+        for (UUID userId : userIds) {
+            cardsByUser.put(userId, new ArrayList<>());
+        }
+        if (cardsByUser.isEmpty()) {
+            return cardsByUser;
+        }
+
+        for (Card card : repository.findByUserIdIn(cardsByUser.keySet())) {
+            cardsByUser.computeIfAbsent(card.getUserId(), id -> new ArrayList<>())
+                .add(CardMapper.toResponse(card));
+        }
+        return cardsByUser;
+    }
+
     @Transactional
     public CardResponse internalCreateCard(CreateCardRequest request) {
         log.debug("Acesso interno - criando cartão para usuário: {}", request.userId);
@@ -233,6 +302,7 @@ public class CardService {
 
         Card card = Card.create(numeroCartao, nomeCartao, request.tipoCartao, request.userId);
         Card savedCard = repository.save(card);
+        events.publishEvent(CardChangedEvent.of(savedCard, Kind.CREATED));
         
         log.info("Cartão criado via acesso interno: {} para usuário: {}", savedCard.getId(), request.userId);
         return CardMapper.toResponse(savedCard);
@@ -0,0 +1,180 @@
+package com.acme.card.service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.acme.card.utils.CardNumberCodec;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Detecta cartões clonados: o mesmo número passando em validadores distantes num intervalo
+ * impossível de percorrer. Mantém, por cartão, uma janela deslizante das últimas passagens em
+ * segmentos LRU de tamanho fixo; nada aqui consulta o banco por evento.
+ */
+@Service
+public class CloneDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(CloneDetector.class);
+
+    private static final int SEGMENTS = 64;
+    private static final int TAPS_PER_CARD = 4;
+    private static final int MAX_ALERTS = 1_000;
+    private static final double EARTH_RADIUS_KM = 6_371.0;
+    private static final long ALERT_COOLDOWN_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    public record Alert(String numeroCartao, UUID cardId, Instant firstTapAt, Instant secondTapAt,
+            double distanceKm, double speedKmh, boolean deactivated) {}
+
+    // Últimas passagens do cartão em arrays circulares (sem objeto por passagem)
+    private static final class TapWindow {
+        final long[] at = new long[TAPS_PER_CARD];
+        final double[] lat = new double[TAPS_PER_CARD];
+        final double[] lon = new double[TAPS_PER_CARD];
+        int size;
+        int next;
+    }
+
+    private final CardService cardService;
+    private final long windowMillis;
+    private final double maxSpeedKmh;
+    private final double minDistanceKm;
+    private final boolean autoDeactivate;
+    private final Map<Long, TapWindow>[] segments;
+    private final ArrayDeque<Alert> alerts = new ArrayDeque<>();
+    // Número -> instante do último alerta; evita um alerta (e uma desativação) por passagem
+    private final ConcurrentHashMap<Long, Long> lastAlertAt = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor deactivations = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1_000), r -> {
+                Thread t = new Thread(r, "clone-detector-deactivation");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    @SuppressWarnings("unchecked")
+    public CloneDetector(CardService cardService,
+            @Value("${validator.fraud.window-minutes:10}") long windowMinutes,
+            @Value("${validator.fraud.max-speed-kmh:120}") double maxSpeedKmh,
+            @Value("${validator.fraud.min-distance-km:2}") double minDistanceKm,
+            @Value("${validator.fraud.max-cards:200000}") int maxCards,
+            @Value("${validator.fraud.auto-deactivate:false}") boolean autoDeactivate) {
+        this.cardService = cardService;
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.maxSpeedKmh = maxSpeedKmh;
+        this.minDistanceKm = minDistanceKm;
+        this.autoDeactivate = autoDeactivate;
+        int perSegment = Math.max(1, maxCards / SEGMENTS);
+        this.segments = new Map[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, TapWindow> eldest) {
+                    return size() > perSegment;
+                }
+            };
+        }
+    }
+
+    /**
+     * Avalia uma passagem. Retorna true se ela for incompatível com alguma passagem recente do mesmo cartão.
+     * {@code cardId} pode ser nulo (número fora do índice): nesse caso só há alerta, sem desativação.
+     */
+    public boolean onTap(long cardNumber, UUID cardId, long tappedAtMillis, double lat, double lon) {
+        Alert alert = null;
+        Map<Long, TapWindow> segment = segments[(Long.hashCode(cardNumber) & 0x7fffffff) % SEGMENTS];
+        synchronized (segment) {
+            TapWindow window = segment.computeIfAbsent(cardNumber, k -> new TapWindow());
+            for (int i = 0; i < window.size; i++) {
+                long elapsed = Math.abs(tappedAtMillis - window.at[i]);
+                if (elapsed > windowMillis) {
+                    continue;
+                }
+                double distance = distanceKm(lat, lon, window.lat[i], window.lon[i]);
+                if (distance < minDistanceKm) {
+                    continue;
+                }
+                double hours = Math.max(elapsed, 1_000) / 3_600_000.0;
+                double speed = distance / hours;
+                if (speed > maxSpeedKmh && alert == null) {
+                    alert = new Alert(CardNumberCodec.decode(cardNumber), cardId,
+                            Instant.ofEpochMilli(Math.min(window.at[i], tappedAtMillis)),
+                            Instant.ofEpochMilli(Math.max(window.at[i], tappedAtMillis)),
+                            distance, speed, autoDeactivate && cardId != null);
+                }
+            }
+            window.at[window.next] = tappedAtMillis;
+            window.lat[window.next] = lat;
+            window.lon[window.next] = lon;
+            window.next = (window.next + 1) % TAPS_PER_CARD;
+            window.size = Math.min(window.size + 1, TAPS_PER_CARD);
+        }
+        if (alert != null) {
+            raise(cardNumber, alert);
+        }
+        return alert != null;
+    }
+
+    public List<Alert> recentAlerts() {
+        synchronized (alerts) {
+            return List.copyOf(alerts);
+        }
+    }
+
+    private void raise(long cardNumber, Alert alert) {
+        long now = System.currentTimeMillis();
+        Long previous = lastAlertAt.put(cardNumber, now);
+        if (previous != null && now - previous < ALERT_COOLDOWN_MILLIS) {
+            return;
+        }
+        if (lastAlertAt.size() > MAX_ALERTS) {
+            lastAlertAt.values().removeIf(at -> now - at >= ALERT_COOLDOWN_MILLIS);
+        }
+        log.warn("Possível clone do cartão {}: {} km em {} s ({} km/h)", alert.numeroCartao(),
+                Math.round(alert.distanceKm()),
+                (alert.secondTapAt().toEpochMilli() - alert.firstTapAt().toEpochMilli()) / 1000,
+                Math.round(alert.speedKmh()));
+        synchronized (alerts) {
+            if (alerts.size() == MAX_ALERTS) {
+                alerts.removeFirst();
+            }
+            alerts.addLast(alert);
+        }
+        if (alert.deactivated()) {
+            deactivations.execute(() -> {
+                try {
+                    cardService.deactivateCard(alert.cardId(), null, true);
+                } catch (RuntimeException e) {
+                    log.error("Falha ao desativar cartão suspeito {}: {}", alert.cardId(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Haversine
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    @PreDestroy
+    public void stop() {
+        deactivations.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.acme.card.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+/**
+ * Carrega o arquivo de regras tarifárias, compila num {@link FareTable} e troca a tabela atomicamente
+ * no reload. Passagens em andamento continuam com a tabela que já tinham lido.
+ */
+@Service
+public class FareEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FareEngine.class);
+
+    public record LoadedTable(FareTable table, Instant loadedAt) {}
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final AtomicReference<LoadedTable> current = new AtomicReference<>();
+
+    public FareEngine(ResourceLoader resourceLoader,
+            @Value("${fares.location:classpath:fares.properties}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        reload();
+    }
+
+    public FareTable current() {
+        return current.get().table();
+    }
+
+    public LoadedTable loaded() {
+        return current.get();
+    }
+
+    /** Recompila as regras; se o arquivo for inválido a tabela atual continua valendo. */
+    public synchronized LoadedTable reload() {
+        Resource resource = resourceLoader.getResource(location);
+        Properties rules = new Properties();
+        try (InputStream in = resource.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            rules.load(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Não foi possível ler as regras tarifárias em " + location, e);
+        }
+        LoadedTable loaded = new LoadedTable(FareTable.compile(rules), Instant.now());
+        current.set(loaded);
+        log.info("Regras tarifárias carregadas de {}", location);
+        return loaded;
+    }
+}
@@ -0,0 +1,155 @@
+package com.acme.card.service;
+
+import java.time.DateTimeException;
+import java.time.ZoneOffset;
+import java.util.Properties;
+
+import com.acme.card.domain.TipoCartao;
+
+/**
+ * Regras tarifárias compiladas em arrays primitivos indexados pelo ordinal de {@link TipoCartao}.
+ * Imutável; a avaliação de uma passagem não aloca.
+ *
+ * <pre>
+ * fare.zone-offset=-03:00                      # virada do dia para o teto diário
+ * fare.&lt;TIPO&gt;.base-cents=500
+ * fare.&lt;TIPO&gt;.discount-percent=50
+ * fare.&lt;TIPO&gt;.transfer-window-minutes=120     # 0 = sem integração
+ * fare.&lt;TIPO&gt;.max-transfers=2
+ * fare.&lt;TIPO&gt;.transfer-cents=0
+ * fare.&lt;TIPO&gt;.daily-cap-cents=1000            # 0 = sem teto
+ * </pre>
+ */
+public final class FareTable {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final long[] fullFare;
+    private final long[] transferWindowMillis;
+    private final int[] maxTransfers;
+    private final long[] transferFare;
+    private final long[] dailyCap;
+    private final long zoneOffsetMillis;
+    private final Properties source;
+    private final long maxTransferWindowMillis;
+
+    private FareTable(long[] fullFare, long[] transferWindowMillis, int[] maxTransfers, long[] transferFare,
+            long[] dailyCap, long maxTransferWindowMillis, long zoneOffsetMillis, Properties source) {
+        this.fullFare = fullFare;
+        this.transferWindowMillis = transferWindowMillis;
+        this.maxTransfers = maxTransfers;
+        this.transferFare = transferFare;
+        this.dailyCap = dailyCap;
+        this.maxTransferWindowMillis = maxTransferWindowMillis;
+        this.zoneOffsetMillis = zoneOffsetMillis;
+        this.source = source;
+    }
+
+    /** Compila as regras; lança IllegalArgumentException com a primeira regra ausente ou inválida. */
+    public static FareTable compile(Properties rules) {
+        Properties copy = new Properties();
+        copy.putAll(rules);
+        long offset = zoneOffsetMillis(copy.getProperty("fare.zone-offset", "Z"));
+        TipoCartao[] tipos = TipoCartao.values();
+        long[] fullFare = new long[tipos.length];
+        long[] transferWindowMillis = new long[tipos.length];
+        int[] maxTransfers = new int[tipos.length];
+        long[] transferFare = new long[tipos.length];
+        long[] dailyCap = new long[tipos.length];
+        long maxTransferWindowMillis = 0;
+        for (TipoCartao tipo : tipos) {
+            int i = tipo.ordinal();
+            long base = read(copy, tipo, "base-cents");
+            long discount = read(copy, tipo, "discount-percent");
+            if (discount > 100) {
+                throw new IllegalArgumentException("Desconto acima de 100% para " + tipo);
+            }
+            fullFare[i] = base * (100 - discount) / 100;
+            transferWindowMillis[i] = read(copy, tipo, "transfer-window-minutes") * 60_000L;
+            maxTransferWindowMillis = Math.max(maxTransferWindowMillis, transferWindowMillis[i]);
+            maxTransfers[i] = Math.toIntExact(read(copy, tipo, "max-transfers"));
+            transferFare[i] = read(copy, tipo, "transfer-cents");
+            dailyCap[i] = read(copy, tipo, "daily-cap-cents");
+        }
+        return new FareTable(fullFare, transferWindowMillis, maxTransfers, transferFare, dailyCap,
+                maxTransferWindowMillis, offset, copy);
+    }
+
+    private static long zoneOffsetMillis(String value) {
+        try {
+            return ZoneOffset.of(value.trim()).getTotalSeconds() * 1000L;
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Regra tarifária inválida: fare.zone-offset=" + value);
+        }
+    }
+
+    private static long read(Properties rules, TipoCartao tipo, String name) {
+        String key = "fare." + tipo.name() + "." + name;
+        String value = rules.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Regra tarifária ausente: " + key);
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Regra tarifária negativa: " + key);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Regra tarifária inválida: " + key + "=" + value);
+        }
+    }
+
+    /** Tarifa da passagem em centavos, sem alterar o estado. */
+    public long fareCents(TipoCartao tipo, long tapAtMillis, RiderFareState state) {
+        int i = tipo.ordinal();
+        long day = Math.floorDiv(tapAtMillis + zoneOffsetMillis, DAY_MILLIS);
+        long chargedToday = state.day == day ? state.chargedTodayCents : 0;
+
+        long fare = isTransfer(i, tapAtMillis, state) ? transferFare[i] : fullFare[i];
+        if (dailyCap[i] > 0) {
+            fare = Math.min(fare, Math.max(0, dailyCap[i] - chargedToday));
+        }
+        return fare;
+    }
+
+    /** Registra no estado a passagem cobrada com {@code chargedCents}. */
+    public void record(TipoCartao tipo, long tapAtMillis, long chargedCents, RiderFareState state) {
+        int i = tipo.ordinal();
+        long day = Math.floorDiv(tapAtMillis + zoneOffsetMillis, DAY_MILLIS);
+        if (state.day != day) {
+            state.day = day;
+            state.chargedTodayCents = 0;
+        }
+        state.chargedTodayCents += chargedCents;
+        if (isTransfer(i, tapAtMillis, state)) {
+            state.transfersUsed++;
+        } else {
+            state.lastFullFareAt = tapAtMillis;
+            state.transfersUsed = 0;
+        }
+    }
+
+    private boolean isTransfer(int i, long tapAtMillis, RiderFareState state) {
+        long window = transferWindowMillis[i];
+        return window > 0
+                && state.lastFullFareAt != Long.MIN_VALUE
+                && tapAtMillis - state.lastFullFareAt <= window
+                && tapAtMillis >= state.lastFullFareAt
+                && state.transfersUsed < maxTransfers[i];
+    }
+
+    /** true quando o estado não afeta mais nenhuma tarifa: o dia do teto acabou e nenhuma integração cabe. */
+    public boolean isExpired(long nowMillis, RiderFareState state) {
+        long today = Math.floorDiv(nowMillis + zoneOffsetMillis, DAY_MILLIS);
+        return state.day < today
+                && (state.lastFullFareAt == Long.MIN_VALUE || nowMillis - state.lastFullFareAt > maxTransferWindowMillis);
+    }
+
+    /** Regras de origem (cópia), para exibição. */
+    public Properties rules() {
+        Properties copy = new Properties();
+        copy.putAll(source);
+        return copy;
+    }
+}
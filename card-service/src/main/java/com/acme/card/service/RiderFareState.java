@@ -0,0 +1,21 @@
+package com.acme.card.service;
+
+/**
+ * Estado tarifário de um cartão usado pelo {@link FareTable}: última tarifa cheia, integrações usadas
+ * e total cobrado no dia. Mutável e reaproveitado entre passagens para não alocar no caminho quente.
+ */
+public final class RiderFareState {
+
+    long lastFullFareAt = Long.MIN_VALUE;
+    int transfersUsed;
+    long day = Long.MIN_VALUE;
+    long chargedTodayCents;
+
+    public long chargedTodayCents() {
+        return chargedTodayCents;
+    }
+
+    public int transfersUsed() {
+        return transfersUsed;
+    }
+}
@@ -0,0 +1,57 @@
+package com.acme.card.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filtro de duplicatas por (cartão, validador, instante) em duas gerações: a atual recebe as chaves novas
+ * e a anterior ainda é consultada. A rotação acontece por tempo ou tamanho, limitando a memória;
+ * duplicatas mais antigas que a janela são descartadas pelo INSERT IGNORE.
+ */
+class TapDeduplicator {
+
+    record TapKey(long cardNumber, String validatorId, long tappedAtMillis) {}
+
+    private final long windowMillis;
+    private final int maxKeysPerGeneration;
+
+    private volatile Set<TapKey> current = ConcurrentHashMap.newKeySet();
+    private volatile Set<TapKey> previous = ConcurrentHashMap.newKeySet();
+    private volatile long generationStart = System.currentTimeMillis();
+
+    TapDeduplicator(Duration window, int maxKeysPerGeneration) {
+        this.windowMillis = window.toMillis();
+        this.maxKeysPerGeneration = maxKeysPerGeneration;
+    }
+
+    /** Registra a chave; retorna false se ela já foi vista dentro da janela. */
+    boolean add(TapKey key) {
+        rotateIfNeeded();
+        if (previous.contains(key)) {
+            return false;
+        }
+        return current.add(key);
+    }
+
+    /** Desfaz um {@link #add} cujo evento não foi enfileirado ou não pôde ser gravado. */
+    void remove(TapKey key) {
+        current.remove(key);
+        previous.remove(key);
+    }
+
+    private void rotateIfNeeded() {
+        long now = System.currentTimeMillis();
+        if (now - generationStart < windowMillis && current.size() < maxKeysPerGeneration) {
+            return;
+        }
+        synchronized (this) {
+            if (now - generationStart < windowMillis && current.size() < maxKeysPerGeneration) {
+                return;
+            }
+            previous = current;
+            current = ConcurrentHashMap.newKeySet();
+            generationStart = now;
+        }
+    }
+}
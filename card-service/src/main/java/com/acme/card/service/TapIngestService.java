@@ -0,0 +1,179 @@
+package com.acme.card.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.acme.card.domain.CardTap;
+import com.acme.card.repository.CardTapRepository;
+import com.acme.card.utils.CardNumberCodec;
+import com.acme.card.web.dto.ValidatorDTOs.TapEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ingestão das passagens dos validadores: deduplica, enfileira numa fila limitada e grava em lotes
+ * numa thread dedicada. Fila cheia = {@link Outcome#BACKPRESSURE}; o cliente reenvia o lote depois,
+ * e a deduplicação torna o reenvio seguro.
+ *
+ * <p>Passagens já respondidas como {@link Outcome#ACCEPTED} não são descartadas se a gravação falhar:
+ * o lote volta para a fila e é tentado de novo. Com o banco fora a fila enche e os validadores passam a
+ * receber BACKPRESSURE. O que não couber na fila sai da deduplicação, para que um reenvio seja aceito.
+ */
+@Service
+public class TapIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(TapIngestService.class);
+
+    private static final int MAX_VALIDATOR_ID_LENGTH = 64;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long REQUEUE_PAUSE_MILLIS = 1_000;
+
+    public enum Outcome { ACCEPTED, DUPLICATE, REJECTED, BACKPRESSURE }
+
+    private final CardTapRepository repository;
+    private final ActiveCardIndex index;
+    private final CloneDetector cloneDetector;
+    private final UsageRollupService rollups;
+    private final TapDeduplicator deduplicator;
+    private final BlockingQueue<CardTap> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public TapIngestService(CardTapRepository repository, ActiveCardIndex index, CloneDetector cloneDetector,
+            UsageRollupService rollups,
+            @Value("${validator.taps.queue-capacity:200000}") int queueCapacity,
+            @Value("${validator.taps.batch-size:1000}") int batchSize,
+            @Value("${validator.taps.offer-timeout-ms:100}") long offerTimeoutMillis,
+            @Value("${validator.taps.dedup-window-minutes:10}") long dedupWindowMinutes,
+            @Value("${validator.taps.dedup-max-keys:1000000}") int dedupMaxKeys) {
+        this.repository = repository;
+        this.index = index;
+        this.cloneDetector = cloneDetector;
+        this.rollups = rollups;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.deduplicator = new TapDeduplicator(Duration.ofMinutes(dedupWindowMinutes), dedupMaxKeys);
+    }
+
+    public Outcome submit(TapEvent event) throws InterruptedException {
+        long cardNumber = event == null ? CardNumberCodec.INVALID : CardNumberCodec.encode(event.numeroCartao);
+        if (cardNumber == CardNumberCodec.INVALID || event.timestamp == null
+                || event.validatorId == null || event.validatorId.isBlank()
+                || event.validatorId.length() > MAX_VALIDATOR_ID_LENGTH) {
+            return Outcome.REJECTED;
+        }
+        Instant tappedAt = event.timestamp.truncatedTo(ChronoUnit.MILLIS);
+        var key = new TapDeduplicator.TapKey(cardNumber, event.validatorId, tappedAt.toEpochMilli());
+        if (!deduplicator.add(key)) {
+            return Outcome.DUPLICATE;
+        }
+        var card = index.lookup(cardNumber);
+        CardTap tap = new CardTap(cardNumber, event.validatorId, tappedAt,
+                card != null ? card.cardId() : null, card != null ? card.tipoCartao() : null);
+        if (!queue.offer(tap, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            deduplicator.remove(key);
+            return Outcome.BACKPRESSURE;
+        }
+        if (event.latitude != null && event.longitude != null) {
+            cloneDetector.onTap(cardNumber, tap.cardId(), tappedAt.toEpochMilli(), event.latitude, event.longitude);
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "card-tap-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                CardTap first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<CardTap> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!write(batch)) {
+                    if (!running) {
+                        log.error("Desligando com o banco indisponível: {} passagens não gravadas",
+                                batch.size() + queue.size());
+                        return;
+                    }
+                    requeue(batch);
+                    Thread.sleep(REQUEUE_PAUSE_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean write(List<CardTap> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                repository.insertBatch(batch);
+                rollups.recordTaps(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    log.error("Falha ao gravar {} passagens após {} tentativas: {}", batch.size(), attempt, e.getMessage());
+                    return false;
+                }
+                log.warn("Falha ao gravar lote de passagens (tentativa {}): {}", attempt, e.getMessage());
+                Thread.sleep(200L * attempt);
+            }
+        }
+    }
+
+    // INSERT IGNORE torna a regravação de parte do lote inofensiva
+    private void requeue(List<CardTap> batch) {
+        int lost = 0;
+        for (CardTap tap : batch) {
+            if (!queue.offer(tap)) {
+                deduplicator.remove(new TapDeduplicator.TapKey(tap.cardNumber(), tap.validatorId(),
+                        tap.tappedAt().toEpochMilli()));
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            log.error("Fila cheia: {} de {} passagens não voltaram para a fila e só serão gravadas se reenviadas",
+                    lost, batch.size());
+        } else {
+            log.warn("{} passagens devolvidas à fila para nova tentativa", batch.size());
+        }
+    }
+}
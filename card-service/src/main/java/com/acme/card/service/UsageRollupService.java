@@ -0,0 +1,178 @@
+package com.acme.card.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.CardTap;
+import com.acme.card.repository.UsageRollupRepository;
+import com.acme.card.repository.UsageRollupRepository.RollupRow;
+
+/**
+ * Mantém usage_rollups_hourly. Horas abertas (a atual e a anterior) recebem incrementos em lote do
+ * caminho de escrita; quando uma hora fecha, ou recebe dados atrasados, ela é reagregada a partir das
+ * tabelas de origem, o que corrige qualquer desvio dos incrementos e é idempotente.
+ */
+@Service
+public class UsageRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsageRollupService.class);
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    public static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    public static final Duration MAX_DAILY_RANGE = Duration.ofDays(366);
+
+    private record Bucket(long hour, String tipo) {}
+
+    private final UsageRollupRepository repository;
+    private final Map<Bucket, LongAdder> pendingTaps = new ConcurrentHashMap<>();
+    private final Map<Bucket, LongAdder> pendingIssued = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyHours = ConcurrentHashMap.newKeySet();
+    // Gravações leem a fronteira; o flush a avança com exclusividade para nenhum incremento cair numa hora já fechada
+    private final ReentrantReadWriteLock boundary = new ReentrantReadWriteLock();
+    private volatile long closedBefore;
+
+    public UsageRollupService(UsageRollupRepository repository) {
+        this.repository = repository;
+        this.closedBefore = currentHour() - 1;
+        // A última hora fechada pode ter perdido incrementos se o serviço estava parado
+        dirtyHours.add(closedBefore - 1);
+    }
+
+    long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+    public void recordTaps(List<CardTap> taps) {
+        boundary.readLock().lock();
+        try {
+            for (CardTap tap : taps) {
+                long hour = tap.tappedAt().toEpochMilli() / HOUR_MILLIS;
+                String tipo = tap.tipoCartao() != null ? tap.tipoCartao().name() : UsageRollupRepository.UNKNOWN_TIPO;
+                record(pendingTaps, hour, tipo);
+            }
+        } finally {
+            boundary.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        if (event.kind() != CardChangedEvent.Kind.CREATED) {
+            return;
+        }
+        boundary.readLock().lock();
+        try {
+            record(pendingIssued, currentHour(), event.tipoCartao().name());
+        } finally {
+            boundary.readLock().unlock();
+        }
+    }
+
+    private void record(Map<Bucket, LongAdder> pending, long hour, String tipo) {
+        if (hour < closedBefore) {
+            dirtyHours.add(hour);
+        } else {
+            pending.computeIfAbsent(new Bucket(hour, tipo), b -> new LongAdder()).increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reports.rollup.flush-interval-ms:30000}")
+    public void flush() {
+        List<RollupRow> increments;
+        boundary.writeLock().lock();
+        try {
+            long newBoundary = currentHour() - 1;
+            for (long hour = closedBefore; hour < newBoundary; hour++) {
+                dirtyHours.add(hour);
+            }
+            closedBefore = Math.max(closedBefore, newBoundary);
+            increments = drain();
+        } finally {
+            boundary.writeLock().unlock();
+        }
+
+        if (!increments.isEmpty()) {
+            try {
+                repository.addIncrements(increments);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar incrementos de uso ({} linhas), reagregando as horas: {}",
+                        increments.size(), e.getMessage());
+                increments.forEach(row -> dirtyHours.add(row.bucket().toEpochMilli() / HOUR_MILLIS));
+            }
+        }
+
+        for (Long hour : new TreeSet<>(dirtyHours)) {
+            if (hour >= closedBefore) {
+                continue;
+            }
+            dirtyHours.remove(hour);
+            try {
+                repository.reaggregate(Instant.ofEpochMilli(hour * HOUR_MILLIS));
+            } catch (RuntimeException e) {
+                dirtyHours.add(hour);
+                log.warn("Falha ao reagregar uso da hora {}: {}", Instant.ofEpochMilli(hour * HOUR_MILLIS), e.getMessage());
+                break;
+            }
+        }
+    }
+
+    private List<RollupRow> drain() {
+        Map<Bucket, long[]> merged = new HashMap<>();
+        pendingTaps.forEach((b, n) -> merged.computeIfAbsent(b, k -> new long[2])[0] = n.sum());
+        pendingIssued.forEach((b, n) -> merged.computeIfAbsent(b, k -> new long[2])[1] = n.sum());
+        pendingTaps.clear();
+        pendingIssued.clear();
+        List<RollupRow> rows = new ArrayList<>(merged.size());
+        merged.forEach((b, c) -> rows.add(new RollupRow(Instant.ofEpochMilli(b.hour() * HOUR_MILLIS), b.tipo(), c[0], c[1])));
+        return rows;
+    }
+
+    /** Marca as horas do intervalo para reagregação no próximo flush (backfill manual). */
+    public int requestReaggregation(Instant from, Instant to) {
+        validateRange(from, to, MAX_DAILY_RANGE);
+        long first = from.toEpochMilli() / HOUR_MILLIS;
+        long last = (to.toEpochMilli() - 1) / HOUR_MILLIS;
+        int count = 0;
+        for (long hour = first; hour <= last && hour < closedBefore; hour++) {
+            dirtyHours.add(hour);
+            count++;
+        }
+        return count;
+    }
+
+    public List<RollupRow> getHourly(Instant from, Instant to) {
+        validateRange(from, to, MAX_HOURLY_RANGE);
+        return repository.findHourly(from.truncatedTo(ChronoUnit.HOURS), to);
+    }
+
+    public List<RollupRow> getDaily(Instant from, Instant to) {
+        validateRange(from, to, MAX_DAILY_RANGE);
+        return repository.findDaily(from.truncatedTo(ChronoUnit.DAYS), to);
+    }
+
+    private static void validateRange(Instant from, Instant to, Duration max) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Intervalo inválido");
+        }
+        if (Duration.between(from, to).compareTo(max) > 0) {
+            throw new IllegalArgumentException("Intervalo maior que " + max.toDays() + " dias");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.acme.card.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.utils.CardDeltaJournal;
+import com.acme.card.utils.CardNumberCodec;
+import com.acme.card.utils.CardSnapshotFile;
+
+/**
+ * Mantém o snapshot binário dos cartões ativos e o journal de deltas usados pelos validadores offline.
+ * O snapshot é gerado a partir do {@link ActiveCardIndex}; cada {@link CardChangedEvent} vira um registro
+ * no journal, que é compactado num novo snapshot quando passa de {@code max-delta-records}.
+ */
+@Service
+public class ValidatorSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidatorSnapshotService.class);
+
+    static final String SNAPSHOT_FILE = "cards.snapshot";
+    static final String JOURNAL_FILE = "cards.deltas";
+
+    public static final int MAX_DELTAS_PER_READ = 65_536;
+
+    public record DeltaChunk(long since, long lastSeq, long headSeq, byte[] records) {}
+
+    private final ActiveCardIndex index;
+    private final Path dir;
+    private final int maxDeltaRecords;
+    private final Object lock = new Object();
+
+    private CardDeltaJournal journal;
+    private volatile boolean available;
+    // Falha ao gravar um delta: o journal deixou de ser confiável e precisa de novo snapshot
+    private volatile boolean dirty;
+
+    public ValidatorSnapshotService(ActiveCardIndex index,
+            @Value("${validator.snapshot.dir:./data/validator}") String dir,
+            @Value("${validator.snapshot.max-delta-records:50000}") int maxDeltaRecords) {
+        this.index = index;
+        this.dir = Path.of(dir);
+        this.maxDeltaRecords = maxDeltaRecords;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public Path snapshotPath() {
+        return dir.resolve(SNAPSHOT_FILE);
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            Files.createDirectories(dir);
+            // Nova sequência base após reinício: clientes de antes precisam baixar o snapshot de novo
+            long resumeSeq = Math.max(CardDeltaJournal.readLastSeq(dir.resolve(JOURNAL_FILE)), 0);
+            synchronized (lock) {
+                rebuild(resumeSeq + 1);
+            }
+        } catch (IOException e) {
+            log.error("Falha ao gerar snapshot dos validadores em {}: {}", dir, e.getMessage());
+        }
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        long key = CardNumberCodec.encode(event.numeroCartao());
+        if (key == CardNumberCodec.INVALID || !available) {
+            return;
+        }
+        // Grava o estado resultante no índice (o mesmo número pode existir em outro cartão ativo).
+        // Leitura e append sob o mesmo lock: o último registro do journal é sempre o estado mais recente
+        // do índice, mesmo com dois eventos do mesmo cartão em paralelo.
+        synchronized (lock) {
+            var current = index.lookup(key);
+            long record = CardSnapshotFile.pack(key, current != null ? current.tipoCartao() : null);
+            try {
+                journal.append(record);
+            } catch (IOException e) {
+                dirty = true;
+                log.warn("Falha ao gravar delta do cartão {}: {}", event.cardId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${validator.snapshot.check-interval-ms:60000}")
+    public void compactIfNeeded() {
+        if (!available) {
+            return;
+        }
+        synchronized (lock) {
+            if (!dirty && journal.lastSeq() - journal.baseSeq() < maxDeltaRecords) {
+                return;
+            }
+            try {
+                rebuild(journal.lastSeq() + (dirty ? 1 : 0));
+            } catch (IOException e) {
+                log.error("Falha ao compactar journal dos validadores: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deltas posteriores a {@code since}. Lança IllegalArgumentException se a sequência
+     * for anterior ao snapshot atual (o cliente precisa baixar o snapshot).
+     */
+    public DeltaChunk deltasSince(long since) throws IOException {
+        synchronized (lock) {
+            if (!available) {
+                throw new IllegalStateException("Snapshot dos validadores indisponível");
+            }
+            byte[] records = journal.readSince(since, MAX_DELTAS_PER_READ);
+            return new DeltaChunk(since, since + records.length / CardDeltaJournal.RECORD_SIZE,
+                    journal.lastSeq(), records);
+        }
+    }
+
+    // Chamado com o lock: o snapshot reflete o índice até baseSeq e o novo journal continua dali
+    private void rebuild(long baseSeq) throws IOException {
+        long start = System.nanoTime();
+        LongStream.Builder builder = LongStream.builder();
+        index.forEach((key, card) -> builder.add(CardSnapshotFile.pack(key, card.tipoCartao())));
+        long[] records = builder.build().sorted().toArray();
+
+        CardSnapshotFile.write(snapshotPath(), baseSeq, records);
+        if (journal != null) {
+            journal.close();
+        }
+        journal = CardDeltaJournal.create(dir.resolve(JOURNAL_FILE), baseSeq);
+        dirty = false;
+        available = true;
+        log.info("Snapshot dos validadores gerado: {} cartões, seq {}, {} ms",
+                records.length, baseSeq, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,123 @@
+package com.acme.card.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Journal append-only das mudanças de status desde um snapshot.
+ *
+ * <pre>
+ * cabeçalho (16 bytes, big-endian): magic "CDLT" | versão | baseSeq
+ * registros (8 bytes cada), no formato de {@link CardSnapshotFile}; ordinal {@link CardSnapshotFile#TOMBSTONE} = remoção
+ * </pre>
+ *
+ * O registro na posição i tem sequência baseSeq + i + 1. Os registros são idempotentes
+ * (estado final do número), então reaplicar um trecho já aplicado não tem efeito.
+ */
+public final class CardDeltaJournal implements Closeable {
+
+    public static final int MAGIC = 0x43444C54;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = Long.BYTES;
+
+    private final FileChannel channel;
+    private final long baseSeq;
+    private long lastSeq;
+
+    private CardDeltaJournal(FileChannel channel, long baseSeq) {
+        this.channel = channel;
+        this.baseSeq = baseSeq;
+        this.lastSeq = baseSeq;
+    }
+
+    /** Cria (ou trunca) o journal começando após {@code baseSeq}. */
+    public static CardDeltaJournal create(Path file, long baseSeq) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(baseSeq)
+                    .flip();
+            while (header.hasRemaining()) {
+                ch.write(header, header.position());
+            }
+            return new CardDeltaJournal(ch, baseSeq);
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /** Última sequência gravada num journal existente, ou -1 se não houver journal válido. */
+    public static long readLastSeq(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return -1;
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && ch.read(header) >= 0) {
+                // lê o cabeçalho inteiro
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return -1;
+            }
+            return header.getLong() + (ch.size() - HEADER_SIZE) / RECORD_SIZE;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    public long baseSeq() {
+        return baseSeq;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /** Acrescenta um registro e devolve sua sequência. */
+    public synchronized long append(long record) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE).putLong(record).flip();
+        long position = HEADER_SIZE + (lastSeq - baseSeq) * RECORD_SIZE;
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+        return ++lastSeq;
+    }
+
+    /**
+     * Registros com sequência maior que {@code since}, no máximo {@code maxRecords}.
+     * Lança IllegalArgumentException se {@code since} não pertencer a este journal.
+     */
+    public byte[] readSince(long since, int maxRecords) throws IOException {
+        long end = lastSeq();
+        if (since < baseSeq || since > end) {
+            throw new IllegalArgumentException("Sequência fora do journal: " + since);
+        }
+        int count = (int) Math.min(end - since, maxRecords);
+        ByteBuffer buf = ByteBuffer.allocate(count * RECORD_SIZE);
+        long position = HEADER_SIZE + (since - baseSeq) * RECORD_SIZE;
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, position);
+            if (read < 0) {
+                throw new IOException("Journal truncado");
+            }
+            position += read;
+        }
+        return buf.array();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.acme.card.utils;
+
+/**
+ * Codifica números no formato 90.XX.XXXXXXXX-D como um long de 11 dígitos (XX, XXXXXXXX, D).
+ * Números fora do formato retornam {@link #INVALID}.
+ */
+public final class CardNumberCodec {
+
+    public static final long INVALID = -1L;
+
+    private static final int LENGTH = 16;
+
+    private CardNumberCodec() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static long encode(String numero) {
+        if (numero == null || numero.length() != LENGTH
+                || numero.charAt(0) != '9' || numero.charAt(1) != '0'
+                || numero.charAt(2) != '.' || numero.charAt(5) != '.' || numero.charAt(14) != '-') {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = 3; i < LENGTH; i++) {
+            if (i == 5 || i == 14) {
+                continue;
+            }
+            int digit = numero.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    public static String decode(long value) {
+        if (value < 0 || value > 99_999_999_999L) {
+            throw new IllegalArgumentException("Valor fora do intervalo de números de cartão: " + value);
+        }
+        return String.format("90.%02d.%08d-%d", value / 1_000_000_000L, (value / 10) % 100_000_000L, value % 10);
+    }
+}
@@ -0,0 +1,162 @@
+package com.acme.card.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import com.acme.card.domain.TipoCartao;
+
+/**
+ * Formato binário do snapshot dos validadores.
+ *
+ * <pre>
+ * cabeçalho (32 bytes, big-endian): magic "CSNP" | versão | baseSeq | criado em (epoch ms) | quantidade | reservado
+ * registros (8 bytes cada), ordenados: (número codificado &lt;&lt; 8) | ordinal do TipoCartao
+ * </pre>
+ *
+ * O arquivo é lido via mmap e pesquisado por busca binária, sem desserializar.
+ */
+public final class CardSnapshotFile {
+
+    public static final int MAGIC = 0x43534E50;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = Long.BYTES;
+
+    // Ordinal reservado para remoções no journal de deltas
+    public static final int TOMBSTONE = 0xFF;
+
+    private CardSnapshotFile() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static long pack(long encodedNumber, int tipo) {
+        return (encodedNumber << 8) | (tipo & 0xFF);
+    }
+
+    public static long pack(long encodedNumber, TipoCartao tipo) {
+        return pack(encodedNumber, tipo == null ? TOMBSTONE : tipo.ordinal());
+    }
+
+    public static long encodedNumber(long record) {
+        return record >>> 8;
+    }
+
+    public static TipoCartao tipo(long record) {
+        int ordinal = (int) (record & 0xFF);
+        return ordinal == TOMBSTONE ? null : TipoCartao.values()[ordinal];
+    }
+
+    /**
+     * Grava o snapshot num arquivo temporário e o move atomicamente para {@code target}.
+     * {@code records} precisa estar ordenado.
+     */
+    public static void write(Path target, long baseSeq, long[] records) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(baseSeq)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(records.length)
+                    .putInt(0)
+                    .flip();
+            writeFully(ch, header);
+
+            ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+            for (long record : records) {
+                if (buf.remaining() < RECORD_SIZE) {
+                    writeFully(ch, buf.flip());
+                    buf.clear();
+                }
+                buf.putLong(record);
+            }
+            writeFully(ch, buf.flip());
+            ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    /** Leitura do snapshot mapeado em memória. */
+    public static final class Reader {
+
+        private final long baseSeq;
+        private final long createdAt;
+        private final LongBuffer records;
+
+        private Reader(long baseSeq, long createdAt, LongBuffer records) {
+            this.baseSeq = baseSeq;
+            this.createdAt = createdAt;
+            this.records = records;
+        }
+
+        public static Reader open(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size < HEADER_SIZE) {
+                    throw new IOException("Snapshot truncado: " + file);
+                }
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                    throw new IOException("Snapshot com formato desconhecido: " + file);
+                }
+                int count = map.getInt(24);
+                if (size != HEADER_SIZE + (long) count * RECORD_SIZE) {
+                    throw new IOException("Snapshot truncado: " + file);
+                }
+                LongBuffer records = map.slice(HEADER_SIZE, count * RECORD_SIZE).asLongBuffer();
+                return new Reader(map.getLong(8), map.getLong(16), records);
+            }
+        }
+
+        public long baseSeq() {
+            return baseSeq;
+        }
+
+        public long createdAt() {
+            return createdAt;
+        }
+
+        public int count() {
+            return records.limit();
+        }
+
+        /** Busca binária pelo número codificado; retorna o tipo do cartão ou null se não estiver ativo. */
+        public TipoCartao lookup(long encodedNumber) {
+            int lo = 0;
+            int hi = records.limit() - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long record = records.get(mid);
+                long key = encodedNumber(record);
+                if (key < encodedNumber) {
+                    lo = mid + 1;
+                } else if (key > encodedNumber) {
+                    hi = mid - 1;
+                } else {
+                    return tipo(record);
+                }
+            }
+            return null;
+        }
+
+        public TipoCartao lookup(String numeroCartao) {
+            long encoded = CardNumberCodec.encode(numeroCartao);
+            return encoded == CardNumberCodec.INVALID ? null : lookup(encoded);
+        }
+    }
+}
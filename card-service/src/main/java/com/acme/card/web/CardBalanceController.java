@@ -0,0 +1,94 @@
+package com.acme.card.web;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.card.service.BalanceService;
+import com.acme.card.web.dto.BalanceDTOs.BalanceResponse;
+import com.acme.card.web.dto.BalanceDTOs.LedgerEntryResponse;
+import com.acme.card.web.dto.BalanceDTOs.LedgerOperationResponse;
+import com.acme.card.web.dto.BalanceDTOs.RechargeRequest;
+import com.acme.security.AuthPrincipal;
+import com.acme.security.CurrentUser;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/cards")
+@Tag(name = "Saldo", description = "Saldo e recargas dos cartões")
+public class CardBalanceController {
+
+    private final BalanceService balanceService;
+
+    public CardBalanceController(BalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    @GetMapping("/{cardId}/balance")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Consulta saldo", description = "Retorna o saldo atual do cartão")
+    public BalanceResponse getBalance(
+            @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
+            @CurrentUser AuthPrincipal principal) {
+        return translate(() -> balanceService.getBalance(cardId, principal.userId(), principal.isAdmin()));
+    }
+
+    @GetMapping("/{cardId}/ledger")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Extrato do cartão", description = "Retorna os lançamentos mais recentes do cartão")
+    public List<LedgerEntryResponse> getLedger(
+            @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
+            @Parameter(description = "Quantidade de lançamentos (máx. 100)") @RequestParam(defaultValue = "" + BalanceService.DEFAULT_LEDGER_SIZE) int limit,
+            @CurrentUser AuthPrincipal principal) {
+        return translate(() -> balanceService.getLedger(cardId, limit, principal.userId(), principal.isAdmin()));
+    }
+
+    @PostMapping("/{cardId}/recharges")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Recarrega o cartão", description = "Lança uma recarga; repetir a mesma Idempotency-Key não duplica o crédito")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Recarga lançada (ou repetição de uma já lançada)"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "403", description = "Não autorizado"),
+            @ApiResponse(responseCode = "404", description = "Cartão não encontrado")
+    })
+    public LedgerOperationResponse recharge(
+            @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
+            @RequestHeader("Idempotency-Key") String idempotencyKey,
+            @Valid @RequestBody RechargeRequest request,
+            @CurrentUser AuthPrincipal principal) {
+        return translate(() -> balanceService.recharge(cardId, request.amountCents, idempotencyKey,
+                principal.userId(), principal.isAdmin()));
+    }
+
+    static <T> T translate(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
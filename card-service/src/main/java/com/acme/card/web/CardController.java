@@ -6,8 +6,6 @@ import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,18 +14,24 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.acme.card.domain.TipoCartao;
 import com.acme.card.service.CardService;
 import com.acme.card.utils.CardNumberGenerator;
 import com.acme.card.web.dto.CardDTOs;
 import com.acme.card.web.dto.CardDTOs.AddCardRequest;
+import com.acme.card.web.dto.CardDTOs.CardPage;
 import com.acme.card.web.dto.CardDTOs.CardResponse;
+import com.acme.card.web.dto.CardDTOs.CardSearchFilter;
 import com.acme.card.web.dto.CardDTOs.CreateCardRequest;
 import com.acme.card.web.dto.CardDTOs.ToggleStatusRequest;
 import com.acme.card.web.dto.CardDTOs.UpdateCardRequest;
 import com.acme.card.web.dto.RequestCardDTOs;
+import com.acme.security.AuthPrincipal;
+import com.acme.security.CurrentUser;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -49,9 +53,9 @@ public class CardController {
 
     @GetMapping("/me")
     @Operation(summary = "Lista meus cartões", description = "Retorna os cartões do usuário logado")
-    public ResponseEntity<List<CardResponse>> getMyCards(Authentication authentication) {
+    public ResponseEntity<List<CardResponse>> getMyCards(@CurrentUser AuthPrincipal principal) {
         try {
-            UUID authUserId = UUID.fromString(authentication.getName());
+            UUID authUserId = principal.userId();
             List<CardResponse> cards = cardService.getUserCards(authUserId, authUserId, false);
             return ResponseEntity.ok(cards);
         } catch (Exception e) {
@@ -62,10 +66,29 @@ public class CardController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Lista todos os cartões", description = "Retorna todos os cartões do sistema (apenas ADMIN)")
-    @ApiResponse(responseCode = "200", description = "Lista de cartões retornada com sucesso")
-    public List<CardResponse> getAllCards() {
-        return cardService.getAllCards();
+    @Operation(summary = "Busca cartões", description = "Retorna uma página de cartões filtrados, ordenados por nome (apenas ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de cartões retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public CardPage searchCards(
+            @Parameter(description = "Tipo do cartão") @RequestParam(required = false) TipoCartao tipoCartao,
+            @Parameter(description = "Status do cartão") @RequestParam(required = false) Boolean status,
+            @Parameter(description = "ID do usuário dono") @RequestParam(required = false) UUID userId,
+            @Parameter(description = "Prefixo do nome") @RequestParam(required = false) String nome,
+            @Parameter(description = "Cursor retornado pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 200)") @RequestParam(defaultValue = "" + CardService.DEFAULT_PAGE_SIZE) int limit) {
+
+        var filter = new CardSearchFilter();
+        filter.tipoCartao = tipoCartao;
+        filter.status = status;
+        filter.userId = userId;
+        filter.nome = nome;
+        try {
+            return cardService.searchCards(filter, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/{cardId}")
@@ -98,9 +121,9 @@ public class CardController {
     @PostMapping("/request")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     public ResponseEntity<CardResponse> requestCard(
-            @RequestBody RequestCardDTOs body, Authentication auth) {
+            @RequestBody RequestCardDTOs body, @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(auth.getName());
+        UUID authUserId = principal.userId();
 
         var tipo = (body.type == null)
                 ? TipoCartao.COMUM
@@ -129,12 +152,10 @@ public class CardController {
     public CardResponse updateCard(
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
             @Parameter(description = "Dados a serem atualizados") @Valid @RequestBody UpdateCardRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         return cardService.updateCard(cardId, request, authUserId, isAdmin);
     }
@@ -149,12 +170,10 @@ public class CardController {
     })
     public ResponseEntity<Void> deleteCard(
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         cardService.removeCard(cardId, authUserId, isAdmin);
         return ResponseEntity.noContent().build();
@@ -171,12 +190,10 @@ public class CardController {
     })
     public List<CardResponse> getUserCards(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         return cardService.getUserCards(userId, authUserId, isAdmin);
     }
@@ -193,12 +210,10 @@ public class CardController {
     public ResponseEntity<CardResponse> addCardToUser(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
             @Parameter(description = "Dados do cartão") @Valid @RequestBody AddCardRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         CardResponse card = cardService.addCardToUser(userId, request, authUserId, isAdmin);
         return ResponseEntity.status(HttpStatus.CREATED).body(card);
@@ -215,12 +230,10 @@ public class CardController {
     public ResponseEntity<Void> removeCardFromUser(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         cardService.removeCardFromUser(userId, cardId, authUserId, isAdmin);
         return ResponseEntity.noContent().build();
@@ -238,12 +251,10 @@ public class CardController {
     })
     public CardResponse activateCard(
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         return cardService.activateCard(cardId, authUserId, isAdmin);
     }
@@ -258,12 +269,10 @@ public class CardController {
     })
     public CardResponse deactivateCard(
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         return cardService.deactivateCard(cardId, authUserId, isAdmin);
     }
@@ -279,12 +288,10 @@ public class CardController {
     public CardResponse toggleCardStatus(
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
             @Parameter(description = "Novo status") @RequestBody ToggleStatusRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         return cardService.toggleCardStatus(cardId, request.status, authUserId, isAdmin);
     }
@@ -1,6 +1,8 @@
 package com.acme.card.web;
 
 import com.acme.card.domain.Card;
+import com.acme.card.domain.LedgerEntry;
+import com.acme.card.web.dto.BalanceDTOs.LedgerEntryResponse;
 import com.acme.card.web.dto.CardDTOs.CardResponse;
 
 public class CardMapper {
@@ -12,4 +14,14 @@ public class CardMapper {
     dto.tipoCartao=c.getTipoCartao();
     return dto;
   }
+
+  public static LedgerEntryResponse toResponse(LedgerEntry e){
+    var dto = new LedgerEntryResponse();
+    dto.id=e.getId();
+    dto.type=e.getType();
+    dto.amountCents=e.getAmountCents();
+    dto.balanceAfterCents=e.getBalanceAfterCents();
+    dto.createdAt=e.getCreatedAt();
+    return dto;
+  }
 }
@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,6 +13,8 @@ import com.acme.card.domain.TipoCartao;
 import com.acme.card.service.CardService;
 import com.acme.card.web.dto.CardDTOs.CardResponse;
 import com.acme.card.web.dto.CardDTOs.CreateCardRequest;
+import com.acme.security.AuthPrincipal;
+import com.acme.security.CurrentUser;
 
 @RestController
 @RequestMapping("/api/cards")
@@ -26,9 +27,9 @@ public class DevController {
     }
 
     @PostMapping("/dev/create-test-cards")
-    public ResponseEntity<List<CardResponse>> createTestCards(Authentication authentication) {
+    public ResponseEntity<List<CardResponse>> createTestCards(@CurrentUser AuthPrincipal principal) {
         try {
-            UUID userId = UUID.fromString(authentication.getName());
+            UUID userId = principal.userId();
             
             List<CardResponse> createdCards = new ArrayList<>();
             
@@ -0,0 +1,59 @@
+package com.acme.card.web;
+
+import java.util.TreeMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.card.service.FareEngine;
+import com.acme.card.web.dto.FareDTOs.FareRulesResponse;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/fares")
+@Tag(name = "Tarifas", description = "Regras tarifárias por tipo de cartão")
+public class FareController {
+
+    private final FareEngine fareEngine;
+
+    public FareController(FareEngine fareEngine) {
+        this.fareEngine = fareEngine;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Regras tarifárias em vigor", description = "Retorna as regras carregadas (apenas ADMIN)")
+    public FareRulesResponse getRules() {
+        return toResponse(fareEngine.loaded());
+    }
+
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recarrega as regras tarifárias", description = "Recompila o arquivo de regras e troca a tabela em uso (apenas ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Regras recarregadas"),
+            @ApiResponse(responseCode = "400", description = "Arquivo de regras inválido; as regras anteriores continuam valendo")
+    })
+    public FareRulesResponse reload() {
+        try {
+            return toResponse(fareEngine.reload());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static FareRulesResponse toResponse(FareEngine.LoadedTable loaded) {
+        var rules = new TreeMap<String, String>();
+        loaded.table().rules().forEach((k, v) -> rules.put(k.toString(), v.toString()));
+        return new FareRulesResponse(loaded.loadedAt(), rules);
+    }
+}
@@ -0,0 +1,32 @@
+package com.acme.card.web;
+
+import java.util.List;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.acme.card.service.CloneDetector;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/fraud")
+@Tag(name = "Fraude", description = "Alertas de uso suspeito de cartões")
+public class FraudController {
+
+    private final CloneDetector cloneDetector;
+
+    public FraudController(CloneDetector cloneDetector) {
+        this.cloneDetector = cloneDetector;
+    }
+
+    @GetMapping("/alerts")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Alertas recentes de clonagem", description = "Retorna os últimos alertas do detector, do mais antigo ao mais recente (apenas ADMIN)")
+    public List<CloneDetector.Alert> getAlerts() {
+        return cloneDetector.recentAlerts();
+    }
+}
@@ -1,6 +1,8 @@
  package com.acme.card.web;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +25,8 @@ import com.acme.card.web.dto.CardDTOs.CardResponse;
 @RequestMapping("/internal/cards")
 public class InternalCardController {
 
+  static final int MAX_BATCH_USERS = 1000;
+
   private final CardService cards;
   private final String expectedSecret;
 
@@ -46,6 +50,18 @@ public class InternalCardController {
     return cards.internalGetUserCards(userId);
   }
 
+  @PostMapping("/users/batch")
+  public Map<UUID, List<CardResponse>> getCardsByUsersInternal(
+      @RequestHeader("X-Internal-Secret") String secret,
+      @RequestBody Set<UUID> userIds) {
+    assertSecret(secret);
+    if (userIds.size() > MAX_BATCH_USERS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Máximo de " + MAX_BATCH_USERS + " usuários por requisição");
+    }
+    return cards.internalGetCardsByUserIds(userIds);
+  }
+
   @PostMapping
   public CardResponse createCardInternal(
       @RequestHeader("X-Internal-Secret") String secret,
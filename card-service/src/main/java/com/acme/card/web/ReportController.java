@@ -0,0 +1,63 @@
+package com.acme.card.web;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.card.service.UsageRollupService;
+import com.acme.card.web.dto.ReportDTOs.Granularity;
+import com.acme.card.web.dto.ReportDTOs.ReaggregationResponse;
+import com.acme.card.web.dto.ReportDTOs.UsageRow;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+// Relatórios leem apenas usage_rollups_hourly, nunca as tabelas de passagens/cartões
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Relatórios", description = "Uso de cartões por tipo e período")
+public class ReportController {
+
+    private final UsageRollupService rollups;
+
+    public ReportController(UsageRollupService rollups) {
+        this.rollups = rollups;
+    }
+
+    @GetMapping("/usage")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Passagens e cartões emitidos por tipo", description = "Agregados por hora (até 31 dias) ou dia (até 366 dias), em UTC (apenas ADMIN)")
+    public List<UsageRow> getUsage(
+            @Parameter(description = "Início (inclusive), ISO-8601") @RequestParam Instant from,
+            @Parameter(description = "Fim (exclusive), ISO-8601") @RequestParam Instant to,
+            @Parameter(description = "HOUR ou DAY") @RequestParam(defaultValue = "HOUR") Granularity granularity) {
+        try {
+            var rows = granularity == Granularity.DAY ? rollups.getDaily(from, to) : rollups.getHourly(from, to);
+            return rows.stream()
+                    .map(r -> new UsageRow(r.bucket(), r.tipoCartao(), r.taps(), r.cardsIssued()))
+                    .toList();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/usage/reaggregate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reagrega um intervalo", description = "Agenda a reagregação das horas fechadas do intervalo a partir das tabelas de origem (apenas ADMIN)")
+    public ReaggregationResponse reaggregate(@RequestParam Instant from, @RequestParam Instant to) {
+        try {
+            return new ReaggregationResponse(rollups.requestReaggregation(from, to));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
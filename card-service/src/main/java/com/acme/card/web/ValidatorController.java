@@ -0,0 +1,149 @@
+package com.acme.card.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.card.service.ActiveCardIndex;
+import com.acme.card.service.BalanceService;
+import com.acme.card.service.TapIngestService;
+import com.acme.card.service.ValidatorSnapshotService;
+import com.acme.card.web.dto.BalanceDTOs.DebitRequest;
+import com.acme.card.web.dto.BalanceDTOs.LedgerOperationResponse;
+import com.acme.card.web.dto.ValidatorDTOs.CardValidationResponse;
+import com.acme.card.web.dto.ValidatorDTOs.TapEvent;
+import com.acme.card.web.dto.ValidatorDTOs.TapIngestResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.validation.Valid;
+
+// Canal dos validadores (catracas): respostas vêm da memória, sem acesso ao banco
+@RestController
+@RequestMapping("/internal/validators")
+public class ValidatorController {
+
+  private final ActiveCardIndex index;
+  private final ValidatorSnapshotService snapshots;
+  private final TapIngestService taps;
+  private final BalanceService balances;
+  private final ObjectReader tapReader;
+  private final String expectedSecret;
+
+  public ValidatorController(ActiveCardIndex index, ValidatorSnapshotService snapshots,
+      TapIngestService taps, BalanceService balances, ObjectMapper mapper,
+      @Value("${internal.secret:change-me}") String expectedSecret) {
+    this.index = index;
+    this.snapshots = snapshots;
+    this.taps = taps;
+    this.balances = balances;
+    this.tapReader = mapper.readerFor(TapEvent.class);
+    this.expectedSecret = expectedSecret;
+  }
+
+  private void assertSecret(String provided) {
+    if (provided == null || !provided.equals(expectedSecret)) {
+      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid internal secret");
+    }
+  }
+
+  @GetMapping("/cards/{numeroCartao}")
+  public CardValidationResponse validateCard(
+      @RequestHeader("X-Internal-Secret") String secret,
+      @PathVariable String numeroCartao) {
+    assertSecret(secret);
+    if (!index.isReady()) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Índice de cartões ainda em carga");
+    }
+    var card = index.lookup(numeroCartao);
+    return new CardValidationResponse(numeroCartao, card != null, card != null ? card.tipoCartao() : null);
+  }
+
+  // Snapshot binário (formato em CardSnapshotFile); a sequência base está no cabeçalho do arquivo
+  @GetMapping("/snapshot")
+  public ResponseEntity<Resource> snapshot(@RequestHeader("X-Internal-Secret") String secret) {
+    assertSecret(secret);
+    if (!snapshots.isAvailable()) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Snapshot dos validadores indisponível");
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .body(new FileSystemResource(snapshots.snapshotPath()));
+  }
+
+  // Deltas após a sequência informada; 410 quando o cliente precisa baixar um snapshot novo
+  @GetMapping("/deltas")
+  public ResponseEntity<byte[]> deltas(
+      @RequestHeader("X-Internal-Secret") String secret,
+      @RequestParam long since) {
+    assertSecret(secret);
+    try {
+      var chunk = snapshots.deltasSince(since);
+      return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .header("X-Delta-Last-Seq", Long.toString(chunk.lastSeq()))
+          .header("X-Delta-Head-Seq", Long.toString(chunk.headSeq()))
+          .body(chunk.records());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.GONE, e.getMessage());
+    } catch (IllegalStateException | IOException e) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Snapshot dos validadores indisponível");
+    }
+  }
+
+  // Ingestão em lote: o corpo NDJSON é lido em streaming, um evento por linha.
+  // 503 + Retry-After quando a gravação está atrasada; reenviar o lote inteiro é seguro (deduplicação)
+  @PostMapping(value = "/taps", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<TapIngestResponse> ingestTaps(
+      @RequestHeader("X-Internal-Secret") String secret,
+      InputStream body) throws IOException, InterruptedException {
+    assertSecret(secret);
+    TapIngestResponse result = new TapIngestResponse();
+    try (MappingIterator<TapEvent> events = tapReader.readValues(body)) {
+      while (events.hasNextValue()) {
+        switch (taps.submit(events.nextValue())) {
+          case ACCEPTED -> result.accepted++;
+          case DUPLICATE -> result.duplicates++;
+          case REJECTED -> result.rejected++;
+          case BACKPRESSURE -> {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(result);
+          }
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "NDJSON inválido após " + (result.accepted + result.duplicates + result.rejected) + " eventos");
+    }
+    return ResponseEntity.ok(result);
+  }
+
+  // Débito de tarifa; 409 com saldo insuficiente, 404 se o cartão não estiver ativo
+  @PostMapping("/debits")
+  public LedgerOperationResponse debit(
+      @RequestHeader("X-Internal-Secret") String secret,
+      @Valid @RequestBody DebitRequest request) {
+    assertSecret(secret);
+    return CardBalanceController.translate(() -> request.amountCents != null
+        ? balances.debit(request.numeroCartao, request.amountCents, request.idempotencyKey)
+        : balances.debitFare(request.numeroCartao, request.tappedAt, request.idempotencyKey));
+  }
+}
@@ -0,0 +1,58 @@
+package com.acme.card.web.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.acme.card.domain.LedgerEntry;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public class BalanceDTOs {
+
+  public static class RechargeRequest {
+    @Positive
+    public long amountCents;
+  }
+
+  // Débito enviado pelo validador; a chave de idempotência costuma ser derivada da passagem.
+  // Sem amountCents, a tarifa é calculada pelas regras do tipo do cartão
+  public static class DebitRequest {
+    @NotBlank
+    public String numeroCartao;
+    @Positive
+    public Long amountCents;
+    public Instant tappedAt;
+    @Size(max=64)
+    public String idempotencyKey;
+  }
+
+  public static class BalanceResponse {
+    public UUID cardId;
+    public long balanceCents;
+
+    public BalanceResponse() {}
+
+    public BalanceResponse(UUID cardId, long balanceCents) {
+      this.cardId = cardId;
+      this.balanceCents = balanceCents;
+    }
+  }
+
+  public static class LedgerEntryResponse {
+    public UUID id;
+    public LedgerEntry.Type type;
+    public long amountCents;
+    public long balanceAfterCents;
+    public Instant createdAt;
+  }
+
+  // replayed = true quando a chave de idempotência já tinha sido usada e nada foi lançado
+  public static class LedgerOperationResponse {
+    public UUID cardId;
+    public LedgerEntryResponse entry;   // null quando a tarifa calculada foi zero
+    public long balanceCents;
+    public boolean replayed;
+  }
+}
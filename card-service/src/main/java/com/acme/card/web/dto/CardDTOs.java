@@ -1,5 +1,6 @@
 package com.acme.card.web.dto;
 
+import java.util.List;
 import java.util.UUID;
 
 import com.acme.card.domain.TipoCartao;
@@ -38,6 +39,25 @@ public class CardDTOs {
     public TipoCartao tipoCartao;
   }
 
+  public static class CardSearchFilter {
+    public TipoCartao tipoCartao;
+    public Boolean status;
+    public UUID userId;
+    public String nome;
+  }
+
+  public static class CardPage {
+    public List<CardResponse> items;
+    public String nextCursor;
+
+    public CardPage() {}
+
+    public CardPage(List<CardResponse> items, String nextCursor) {
+      this.items = items;
+      this.nextCursor = nextCursor;
+    }
+  }
+
   public static class AddCardRequest {
     public String numeroCartao;
     public String nome;
@@ -0,0 +1,19 @@
+package com.acme.card.web.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class FareDTOs {
+
+  public static class FareRulesResponse {
+    public Instant loadedAt;
+    public Map<String, String> rules;
+
+    public FareRulesResponse() {}
+
+    public FareRulesResponse(Instant loadedAt, Map<String, String> rules) {
+      this.loadedAt = loadedAt;
+      this.rules = rules;
+    }
+  }
+}
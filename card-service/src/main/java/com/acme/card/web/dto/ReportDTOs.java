@@ -0,0 +1,34 @@
+package com.acme.card.web.dto;
+
+import java.time.Instant;
+
+public class ReportDTOs {
+
+  public enum Granularity { HOUR, DAY }
+
+  public static class UsageRow {
+    public Instant bucket;
+    public String tipoCartao;
+    public long taps;
+    public long cardsIssued;
+
+    public UsageRow() {}
+
+    public UsageRow(Instant bucket, String tipoCartao, long taps, long cardsIssued) {
+      this.bucket = bucket;
+      this.tipoCartao = tipoCartao;
+      this.taps = taps;
+      this.cardsIssued = cardsIssued;
+    }
+  }
+
+  public static class ReaggregationResponse {
+    public int hours;
+
+    public ReaggregationResponse() {}
+
+    public ReaggregationResponse(int hours) {
+      this.hours = hours;
+    }
+  }
+}
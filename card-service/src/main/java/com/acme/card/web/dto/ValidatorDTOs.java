@@ -0,0 +1,38 @@
+package com.acme.card.web.dto;
+
+import java.time.Instant;
+
+import com.acme.card.domain.TipoCartao;
+
+public class ValidatorDTOs {
+
+  public static class CardValidationResponse {
+    public String numeroCartao;
+    public boolean valid;
+    public TipoCartao tipoCartao;
+
+    public CardValidationResponse() {}
+
+    public CardValidationResponse(String numeroCartao, boolean valid, TipoCartao tipoCartao) {
+      this.numeroCartao = numeroCartao;
+      this.valid = valid;
+      this.tipoCartao = tipoCartao;
+    }
+  }
+
+  // Uma linha do NDJSON enviado pelos validadores
+  public static class TapEvent {
+    public String numeroCartao;
+    public String validatorId;
+    public Instant timestamp;
+    // Posição do validador; sem ela a passagem não entra na detecção de clones
+    public Double latitude;
+    public Double longitude;
+  }
+
+  public static class TapIngestResponse {
+    public long accepted;
+    public long duplicates;
+    public long rejected;
+  }
+}
@@ -0,0 +1,5 @@
+-- Índices compostos da busca administrativa (keyset em nome, id)
+CREATE INDEX idx_cards_nome_id ON cards (nome, id);
+CREATE INDEX idx_cards_status_nome_id ON cards (status, nome, id);
+CREATE INDEX idx_cards_tipo_status_nome_id ON cards (tipo_cartao, status, nome, id);
+CREATE INDEX idx_cards_user_nome_id ON cards (user_id, nome, id);
@@ -0,0 +1,16 @@
+-- Passagens dos validadores. A chave começa por tap_date para permitir particionar por dia
+-- (toda chave única precisa conter a coluna de partição) e descartar partições antigas inteiras.
+CREATE TABLE IF NOT EXISTS card_taps (
+  tap_date DATE NOT NULL,
+  card_number BIGINT NOT NULL,              -- número codificado (CardNumberCodec)
+  validator_id VARCHAR(64) NOT NULL,
+  tapped_at DATETIME(3) NOT NULL,
+  card_id BINARY(16) NULL,
+  tipo_cartao VARCHAR(20) NULL,
+  received_at DATETIME(3) NOT NULL,
+  PRIMARY KEY (tap_date, card_number, validator_id, tapped_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+-- Partições diárias são criadas com ALTER TABLE card_taps REORGANIZE PARTITION p_future INTO (...)
+PARTITION BY RANGE COLUMNS (tap_date) (
+  PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,21 @@
+-- Ledger append-only de recargas e débitos; card_balances guarda o saldo corrente (cache do ledger)
+CREATE TABLE IF NOT EXISTS card_ledger (
+  id BINARY(16) NOT NULL,
+  card_id BINARY(16) NOT NULL,
+  type VARCHAR(10) NOT NULL,
+  amount_cents BIGINT NOT NULL,
+  balance_after_cents BIGINT NOT NULL,
+  idempotency_key VARCHAR(64) NULL,
+  created_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_card_ledger_idempotency (card_id, idempotency_key),
+  KEY idx_card_ledger_card_created (card_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS card_balances (
+  card_id BINARY(16) NOT NULL,
+  balance_cents BIGINT NOT NULL,
+  version BIGINT NOT NULL,
+  updated_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (card_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
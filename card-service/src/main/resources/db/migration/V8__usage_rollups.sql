@@ -0,0 +1,16 @@
+-- Data de emissão dos cartões (cartões antigos ficam com o instante da migração)
+ALTER TABLE cards ADD COLUMN created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+CREATE INDEX idx_cards_created_at_tipo ON cards (created_at, tipo_cartao);
+
+-- Índice de cobertura para reagregar uma hora de passagens sem varrer o dia inteiro
+CREATE INDEX idx_card_taps_tapped_at_tipo ON card_taps (tapped_at, tipo_cartao);
+
+-- Contagens por hora (UTC) e tipo de cartão; tipo_cartao = 'DESCONHECIDO' para números fora do índice
+CREATE TABLE IF NOT EXISTS usage_rollups_hourly (
+  bucket_hour DATETIME NOT NULL,
+  tipo_cartao VARCHAR(20) NOT NULL,
+  taps BIGINT NOT NULL DEFAULT 0,
+  cards_issued BIGINT NOT NULL DEFAULT 0,
+  updated_at DATETIME(3) NOT NULL,
+  PRIMARY KEY (bucket_hour, tipo_cartao)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
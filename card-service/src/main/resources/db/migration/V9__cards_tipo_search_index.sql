@@ -0,0 +1,4 @@
+-- Busca administrativa só por tipo: (tipo_cartao, status, nome, id) não serve para ordenar por (nome, id)
+-- sem fixar o status, o que forçava filesort. Combinações com user_id usam idx_cards_user_nome_id e
+-- filtram tipo/status nas poucas linhas do usuário.
+CREATE INDEX idx_cards_tipo_nome_id ON cards (tipo_cartao, nome, id);
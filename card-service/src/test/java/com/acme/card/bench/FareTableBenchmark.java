@@ -0,0 +1,75 @@
+package com.acme.card.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.service.FareTable;
+import com.acme.card.service.RiderFareState;
+
+/**
+ * Custo de avaliar uma passagem no {@link FareTable} (tarifa + registro no estado).
+ * Rodar com: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.acme.card.bench.FareTableBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FareTableBenchmark {
+
+    private static final int RIDERS = 4096;
+
+    private FareTable table;
+    private RiderFareState[] states;
+    private TipoCartao[] tipos;
+    private long now;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        Properties rules = new Properties();
+        try (InputStream in = FareTableBenchmark.class.getResourceAsStream("/fares.properties")) {
+            rules.load(in);
+        }
+        table = FareTable.compile(rules);
+        states = new RiderFareState[RIDERS];
+        tipos = new TipoCartao[RIDERS];
+        TipoCartao[] values = TipoCartao.values();
+        for (int i = 0; i < RIDERS; i++) {
+            states[i] = new RiderFareState();
+            tipos[i] = values[i % values.length];
+        }
+        now = 1_760_000_000_000L;
+    }
+
+    @Benchmark
+    public long evaluateTap() {
+        int i = next++ & (RIDERS - 1);
+        now += 1_500;
+        long fare = table.fareCents(tipos[i], now, states[i]);
+        table.record(tipos[i], now, fare, states[i]);
+        return fare;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FareTableBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,157 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.CardChangedEvent.Kind;
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.repository.CardRepository;
+import com.acme.card.utils.CardNumberCodec;
+
+/**
+ * Testes unitários para ActiveCardIndex e CardNumberCodec
+ */
+@ExtendWith(MockitoExtension.class)
+class ActiveCardIndexTest {
+
+    @Mock
+    private CardRepository repository;
+
+    @InjectMocks
+    private ActiveCardIndex index;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        card = Card.create("90.04.01987473-3", "Cartão Trabalhador", TipoCartao.TRABALHADOR, UUID.randomUUID());
+    }
+
+    @Test
+    void codec_ShouldRoundTripCanonicalNumbers_AndRejectOtherFormats() {
+        long encoded = CardNumberCodec.encode("90.04.01987473-3");
+
+        assertEquals(4_019_874_733L, encoded);
+        assertEquals("90.04.01987473-3", CardNumberCodec.decode(encoded));
+        assertEquals(CardNumberCodec.INVALID, CardNumberCodec.encode("1234.5678.9012.3456"));
+        assertEquals(CardNumberCodec.INVALID, CardNumberCodec.encode("90.04.0198747A-3"));
+        assertEquals(CardNumberCodec.INVALID, CardNumberCodec.encode(null));
+    }
+
+    @Test
+    void load_ShouldIndexActiveCards() {
+        // Given
+        when(repository.findActiveFirstPage(any())).thenReturn(List.of(card));
+
+        // When
+        index.load();
+
+        // Then
+        assertTrue(index.isReady());
+        var found = index.lookup("90.04.01987473-3");
+        assertNotNull(found);
+        assertEquals(card.getId(), found.cardId());
+        assertEquals(TipoCartao.TRABALHADOR, found.tipoCartao());
+        assertNull(index.lookup("90.02.01234567-8"));
+    }
+
+    @Test
+    void onCardChanged_ShouldFollowActivationAndDeletion() {
+        index.onCardChanged(CardChangedEvent.of(card, Kind.CREATED));
+        assertNotNull(index.lookup("90.04.01987473-3"));
+
+        card.deactivate();
+        index.onCardChanged(CardChangedEvent.of(card, Kind.DEACTIVATED));
+        assertNull(index.lookup("90.04.01987473-3"));
+
+        card.activate();
+        index.onCardChanged(CardChangedEvent.of(card, Kind.ACTIVATED));
+        index.onCardChanged(CardChangedEvent.of(card, Kind.DELETED));
+        assertNull(index.lookup("90.04.01987473-3"));
+    }
+
+    @Test
+    void onCardChanged_ShouldKeepOtherCardWithSameNumber() {
+        // Given
+        Card sameNumber = Card.create("90.04.01987473-3", "Outro", TipoCartao.COMUM, UUID.randomUUID());
+        index.onCardChanged(CardChangedEvent.of(sameNumber, Kind.CREATED));
+
+        // When
+        index.onCardChanged(CardChangedEvent.of(card, Kind.DELETED));
+
+        // Then
+        assertEquals(sameNumber.getId(), index.lookup("90.04.01987473-3").cardId());
+    }
+
+    @Test
+    void onCardChanged_ShouldPromoteOtherActiveHolder_WhenIndexedCardIsDeactivated() {
+        // Given: dois usuários com cartão ativo de mesmo número; o segundo ativado fica no índice
+        Card sameNumber = Card.create("90.04.01987473-3", "Outro", TipoCartao.COMUM, UUID.randomUUID());
+        index.onCardChanged(CardChangedEvent.of(card, Kind.CREATED));
+        index.onCardChanged(CardChangedEvent.of(sameNumber, Kind.CREATED));
+        assertEquals(sameNumber.getId(), index.lookup("90.04.01987473-3").cardId());
+
+        // When
+        sameNumber.deactivate();
+        index.onCardChanged(CardChangedEvent.of(sameNumber, Kind.DEACTIVATED));
+
+        // Then: o cartão do outro usuário continua válido na catraca
+        var found = index.lookup("90.04.01987473-3");
+        assertNotNull(found);
+        assertEquals(card.getId(), found.cardId());
+        assertEquals(TipoCartao.TRABALHADOR, found.tipoCartao());
+        assertEquals(0, index.shadowedCount());
+
+        index.onCardChanged(CardChangedEvent.of(card, Kind.DELETED));
+        assertNull(index.lookup("90.04.01987473-3"));
+    }
+
+    @Test
+    void load_ShouldKeepBothHolders_WhenNumberRepeatsAcrossUsers() {
+        // Given
+        Card sameNumber = Card.create("90.04.01987473-3", "Outro", TipoCartao.COMUM, UUID.randomUUID());
+        when(repository.findActiveFirstPage(any())).thenReturn(List.of(card, sameNumber));
+        index.load();
+
+        // When: desativa o que não está na frente
+        index.onCardChanged(CardChangedEvent.of(card, Kind.DELETED));
+
+        // Then
+        assertEquals(sameNumber.getId(), index.lookup("90.04.01987473-3").cardId());
+        assertEquals(0, index.shadowedCount());
+        index.onCardChanged(CardChangedEvent.of(sameNumber, Kind.DELETED));
+        assertNull(index.lookup("90.04.01987473-3"));
+    }
+
+    @Test
+    void load_ShouldKeepUntouchedHolder_WhenOtherCardWithSameNumberChangesDuringLoad() {
+        // Given: durante a carga outro usuário ativa um cartão com o mesmo número de um cartão já no banco
+        Card sameNumber = Card.create("90.04.01987473-3", "Outro", TipoCartao.COMUM, UUID.randomUUID());
+        when(repository.findActiveFirstPage(any())).thenAnswer(inv -> {
+            index.onCardChanged(CardChangedEvent.of(sameNumber, Kind.CREATED));
+            return List.of(card);
+        });
+
+        // When
+        index.load();
+
+        // Then: o evento fica na frente e o cartão lido do banco continua guardado
+        assertEquals(sameNumber.getId(), index.lookup("90.04.01987473-3").cardId());
+        assertEquals(1, index.shadowedCount());
+        index.onCardChanged(CardChangedEvent.of(sameNumber, Kind.DELETED));
+        assertEquals(card.getId(), index.lookup("90.04.01987473-3").cardId());
+    }
+}
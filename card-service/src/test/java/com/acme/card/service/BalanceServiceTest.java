@@ -0,0 +1,182 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.CardBalance;
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.LedgerEntry;
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.repository.CardBalanceRepository;
+import com.acme.card.repository.CardRepository;
+import com.acme.card.repository.LedgerEntryRepository;
+import com.acme.card.web.dto.BalanceDTOs.LedgerOperationResponse;
+
+/**
+ * Testes unitários para BalanceService
+ */
+class BalanceServiceTest {
+
+    private CardRepository cards;
+    private CardBalanceRepository balances;
+    private LedgerEntryRepository ledger;
+    private ActiveCardIndex index;
+    private BalanceService service;
+
+    private UUID userId;
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        cards = mock(CardRepository.class);
+        balances = mock(CardBalanceRepository.class);
+        ledger = mock(LedgerEntryRepository.class);
+        index = new ActiveCardIndex(cards);
+        service = new BalanceService(cards, balances, ledger, index,
+                new FareEngine(new DefaultResourceLoader(), "classpath:fares.properties"),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        userId = UUID.randomUUID();
+        card = Card.create("90.04.01987473-3", "Trabalhador", TipoCartao.TRABALHADOR, userId);
+        index.onCardChanged(CardChangedEvent.of(card, CardChangedEvent.Kind.CREATED));
+        when(cards.findById(card.getId())).thenReturn(Optional.of(card));
+        when(ledger.save(any(LedgerEntry.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void recharge_ShouldOpenBalanceAndAppendEntry() {
+        // Given
+        when(ledger.findByCardIdAndIdempotencyKey(card.getId(), "r-1")).thenReturn(Optional.empty());
+        when(balances.findById(card.getId())).thenReturn(Optional.empty());
+
+        // When
+        LedgerOperationResponse result = service.recharge(card.getId(), 1_000, "r-1", userId, false);
+
+        // Then
+        assertEquals(1_000, result.balanceCents);
+        assertEquals(LedgerEntry.Type.RECHARGE, result.entry.type);
+        assertFalse(result.replayed);
+        verify(balances).saveAndFlush(any(CardBalance.class));
+    }
+
+    @Test
+    void recharge_WithUsedKey_ShouldReplayWithoutPosting() {
+        // Given
+        CardBalance balance = CardBalance.open(card.getId());
+        balance.apply(1_000);
+        LedgerEntry original = LedgerEntry.create(card.getId(), LedgerEntry.Type.RECHARGE, 1_000, 1_000, "r-1");
+        when(ledger.findByCardIdAndIdempotencyKey(card.getId(), "r-1")).thenReturn(Optional.of(original));
+        when(balances.findById(card.getId())).thenReturn(Optional.of(balance));
+
+        // When
+        LedgerOperationResponse result = service.recharge(card.getId(), 1_000, "r-1", userId, false);
+
+        // Then
+        assertTrue(result.replayed);
+        assertEquals(original.getId(), result.entry.id);
+        assertEquals(1_000, result.balanceCents);
+        verify(balances, never()).saveAndFlush(any());
+        verify(ledger, never()).save(any());
+    }
+
+    @Test
+    void recharge_OtherUsersCard_ShouldThrowAccessDenied() {
+        assertThrows(AccessDeniedException.class,
+                () -> service.recharge(card.getId(), 1_000, "r-1", UUID.randomUUID(), false));
+    }
+
+    @Test
+    void debit_WithInsufficientBalance_ShouldThrowIllegalState() {
+        // Given
+        CardBalance balance = CardBalance.open(card.getId());
+        balance.apply(300);
+        when(balances.findById(card.getId())).thenReturn(Optional.of(balance));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> service.debit("90.04.01987473-3", 450, null));
+        verify(ledger, never()).save(any());
+    }
+
+    @Test
+    void debit_OnVersionConflict_ShouldRetryWithFreshBalance() {
+        // Given
+        CardBalance stale = CardBalance.open(card.getId());
+        stale.apply(1_000);
+        CardBalance fresh = CardBalance.open(card.getId());
+        fresh.apply(800);
+        when(balances.findById(card.getId())).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(balances.saveAndFlush(any(CardBalance.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(CardBalance.class, card.getId()))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        LedgerOperationResponse result = service.debit("90.04.01987473-3", 450, null);
+
+        // Then
+        assertEquals(350, result.balanceCents);
+        assertEquals(LedgerEntry.Type.DEBIT, result.entry.type);
+        verify(balances, times(2)).saveAndFlush(any(CardBalance.class));
+    }
+
+    @Test
+    void debit_UnknownCard_ShouldThrowNoSuchElement() {
+        assertThrows(NoSuchElementException.class, () -> service.debit("90.02.00000001-7", 450, null));
+    }
+
+    @Test
+    void debitFare_ShouldChargeFullFareThenFreeTransfer() {
+        // Given
+        Card estudante = Card.create("90.02.00000001-7", "Estudante", TipoCartao.ESTUDANTE, userId);
+        index.onCardChanged(CardChangedEvent.of(estudante, CardChangedEvent.Kind.CREATED));
+        CardBalance balance = CardBalance.open(estudante.getId());
+        balance.apply(1_000);
+        when(balances.findById(estudante.getId())).thenReturn(Optional.of(balance));
+        when(balances.saveAndFlush(any(CardBalance.class))).thenAnswer(inv -> inv.getArgument(0));
+        Instant first = Instant.parse("2026-10-18T10:00:00Z");
+
+        // When
+        LedgerOperationResponse charged = service.debitFare("90.02.00000001-7", first, null);
+        LedgerOperationResponse transfer = service.debitFare("90.02.00000001-7", first.plusSeconds(1800), null);
+
+        // Then
+        assertEquals(250, charged.entry.amountCents);
+        assertEquals(750, charged.balanceCents);
+        assertNull(transfer.entry);
+        assertEquals(750, transfer.balanceCents);
+        verify(ledger, times(1)).save(any(LedgerEntry.class));
+    }
+
+    @Test
+    void expireRiderStates_ShouldDropStateOnlyAfterDayAndTransferWindowEnd() {
+        // Given: passagem às 10:00 (UTC-3)
+        CardBalance balance = CardBalance.open(card.getId());
+        balance.apply(1_000);
+        when(balances.findById(card.getId())).thenReturn(Optional.of(balance));
+        when(balances.saveAndFlush(any(CardBalance.class))).thenAnswer(inv -> inv.getArgument(0));
+        Instant tap = Instant.parse("2026-10-18T13:00:00Z");
+        service.debitFare("90.04.01987473-3", tap, null);
+
+        // When / Then: mesmo dia, ainda conta para o teto diário
+        assertEquals(0, service.expireRiderStates(tap.plusSeconds(3 * 3600).toEpochMilli()));
+        assertEquals(1, service.riderStateCount());
+
+        // dia seguinte e janela de integração vencida
+        assertEquals(1, service.expireRiderStates(Instant.parse("2026-10-19T04:00:00Z").toEpochMilli()));
+        assertEquals(0, service.riderStateCount());
+    }
+}
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,12 +16,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 
 import com.acme.card.domain.Card;
+import com.acme.card.domain.CardChangedEvent;
 import com.acme.card.domain.TipoCartao;
 import com.acme.card.repository.CardRepository;
+import com.acme.card.web.dto.CardDTOs.CardPage;
 import com.acme.card.web.dto.CardDTOs.CardResponse;
+import com.acme.card.web.dto.CardDTOs.CardSearchFilter;
 import com.acme.card.web.dto.CardDTOs.CreateCardRequest;
 
 /**
@@ -33,6 +39,9 @@ class CardServiceTest {
     @Mock
     private CardRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher events;
+
     @InjectMocks
     private CardService cardService;
 
@@ -51,20 +60,43 @@ class CardServiceTest {
     }
 
     @Test
-    void getAllCards_ShouldReturnAllCards() {
+    void searchCards_ShouldReturnPageWithCursor_WhenMoreCardsExist() {
         // Given
-        List<Card> cards = List.of(card);
-        when(repository.findAll()).thenReturn(cards);
+        Card other = Card.create("90.02.01234567-8", "Cartão Zeta", TipoCartao.TRABALHADOR, userId);
+        CardSearchFilter filter = new CardSearchFilter();
+        filter.tipoCartao = TipoCartao.TRABALHADOR;
+        when(repository.findBy(any(Specification.class), any())).thenReturn(List.of(card, other));
 
         // When
-        List<CardResponse> result = cardService.getAllCards();
+        CardPage result = cardService.searchCards(filter, null, 1);
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("1234.5678.9012.3456", result.get(0).numeroCartao);
-        assertEquals("Cartão Trabalho", result.get(0).nome);
-        verify(repository).findAll();
+        assertEquals(1, result.items.size());
+        assertEquals("1234.5678.9012.3456", result.items.get(0).numeroCartao);
+        assertEquals("Cartão Trabalho", result.items.get(0).nome);
+        assertEquals(CardCursor.of(card), CardCursor.decode(result.nextCursor));
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void searchCards_ShouldEndWithoutCursor_WhenLastPage() {
+        // Given
+        when(repository.findBy(any(Specification.class), any())).thenReturn(List.of(card));
+
+        // When
+        CardPage result = cardService.searchCards(new CardSearchFilter(), CardCursor.of(card).encode(), 10);
+
+        // Then
+        assertEquals(1, result.items.size());
+        assertNull(result.nextCursor);
+    }
+
+    @Test
+    void searchCards_ShouldThrowException_WhenCursorIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () ->
+            cardService.searchCards(new CardSearchFilter(), "not-a-cursor", 10));
+        verify(repository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -130,6 +162,25 @@ class CardServiceTest {
         verify(repository).findByUserId(userId);
     }
 
+    @Test
+    void internalGetCardsByUserIds_ShouldGroupCardsByUser_InSingleQuery() {
+        // Given
+        UUID userWithoutCards = UUID.randomUUID();
+        List<UUID> userIds = List.of(userId, userWithoutCards);
+        when(repository.findByUserIdIn(anyCollection())).thenReturn(List.of(card));
+
+        // When
+        Map<UUID, List<CardResponse>> result = cardService.internalGetCardsByUserIds(userIds);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(userId).size());
+        assertEquals("1234.5678.9012.3456", result.get(userId).get(0).numeroCartao);
+        assertTrue(result.get(userWithoutCards).isEmpty());
+        verify(repository).findByUserIdIn(anyCollection());
+        verify(repository, never()).findByUserId(any());
+    }
+
     @Test
     void createCard_ShouldCreateCard_WhenValidRequest() {
         // Given
@@ -151,6 +202,7 @@ class CardServiceTest {
         assertEquals("1234.5678.9012.3456", result.numeroCartao);
         verify(repository).findByUserIdAndNumeroCartao(userId, "1234.5678.9012.3456");
         verify(repository).save(any(Card.class));
+        verify(events).publishEvent(CardChangedEvent.of(card, CardChangedEvent.Kind.CREATED));
     }
 
     @Test
@@ -171,4 +223,18 @@ class CardServiceTest {
         verify(repository).findByUserIdAndNumeroCartao(userId, "1234.5678.9012.3456");
         verify(repository, never()).save(any(Card.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void toggleCardStatus_ShouldPublishDeactivatedEvent() {
+        // Given
+        when(repository.findById(cardId)).thenReturn(Optional.of(card));
+
+        // When
+        CardResponse result = cardService.toggleCardStatus(cardId, false, userId, false);
+
+        // Then
+        assertFalse(result.status);
+        verify(events).publishEvent(new CardChangedEvent(cardId, userId, "1234.5678.9012.3456",
+            TipoCartao.TRABALHADOR, false, CardChangedEvent.Kind.DEACTIVATED));
+    }
+}
@@ -0,0 +1,71 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.acme.card.utils.CardNumberCodec;
+
+/**
+ * Testes unitários para CloneDetector
+ */
+class CloneDetectorTest {
+
+    // Praça da Sé e Aeroporto de Guarulhos (~25 km)
+    private static final double SE_LAT = -23.5503, SE_LON = -46.6339;
+    private static final double GRU_LAT = -23.4356, GRU_LON = -46.4731;
+
+    private final long cardNumber = CardNumberCodec.encode("90.04.01987473-3");
+    private final UUID cardId = UUID.randomUUID();
+    private final long t0 = Instant.parse("2026-10-18T10:00:00Z").toEpochMilli();
+
+    @Test
+    void onTap_DistantTapsWithinMinutes_ShouldFlagAndDeactivate() {
+        // Given
+        CardService cardService = mock(CardService.class);
+        CloneDetector detector = new CloneDetector(cardService, 10, 120, 2, 1000, true);
+
+        // When
+        assertFalse(detector.onTap(cardNumber, cardId, t0, SE_LAT, SE_LON));
+        boolean flagged = detector.onTap(cardNumber, cardId, t0 + 3 * 60_000, GRU_LAT, GRU_LON);
+
+        // Then
+        assertTrue(flagged);
+        var alert = detector.recentAlerts().get(0);
+        assertEquals("90.04.01987473-3", alert.numeroCartao());
+        assertTrue(alert.distanceKm() > 20);
+        verify(cardService, timeout(2000)).deactivateCard(cardId, null, true);
+    }
+
+    @Test
+    void onTap_PlausibleTrips_ShouldNotFlag() {
+        CloneDetector detector = new CloneDetector(mock(CardService.class), 10, 120, 2, 1000, false);
+
+        // mesmo local, e deslocamento longo mas fora da janela
+        assertFalse(detector.onTap(cardNumber, cardId, t0, SE_LAT, SE_LON));
+        assertFalse(detector.onTap(cardNumber, cardId, t0 + 60_000, SE_LAT, SE_LON));
+        assertFalse(detector.onTap(cardNumber, cardId, t0 + 45 * 60_000, GRU_LAT, GRU_LON));
+        assertTrue(detector.recentAlerts().isEmpty());
+    }
+
+    @Test
+    void onTap_WhenCardLimitReached_ShouldEvictLeastRecentlyUsedWindows() {
+        CardService cardService = mock(CardService.class);
+        // um cartão por segmento
+        CloneDetector detector = new CloneDetector(cardService, 10, 120, 2, 1, false);
+
+        detector.onTap(cardNumber, cardId, t0, SE_LAT, SE_LON);
+        for (long other = 1; other <= 256; other++) {
+            detector.onTap(cardNumber + other * 64, null, t0, SE_LAT, SE_LON);
+        }
+
+        // a janela do primeiro cartão foi descartada: sem passagem anterior para comparar
+        assertFalse(detector.onTap(cardNumber, cardId, t0 + 60_000, GRU_LAT, GRU_LON));
+        verify(cardService, never()).deactivateCard(any(), any(), anyBoolean());
+    }
+}
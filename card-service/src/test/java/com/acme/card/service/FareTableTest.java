@@ -0,0 +1,81 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.acme.card.domain.TipoCartao;
+
+/**
+ * Testes unitários para FareTable
+ */
+class FareTableTest {
+
+    private Properties rules;
+    private FareTable table;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        rules = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/fares.properties")) {
+            rules.load(in);
+        }
+        table = FareTable.compile(rules);
+    }
+
+    private long tap(TipoCartao tipo, String at, RiderFareState state) {
+        long millis = Instant.parse(at).toEpochMilli();
+        long fare = table.fareCents(tipo, millis, state);
+        table.record(tipo, millis, fare, state);
+        return fare;
+    }
+
+    @Test
+    void estudante_ShouldApplyDiscountTransfersAndDailyCap() {
+        RiderFareState state = new RiderFareState();
+
+        assertEquals(250, tap(TipoCartao.ESTUDANTE, "2026-10-18T10:00:00Z", state));
+        assertEquals(0, tap(TipoCartao.ESTUDANTE, "2026-10-18T10:30:00Z", state));
+        assertEquals(0, tap(TipoCartao.ESTUDANTE, "2026-10-18T11:00:00Z", state));
+        // integrações esgotadas
+        assertEquals(250, tap(TipoCartao.ESTUDANTE, "2026-10-18T11:10:00Z", state));
+        assertEquals(250, tap(TipoCartao.ESTUDANTE, "2026-10-18T15:00:00Z", state));
+        assertEquals(250, tap(TipoCartao.ESTUDANTE, "2026-10-18T20:00:00Z", state));
+        // teto diário de 1000 atingido
+        assertEquals(0, tap(TipoCartao.ESTUDANTE, "2026-10-18T23:00:00Z", state));
+        // virada do dia em -03:00
+        assertEquals(250, tap(TipoCartao.ESTUDANTE, "2026-10-19T03:30:00Z", state));
+    }
+
+    @Test
+    void trabalhador_ShouldChargeTransferFareInsideWindow() {
+        RiderFareState state = new RiderFareState();
+
+        assertEquals(500, tap(TipoCartao.TRABALHADOR, "2026-10-18T10:00:00Z", state));
+        assertEquals(100, tap(TipoCartao.TRABALHADOR, "2026-10-18T11:00:00Z", state));
+        assertEquals(500, tap(TipoCartao.TRABALHADOR, "2026-10-18T11:20:00Z", state));
+        // restam 400 até o teto diário de 1500
+        assertEquals(400, tap(TipoCartao.TRABALHADOR, "2026-10-18T14:00:00Z", state));
+    }
+
+    @Test
+    void compile_WithMissingRule_ShouldThrowIllegalArgument() {
+        rules.remove("fare.COMUM.daily-cap-cents");
+
+        var e = assertThrows(IllegalArgumentException.class, () -> FareTable.compile(rules));
+        assertTrue(e.getMessage().contains("fare.COMUM.daily-cap-cents"));
+    }
+
+    @Test
+    void compile_ShouldRejectInvalidZoneOffsetAsIllegalArgument() {
+        rules.setProperty("fare.zone-offset", "Brasília");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FareTable.compile(rules));
+        assertTrue(e.getMessage().contains("fare.zone-offset"));
+    }
+}
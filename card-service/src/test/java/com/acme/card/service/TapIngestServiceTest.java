@@ -0,0 +1,149 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.CardTap;
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.repository.CardRepository;
+import com.acme.card.repository.CardTapRepository;
+import com.acme.card.service.TapIngestService.Outcome;
+import com.acme.card.web.dto.ValidatorDTOs.TapEvent;
+
+/**
+ * Testes unitários para TapIngestService
+ */
+class TapIngestServiceTest {
+
+    private CardTapRepository repository;
+    private ActiveCardIndex index;
+    private TapIngestService service;
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CardTapRepository.class);
+        index = new ActiveCardIndex(mock(CardRepository.class));
+        card = Card.create("90.04.01987473-3", "Trabalhador", TipoCartao.TRABALHADOR, UUID.randomUUID());
+        index.onCardChanged(CardChangedEvent.of(card, CardChangedEvent.Kind.CREATED));
+        service = new TapIngestService(repository, index, mock(CloneDetector.class), mock(UsageRollupService.class), 2, 100, 1, 10, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    private static TapEvent tap(String numero, String validator, Instant at) {
+        TapEvent event = new TapEvent();
+        event.numeroCartao = numero;
+        event.validatorId = validator;
+        event.timestamp = at;
+        return event;
+    }
+
+    @Test
+    void submit_ShouldDropDuplicatesAndRejectInvalidEvents() throws Exception {
+        Instant at = Instant.parse("2026-10-18T10:15:30.123456Z");
+
+        assertEquals(Outcome.ACCEPTED, service.submit(tap("90.04.01987473-3", "V-1", at)));
+        assertEquals(Outcome.DUPLICATE, service.submit(tap("90.04.01987473-3", "V-1", at.plusNanos(100))));
+        assertEquals(Outcome.REJECTED, service.submit(tap("1234.5678.9012.3456", "V-1", at)));
+        assertEquals(Outcome.REJECTED, service.submit(tap("90.04.01987473-3", " ", at)));
+        assertEquals(Outcome.REJECTED, service.submit(tap("90.04.01987473-3", "V-1", null)));
+        assertEquals(1, service.pending());
+    }
+
+    @Test
+    void submit_ShouldSignalBackpressureWhenQueueIsFull() throws Exception {
+        Instant at = Instant.parse("2026-10-18T10:15:30Z");
+        service.submit(tap("90.04.01987473-3", "V-1", at));
+        service.submit(tap("90.04.01987473-3", "V-1", at.plusSeconds(1)));
+
+        assertEquals(Outcome.BACKPRESSURE, service.submit(tap("90.04.01987473-3", "V-1", at.plusSeconds(2))));
+        // o evento recusado não fica marcado como visto
+        assertNotEquals(Outcome.DUPLICATE, service.submit(tap("90.04.01987473-3", "V-1", at.plusSeconds(2))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void writer_ShouldFlushQueuedTapsInBatches() throws Exception {
+        // Given
+        Instant at = Instant.parse("2026-10-18T10:15:30Z");
+        service.submit(tap("90.04.01987473-3", "V-1", at));
+        service.submit(tap("90.02.00000001-7", "V-2", at));
+
+        // When
+        service.start();
+
+        // Then
+        ArgumentCaptor<List<CardTap>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository, timeout(2000)).insertBatch(batch.capture());
+        List<CardTap> written = batch.getValue();
+        assertEquals(2, written.size());
+        assertEquals(card.getId(), written.get(0).cardId());
+        assertEquals(TipoCartao.TRABALHADOR, written.get(0).tipoCartao());
+        assertNull(written.get(1).cardId());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void writer_ShouldRequeueBatch_WhenAllWriteAttemptsFail() throws Exception {
+        // Given: banco fora nas 3 primeiras tentativas
+        doThrow(new RuntimeException("banco fora")).doThrow(new RuntimeException("banco fora"))
+                .doThrow(new RuntimeException("banco fora")).doNothing()
+                .when(repository).insertBatch(anyList());
+        service.submit(tap("90.04.01987473-3", "V-1", Instant.parse("2026-10-18T10:15:30Z")));
+
+        // When
+        service.start();
+
+        // Then: a passagem aceita é gravada na tentativa seguinte, não descartada
+        ArgumentCaptor<List<CardTap>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository, timeout(5000).times(4)).insertBatch(batch.capture());
+        assertEquals(1, batch.getValue().size());
+    }
+
+    @Test
+    void writer_ShouldForgetTaps_WhenFailedBatchDoesNotFitBackInQueue() throws Exception {
+        // Given: o escritor já tirou o lote da fila quando ela volta a encher
+        CountDownLatch drained = new CountDownLatch(1);
+        doAnswer(inv -> {
+            drained.countDown();
+            throw new RuntimeException("banco fora");
+        }).when(repository).insertBatch(anyList());
+        Instant at = Instant.parse("2026-10-18T10:15:30Z");
+        service.submit(tap("90.04.01987473-3", "V-1", at));
+        service.start();
+        assertTrue(drained.await(2, TimeUnit.SECONDS));
+        service.submit(tap("90.04.01987473-3", "V-1", at.plusSeconds(1)));
+        service.submit(tap("90.04.01987473-3", "V-1", at.plusSeconds(2)));
+
+        // When: as tentativas acabam com a fila cheia
+        verify(repository, timeout(5000).times(3)).insertBatch(anyList());
+
+        // Then: o reenvio da passagem perdida não é tratado como duplicata
+        Outcome resend = Outcome.DUPLICATE;
+        for (int i = 0; i < 50 && resend == Outcome.DUPLICATE; i++) {
+            Thread.sleep(20);
+            resend = service.submit(tap("90.04.01987473-3", "V-1", at));
+        }
+        assertNotEquals(Outcome.DUPLICATE, resend);
+    }
+}
@@ -0,0 +1,102 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import com.acme.card.domain.CardTap;
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.repository.UsageRollupRepository;
+import com.acme.card.repository.UsageRollupRepository.RollupRow;
+
+/**
+ * Testes unitários para UsageRollupService
+ */
+class UsageRollupServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final AtomicLong now = new AtomicLong(Instant.parse("2026-10-18T10:20:00Z").toEpochMilli() / HOUR);
+    private UsageRollupRepository repository;
+    private UsageRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UsageRollupRepository.class);
+        service = new UsageRollupService(repository) {
+            @Override
+            long currentHour() {
+                return now.get();
+            }
+        };
+    }
+
+    private static CardTap tap(String at, TipoCartao tipo) {
+        return new CardTap(1L, "V-1", Instant.parse(at), tipo != null ? UUID.randomUUID() : null, tipo);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flush_ShouldWriteBatchedIncrementsForOpenHours() {
+        // Given
+        service.recordTaps(List.of(
+                tap("2026-10-18T10:01:00Z", TipoCartao.ESTUDANTE),
+                tap("2026-10-18T10:02:00Z", TipoCartao.ESTUDANTE),
+                tap("2026-10-18T09:59:00Z", null)));
+
+        // When
+        service.flush();
+
+        // Then
+        ArgumentCaptor<List<RollupRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repository).addIncrements(rows.capture());
+        assertTrue(rows.getValue().contains(new RollupRow(Instant.parse("2026-10-18T10:00:00Z"), "ESTUDANTE", 2, 0)));
+        assertTrue(rows.getValue().contains(new RollupRow(Instant.parse("2026-10-18T09:00:00Z"), "DESCONHECIDO", 1, 0)));
+    }
+
+    @Test
+    void recordTaps_LateData_ShouldReaggregateItsHourInsteadOfIncrementing() {
+        // Given
+        service.recordTaps(List.of(tap("2026-10-18T03:15:00Z", TipoCartao.COMUM)));
+
+        // When
+        service.flush();
+
+        // Then
+        verify(repository, never()).addIncrements(any());
+        verify(repository).reaggregate(Instant.parse("2026-10-18T03:00:00Z"));
+    }
+
+    @Test
+    void flush_WhenHourCloses_ShouldFlushIncrementsBeforeReaggregating() {
+        // Given
+        service.recordTaps(List.of(tap("2026-10-18T09:30:00Z", TipoCartao.TRABALHADOR)));
+        now.addAndGet(1);
+
+        // When
+        service.flush();
+
+        // Then
+        InOrder order = inOrder(repository);
+        order.verify(repository).addIncrements(any());
+        order.verify(repository).reaggregate(Instant.parse("2026-10-18T09:00:00Z"));
+    }
+
+    @Test
+    void getHourly_WithTooLongRange_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getHourly(Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-03-01T00:00:00Z")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getDaily(Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-01-01T00:00:00Z")));
+    }
+}
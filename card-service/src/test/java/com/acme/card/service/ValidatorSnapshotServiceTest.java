@@ -0,0 +1,168 @@
+package com.acme.card.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.acme.card.domain.Card;
+import com.acme.card.domain.CardChangedEvent;
+import com.acme.card.domain.CardChangedEvent.Kind;
+import com.acme.card.domain.TipoCartao;
+import com.acme.card.repository.CardRepository;
+import com.acme.card.utils.CardNumberCodec;
+import com.acme.card.utils.CardSnapshotFile;
+
+/**
+ * Testes unitários para ValidatorSnapshotService
+ */
+class ValidatorSnapshotServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ActiveCardIndex index;
+    private ValidatorSnapshotService service;
+
+    private Card trabalhador;
+    private Card estudante;
+
+    @BeforeEach
+    void setUp() {
+        index = new ActiveCardIndex(mock(CardRepository.class));
+        service = new ValidatorSnapshotService(index, dir.toString(), 2);
+
+        trabalhador = Card.create("90.04.01987473-3", "Trabalhador", TipoCartao.TRABALHADOR, UUID.randomUUID());
+        estudante = Card.create("90.02.00000001-7", "Estudante", TipoCartao.ESTUDANTE, UUID.randomUUID());
+        index.onCardChanged(CardChangedEvent.of(trabalhador, Kind.CREATED));
+        index.onCardChanged(CardChangedEvent.of(estudante, Kind.CREATED));
+    }
+
+    private void publish(Card card, Kind kind) {
+        CardChangedEvent event = CardChangedEvent.of(card, kind);
+        index.onCardChanged(event);
+        service.onCardChanged(event);
+    }
+
+    @Test
+    void init_ShouldWriteSortedSnapshotReadableByBinarySearch() throws Exception {
+        // When
+        service.init();
+
+        // Then
+        assertTrue(service.isAvailable());
+        CardSnapshotFile.Reader reader = CardSnapshotFile.Reader.open(service.snapshotPath());
+        assertEquals(2, reader.count());
+        assertEquals(1, reader.baseSeq());
+        assertEquals(TipoCartao.TRABALHADOR, reader.lookup("90.04.01987473-3"));
+        assertEquals(TipoCartao.ESTUDANTE, reader.lookup("90.02.00000001-7"));
+        assertNull(reader.lookup("90.02.00000002-5"));
+        assertNull(reader.lookup("1234.5678.9012.3456"));
+    }
+
+    @Test
+    void deltasSince_ShouldReturnChangesAfterSnapshot() throws Exception {
+        // Given
+        service.init();
+        estudante.deactivate();
+        publish(estudante, Kind.DEACTIVATED);
+
+        // When
+        var chunk = service.deltasSince(1);
+
+        // Then
+        assertEquals(2, chunk.lastSeq());
+        assertEquals(2, chunk.headSeq());
+        long record = ByteBuffer.wrap(chunk.records()).getLong();
+        assertEquals(CardNumberCodec.encode("90.02.00000001-7"), CardSnapshotFile.encodedNumber(record));
+        assertNull(CardSnapshotFile.tipo(record));
+        assertEquals(0, service.deltasSince(2).records().length);
+        assertThrows(IllegalArgumentException.class, () -> service.deltasSince(0));
+    }
+
+    @Test
+    void compactIfNeeded_ShouldRollJournalIntoNewSnapshot() throws Exception {
+        // Given
+        service.init();
+        estudante.deactivate();
+        publish(estudante, Kind.DEACTIVATED);
+        publish(trabalhador, Kind.DELETED);
+
+        // When
+        service.compactIfNeeded();
+
+        // Then
+        CardSnapshotFile.Reader reader = CardSnapshotFile.Reader.open(service.snapshotPath());
+        assertEquals(3, reader.baseSeq());
+        assertEquals(0, reader.count());
+        assertThrows(IllegalArgumentException.class, () -> service.deltasSince(1));
+        assertEquals(0, service.deltasSince(3).records().length);
+    }
+
+    @Test
+    void init_AfterRestart_ShouldStartPastPreviousSequence() throws Exception {
+        // Given
+        service.init();
+        estudante.deactivate();
+        publish(estudante, Kind.DEACTIVATED);
+
+        // When
+        ValidatorSnapshotService restarted = new ValidatorSnapshotService(index, dir.toString(), 2);
+        restarted.init();
+
+        // Then
+        assertEquals(3, CardSnapshotFile.Reader.open(restarted.snapshotPath()).baseSeq());
+        assertThrows(IllegalArgumentException.class, () -> restarted.deltasSince(2));
+    }
+
+    @Test
+    void onCardChanged_ShouldJournalLatestIndexState_WhenSameCardChangesConcurrently() throws Exception {
+        // Given: a leitura do evento "desativado" demora; a reativação chega no meio
+        ActiveCardIndex slowIndex = spy(index);
+        ValidatorSnapshotService concurrent = new ValidatorSnapshotService(slowIndex, dir.toString(), 100);
+        concurrent.init();
+        long key = CardNumberCodec.encode("90.02.00000001-7");
+        CountDownLatch firstLookedUp = new CountDownLatch(1);
+        CountDownLatch reactivated = new CountDownLatch(1);
+        doAnswer(inv -> {
+            Object state = inv.callRealMethod();
+            if (Thread.currentThread().getName().equals("desativa")) {
+                firstLookedUp.countDown();
+                reactivated.await(500, TimeUnit.MILLISECONDS);
+            }
+            return state;
+        }).when(slowIndex).lookup(key);
+
+        estudante.deactivate();
+        CardChangedEvent deactivated = CardChangedEvent.of(estudante, Kind.DEACTIVATED);
+        slowIndex.onCardChanged(deactivated);
+        Thread first = new Thread(() -> concurrent.onCardChanged(deactivated), "desativa");
+        first.start();
+        assertTrue(firstLookedUp.await(5, TimeUnit.SECONDS));
+
+        // When
+        estudante.activate();
+        CardChangedEvent activated = CardChangedEvent.of(estudante, Kind.ACTIVATED);
+        slowIndex.onCardChanged(activated);
+        Thread second = new Thread(() -> {
+            concurrent.onCardChanged(activated);
+            reactivated.countDown();
+        });
+        second.start();
+        first.join(5000);
+        second.join(5000);
+
+        // Then: o último delta é o cartão ativo, como no índice
+        ByteBuffer records = ByteBuffer.wrap(concurrent.deltasSince(1).records());
+        long last = records.getLong(records.limit() - Long.BYTES);
+        assertEquals(TipoCartao.ESTUDANTE, CardSnapshotFile.tipo(last));
+    }
+}
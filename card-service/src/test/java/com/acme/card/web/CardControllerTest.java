@@ -0,0 +1,34 @@
+package com.acme.card.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.card.service.CardService;
+
+/**
+ * Testes unitários para CardController
+ */
+class CardControllerTest {
+
+    private final CardService cardService = mock(CardService.class);
+    private final CardController controller = new CardController(cardService);
+
+    @Test
+    void searchCards_ShouldReturn400_WhenCursorIsInvalid() {
+        // Given
+        when(cardService.searchCards(any(), eq("not-a-cursor"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        // When
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> controller.searchCards(null, null, null, null, "not-a-cursor", 10));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+}
@@ -0,0 +1,69 @@
+package com.acme.gateway.config;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.acme.gateway.security.IdentityHeaders;
+import com.acme.gateway.security.JwtVerifier;
+import com.acme.gateway.security.VerifiedToken;
+
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Valida o Bearer token na borda e encaminha a identidade em cabeçalhos assinados, para os serviços
+ * não precisarem reprocessar o JWT. É um WebFilter (e não GlobalFilter) para cobrir também os
+ * controllers do próprio gateway, como o UserProxyController.
+ */
+@Component
+public class JwtEdgeFilter implements WebFilter, Ordered {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtVerifier verifier;
+
+    public JwtEdgeFilter(JwtVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        // Login/cadastro não dependem do token; um token velho não deve bloquear
+        boolean publicPath = request.getPath().value().startsWith("/api/auth/");
+
+        VerifiedToken token = null;
+        if (authHeader != null && authHeader.startsWith(BEARER) && !publicPath) {
+            try {
+                token = verifier.verify(authHeader.substring(BEARER.length()));
+            } catch (JwtException | IllegalArgumentException e) {
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+                return exchange.getResponse().setComplete();
+            }
+        }
+
+        VerifiedToken verified = token;
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    IdentityHeaders.strip(headers);
+                    if (verified != null) {
+                        verifier.identityHeaders().write(headers, verified);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+}
@@ -3,6 +3,7 @@ package com.acme.gateway.controller;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -13,6 +14,8 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.acme.gateway.security.IdentityHeaders;
+
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -31,13 +34,15 @@ public class UserProxyController {
 
     @GetMapping("/me")
     public Mono<ResponseEntity<String>> getMyProfile(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            ServerHttpRequest incoming) {
 
         System.out.println("UserProxyController - GET /me chamado");
         System.out.println("Authorization: " + (authHeader != null ? "PRESENTE" : "AUSENTE"));
 
         WebClient.RequestHeadersSpec<?> request = webClient.get()
-                .uri("/api/users/me");
+                .uri("/api/users/me")
+                .headers(headers -> IdentityHeaders.copy(incoming.getHeaders(), headers));
 
         if (authHeader != null) {
             request = request.header("Authorization", authHeader);
@@ -59,13 +64,15 @@ public class UserProxyController {
     @PutMapping("/me")
     public Mono<ResponseEntity<String>> updateMyProfile(
     @RequestHeader(value = "Authorization", required = false) String authHeader,
-        @RequestBody String body) {
+        @RequestBody String body,
+        ServerHttpRequest incoming) {
 
         System.out.println("UserProxyController - PUT /me chamado");
         System.out.println("Authorization: " + (authHeader != null ? "PRESENTE" : "AUSENTE"));
 
         WebClient.RequestBodySpec request = webClient.put()
                 .uri("/api/users/me")
+                .headers(headers -> IdentityHeaders.copy(incoming.getHeaders(), headers))
                 .contentType(MediaType.APPLICATION_JSON);
 
         WebClient.RequestHeadersSpec<?> headersSpec = request.bodyValue(body);
@@ -89,7 +96,8 @@ public class UserProxyController {
     @PutMapping("/me/password")
     public Mono<ResponseEntity<String>> changeMyPassword(
     @RequestHeader(value = "Authorization", required = false) String authHeader,
-        @RequestBody String body) {
+        @RequestBody String body,
+        ServerHttpRequest incoming) {
 
         System.out.println("UserProxyController - PUT /me/password chamado");
         System.out.println("Authorization: " + (authHeader != null ? "PRESENTE" : "AUSENTE"));
@@ -0,0 +1,53 @@
+package com.acme.gateway.security;
+
+import static com.acme.security.IdentityHeaderKeys.EXPIRES;
+import static com.acme.security.IdentityHeaderKeys.ROLE;
+import static com.acme.security.IdentityHeaderKeys.SIGNATURE;
+import static com.acme.security.IdentityHeaderKeys.USER;
+
+import org.springframework.http.HttpHeaders;
+
+import com.acme.security.IdentityHeaderKeys;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Cabeçalhos de identidade assinados que o gateway envia aos serviços após validar o JWT.
+ * Nomes, chave e assinatura vêm de {@link IdentityHeaderKeys}, os mesmos que os serviços usam para verificar.
+ */
+public final class IdentityHeaders {
+
+    private final byte[] key;
+
+    public IdentityHeaders(byte[] material) {
+        this.key = material.clone();
+    }
+
+    public static IdentityHeaders fromEnv(Dotenv dotenv) {
+        return new IdentityHeaders(IdentityHeaderKeys.fromEnv(dotenv));
+    }
+
+    public void write(HttpHeaders headers, VerifiedToken token) {
+        headers.set(USER, token.subject());
+        headers.set(ROLE, token.role());
+        headers.set(EXPIRES, Long.toString(token.expiresAt()));
+        headers.set(SIGNATURE, IdentityHeaderKeys.sign(key, token.subject(), token.role(), token.expiresAt()));
+    }
+
+    // Nunca repassar cabeçalhos de identidade vindos do cliente
+    public static void strip(HttpHeaders headers) {
+        headers.remove(USER);
+        headers.remove(ROLE);
+        headers.remove(EXPIRES);
+        headers.remove(SIGNATURE);
+    }
+
+    public static void copy(HttpHeaders from, HttpHeaders to) {
+        for (String name : new String[] { USER, ROLE, EXPIRES, SIGNATURE }) {
+            String value = from.getFirst(name);
+            if (value != null) {
+                to.set(name, value);
+            }
+        }
+    }
+}
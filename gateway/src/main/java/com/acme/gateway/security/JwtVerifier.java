@@ -0,0 +1,80 @@
+package com.acme.gateway.security;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.acme.security.JwksKeyLocator;
+import com.acme.security.JwtSettings;
+import com.acme.security.VerifiedTokenCache;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Valida access tokens uma única vez, na borda, com as chaves públicas ES256 do auth-service (JWKS).
+ * Claims válidas ficam em cache pelo hash SHA-256 do token até o {@code exp}; o token em si não é guardado.
+ * O cache é limitado e descarta os menos usados um a um, sem varreduras no event loop.
+ */
+@Service
+public class JwtVerifier {
+
+    private static final int MAX_CACHED_TOKENS = 50_000;
+
+    private final JwtParser parser;
+    private final IdentityHeaders identityHeaders;
+    private final VerifiedTokenCache<VerifiedToken> cache =
+            new VerifiedTokenCache<>(MAX_CACHED_TOKENS, t -> t.expiresAt() * 1000);
+
+    public JwtVerifier(
+            @Value("${security.jwt.jwks-uri:http://localhost:8081/.well-known/jwks.json}") URI jwksUri,
+            @Value("${security.jwt.jwks-min-refresh:PT30S}") Duration minRefresh) {
+        JwtSettings settings = JwtSettings.fromEnv();
+        this.parser = Jwts.parser()
+                .requireIssuer(settings.issuer())
+                .requireAudience(settings.audience())
+                .keyLocator(new JwksKeyLocator(jwksUri, minRefresh))
+                .build();
+        this.identityHeaders = IdentityHeaders.fromEnv(Dotenv.configure().ignoreIfMissing().load());
+    }
+
+    public IdentityHeaders identityHeaders() {
+        return identityHeaders;
+    }
+
+    /** Lança JwtException para token inválido, expirado ou de outro emissor/audiência. */
+    public VerifiedToken verify(String token) {
+        String hash = hash(token);
+        VerifiedToken cached = cache.get(hash, System.currentTimeMillis());
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token sem subject ou exp");
+        }
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), String.valueOf(claims.get("role")),
+                claims.getExpiration().toInstant().getEpochSecond());
+        cache.put(hash, verified);
+        return verified;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.acme.gateway.security;
+
+// Claims já validadas de um access token; expiresAt em epoch seconds
+public record VerifiedToken(String subject, String role, long expiresAt) {}
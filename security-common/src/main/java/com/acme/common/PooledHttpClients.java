@@ -0,0 +1,64 @@
+package com.acme.common;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Transporte dos clientes entre serviços: pool de conexões keep-alive com limite, e prazos para conectar,
+ * para esperar uma conexão livre do pool e para a resposta. Um serviço lento vira erro rápido em vez de
+ * prender threads do Tomcat indefinidamente. Métricas do pool em {@code httpcomponents.httpclient.pool.*}.
+ */
+public final class PooledHttpClients {
+
+  private PooledHttpClients() {
+  }
+
+  public static HttpComponentsClientHttpRequestFactory requestFactory(
+      MeterRegistry meters, String name, int maxConnections,
+      Duration connectTimeout, Duration poolTimeout, Duration readTimeout) {
+    PoolingHttpClientConnectionManager pool = connectionManager(maxConnections, connectTimeout, readTimeout);
+    new PoolingHttpClientConnectionManagerMetricsBinder(pool, name).bindTo(meters);
+    return requestFactory(pool, poolTimeout, readTimeout);
+  }
+
+  // Um único destino por cliente: o limite por rota é o próprio limite do pool
+  public static PoolingHttpClientConnectionManager connectionManager(
+      int maxConnections, Duration connectTimeout, Duration readTimeout) {
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxConnections)
+        .setMaxConnPerRoute(maxConnections)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(connectTimeout))
+            .setSocketTimeout(Timeout.of(readTimeout))
+            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+            .setTimeToLive(TimeValue.ofMinutes(5))
+            .build())
+        .build();
+  }
+
+  public static HttpComponentsClientHttpRequestFactory requestFactory(
+      PoolingHttpClientConnectionManager pool, Duration poolTimeout, Duration readTimeout) {
+    var client = HttpClients.custom()
+        .setConnectionManager(pool)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+            .setResponseTimeout(Timeout.of(readTimeout))
+            .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(30, TimeUnit.SECONDS))
+        .build();
+    return new HttpComponentsClientHttpRequestFactory(client);
+  }
+}
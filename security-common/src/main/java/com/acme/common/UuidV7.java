@@ -0,0 +1,54 @@
+package com.acme.common;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * UUID versão 7 (RFC 9562): 48 bits de milissegundos, 12 bits de contador e 62 bits aleatórios.
+ * Gravado em BINARY(16) o id cresce com o tempo, então os inserts vão para o fim do índice clusterizado
+ * do InnoDB em vez de páginas aleatórias. Ids v4 já gravados continuam válidos na mesma coluna.
+ *
+ * <p>Monotônico entre threads sem lock: um CAS sobre (ms, contador). Mais de 4096 ids no mesmo
+ * milissegundo (ou relógio voltando) avançam o contador para o milissegundo seguinte.
+ */
+public final class UuidV7 {
+
+    private static final UuidV7 INSTANCE = new UuidV7(System::currentTimeMillis);
+
+    // DRBG por thread: instâncias separadas não disputam o mesmo lock
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    });
+
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong();   // (ms << 12) | contador
+
+    UuidV7(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UUID randomUUID() {
+        return INSTANCE.next();
+    }
+
+    UUID next() {
+        long now = clock.getAsLong() << 12;
+        long prev;
+        long stamp;
+        do {
+            prev = last.get();
+            stamp = Math.max(now, prev + 1);
+        } while (!last.compareAndSet(prev, stamp));
+
+        long msb = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long lsb = RANDOM.get().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
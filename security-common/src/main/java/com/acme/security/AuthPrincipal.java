@@ -0,0 +1,131 @@
+package com.acme.security;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Usuário autenticado da requisição. Montado uma vez pelo {@link JwtFilter} (ou reaproveitado do
+ * cache de tokens) e injetado nos controllers com {@link CurrentUser}.
+ */
+public final class AuthPrincipal {
+
+  public static final String ROLE_PREFIX = "ROLE_";
+  public static final String ADMIN = "ADMIN";
+  public static final String USER = "USER";
+
+  private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority(ROLE_PREFIX + ADMIN));
+  private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority(ROLE_PREFIX + USER));
+
+  private final String subject;
+  private final UUID userId;
+  private final String role;
+  private final List<GrantedAuthority> authorities;
+  private final long expiresAtMillis;
+
+  private AuthPrincipal(String subject, String role, long expiresAtMillis) {
+    this.subject = subject;
+    this.userId = parseUuid(subject);
+    this.role = role;
+    this.authorities = authoritiesFor(role);
+    this.expiresAtMillis = expiresAtMillis;
+  }
+
+  /** @param role papel como vem do token ("admin", "ROLE_USER"...); normalizado aqui uma única vez */
+  public static AuthPrincipal of(String subject, String role, long expiresAtMillis) {
+    return new AuthPrincipal(subject, normalizeRole(role), expiresAtMillis);
+  }
+
+  /** Para autenticações que não vieram do filtro (ex.: testes com usuário simulado). */
+  public static AuthPrincipal from(Authentication authentication) {
+    if (authentication.getPrincipal() instanceof AuthPrincipal principal) {
+      return principal;
+    }
+    String role = "";
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      String name = authority.getAuthority();
+      if ((ROLE_PREFIX + ADMIN).equals(name)) {
+        role = ADMIN;
+        break;
+      }
+      if (role.isEmpty() && name != null) {
+        role = name;
+      }
+    }
+    return of(authentication.getName(), role, Long.MAX_VALUE);
+  }
+
+  /** Id do usuário, ou null se o subject não for um UUID. */
+  public UUID userId() {
+    return userId;
+  }
+
+  public String subject() {
+    return subject;
+  }
+
+  /** Papel em maiúsculas, sem o prefixo ROLE_. */
+  public String role() {
+    return role;
+  }
+
+  public boolean isAdmin() {
+    return ADMIN.equals(role);
+  }
+
+  public List<GrantedAuthority> authorities() {
+    return authorities;
+  }
+
+  public long expiresAtMillis() {
+    return expiresAtMillis;
+  }
+
+  public boolean isExpired(long nowMillis) {
+    return nowMillis >= expiresAtMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "AuthPrincipal[" + subject + ", " + role + "]";
+  }
+
+  static String normalizeRole(String role) {
+    if (role == null) {
+      return "";
+    }
+    // caminho comum sem alocação
+    switch (role) {
+      case ADMIN, "ROLE_ADMIN": return ADMIN;
+      case USER, "ROLE_USER": return USER;
+      default: break;
+    }
+    String upper = role.toUpperCase(Locale.ROOT);
+    return upper.startsWith(ROLE_PREFIX) ? upper.substring(ROLE_PREFIX.length()) : upper;
+  }
+
+  private static List<GrantedAuthority> authoritiesFor(String role) {
+    if (ADMIN.equals(role)) {
+      return ADMIN_AUTHORITIES;
+    }
+    if (USER.equals(role)) {
+      return USER_AUTHORITIES;
+    }
+    return role.isEmpty() ? List.of() : List.of(new SimpleGrantedAuthority(ROLE_PREFIX + role));
+  }
+
+  private static UUID parseUuid(String subject) {
+    if (subject == null) {
+      return null;
+    }
+    try {
+      return UUID.fromString(subject);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
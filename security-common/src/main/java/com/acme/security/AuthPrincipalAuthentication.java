@@ -0,0 +1,33 @@
+package com.acme.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+/**
+ * Authentication do SecurityContext carregando o {@link AuthPrincipal}; {@link #getName()} continua
+ * sendo o subject do token.
+ */
+public class AuthPrincipalAuthentication extends AbstractAuthenticationToken {
+
+  private final AuthPrincipal principal;
+
+  public AuthPrincipalAuthentication(AuthPrincipal principal) {
+    super(principal.authorities());
+    this.principal = principal;
+    setAuthenticated(true);
+  }
+
+  @Override
+  public AuthPrincipal getPrincipal() {
+    return principal;
+  }
+
+  @Override
+  public Object getCredentials() {
+    return null;
+  }
+
+  @Override
+  public String getName() {
+    return principal.subject();
+  }
+}
@@ -0,0 +1,19 @@
+package com.acme.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injeta o {@link AuthPrincipal} da requisição em um parâmetro de controller.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+  /** Se true e não houver usuário autenticado, a requisição falha com 401. */
+  boolean required() default true;
+}
@@ -0,0 +1,59 @@
+package com.acme.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.jsonwebtoken.io.Decoders;
+
+/**
+ * Nomes, chave HMAC e assinatura dos cabeçalhos de identidade, compartilhados pelo gateway (que assina)
+ * e pelos serviços (que verificam). Chave: IDENTITY_HEADER_SECRET_BASE64 ou, por compatibilidade,
+ * derivada de JWT_SECRET_BASE64. Sem nenhuma das duas o serviço não sobe: os dois lados falham fechados.
+ */
+public final class IdentityHeaderKeys {
+
+  public static final String USER = "X-Auth-User";
+  public static final String ROLE = "X-Auth-Role";
+  public static final String EXPIRES = "X-Auth-Expires";
+  public static final String SIGNATURE = "X-Auth-Signature";
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final byte[] DERIVATION_LABEL = "identity-headers".getBytes(StandardCharsets.UTF_8);
+
+  private IdentityHeaderKeys() {
+  }
+
+  public static byte[] fromEnv(Dotenv dotenv) {
+    String override = dotenv.get("IDENTITY_HEADER_SECRET_BASE64");
+    if (override != null && !override.isBlank()) {
+      return Base64.getDecoder().decode(override);
+    }
+    // compatibilidade: chave derivada do antigo segredo HS256
+    String secretBase64 = dotenv.get("JWT_SECRET_BASE64");
+    if (secretBase64 == null || secretBase64.isEmpty()) {
+      throw new IllegalStateException("IDENTITY_HEADER_SECRET_BASE64 ausente do .env");
+    }
+    return hmac(Decoders.BASE64.decode(secretBase64), DERIVATION_LABEL);
+  }
+
+  /** base64url(HMAC-SHA256(chave, usuário \n papel \n expiração em segundos)). */
+  public static String sign(byte[] key, String user, String role, long exp) {
+    byte[] payload = (user + "\n" + role + "\n" + exp).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(key, payload));
+  }
+
+  public static byte[] hmac(byte[] key, byte[] payload) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(new SecretKeySpec(key, ALGORITHM));
+      return mac.doFinal(payload);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC indisponível", e);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.acme.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Valida os cabeçalhos de identidade assinados pelo gateway (X-Auth-*), que já verificou o JWT.
+ * Mesma chave do gateway (ver {@link IdentityHeaderKeys}).
+ */
+public class IdentityHeaderVerifier {
+
+  private final byte[] key;
+
+  public IdentityHeaderVerifier(byte[] material) {
+    this.key = Objects.requireNonNull(material, "chave dos cabeçalhos de identidade").clone();
+  }
+
+  public static IdentityHeaderVerifier fromEnv() {
+    return new IdentityHeaderVerifier(IdentityHeaderKeys.fromEnv(Dotenv.configure().ignoreIfMissing().load()));
+  }
+
+  /** Principal dos cabeçalhos, ou null se ausentes, expirados ou com assinatura inválida. */
+  public AuthPrincipal verify(HttpServletRequest req) {
+    String signature = req.getHeader(IdentityHeaderKeys.SIGNATURE);
+    String user = req.getHeader(IdentityHeaderKeys.USER);
+    String role = req.getHeader(IdentityHeaderKeys.ROLE);
+    String expires = req.getHeader(IdentityHeaderKeys.EXPIRES);
+    if (signature == null || user == null || role == null || expires == null) {
+      return null;
+    }
+    long exp;
+    try {
+      exp = Long.parseLong(expires);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    if (exp <= System.currentTimeMillis() / 1000) {
+      return null;
+    }
+    byte[] expected = IdentityHeaderKeys.sign(key, user, role, exp).getBytes(StandardCharsets.US_ASCII);
+    if (!MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+      return null;
+    }
+    return AuthPrincipal.of(user, role, exp * 1000);
+  }
+}
@@ -0,0 +1,106 @@
+package com.acme.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+
+/**
+ * Chaves públicas de verificação publicadas pelo auth-service (JWKS), em memória por {@code kid}.
+ * O endpoint só é consultado de novo quando chega um kid desconhecido, no máximo uma vez por
+ * {@code minRefreshInterval} para que tokens forjados com kids aleatórios não virem uma enxurrada de requisições.
+ */
+public class JwksKeyLocator extends LocatorAdapter<Key> {
+
+  private static final Logger log = LoggerFactory.getLogger(JwksKeyLocator.class);
+  private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(2);
+
+  private final URI jwksUri;
+  private final Duration minRefreshInterval;
+  private final HttpClient http;
+
+  private volatile Map<String, PublicKey> keys = Map.of();
+  private long lastRefreshNanos;
+  private boolean refreshed;
+
+  public JwksKeyLocator(URI jwksUri, Duration minRefreshInterval) {
+    this.jwksUri = jwksUri;
+    this.minRefreshInterval = minRefreshInterval;
+    this.http = HttpClient.newBuilder().connectTimeout(FETCH_TIMEOUT).build();
+  }
+
+  @Override
+  protected Key locate(JwsHeader header) {
+    String kid = header.getKeyId();
+    if (kid == null) {
+      throw new UnsupportedJwtException("Token sem kid");
+    }
+    PublicKey key = keys.get(kid);
+    if (key == null) {
+      key = refresh(kid);
+    }
+    if (key == null) {
+      throw new UnsupportedJwtException("kid desconhecido: " + kid);
+    }
+    return key;
+  }
+
+  int size() {
+    return keys.size();
+  }
+
+  private synchronized PublicKey refresh(String kid) {
+    // outra thread pode ter acabado de buscar
+    PublicKey key = keys.get(kid);
+    if (key != null) {
+      return key;
+    }
+    long now = System.nanoTime();
+    if (refreshed && now - lastRefreshNanos < minRefreshInterval.toNanos()) {
+      return null;
+    }
+    refreshed = true;
+    lastRefreshNanos = now;
+    try {
+      keys = fetch();
+      log.info("JWKS atualizado de {}: {} chave(s)", jwksUri, keys.size());
+    } catch (IOException | RuntimeException e) {
+      log.warn("Falha ao buscar JWKS de {}: {}", jwksUri, e.toString());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return keys.get(kid);
+  }
+
+  private Map<String, PublicKey> fetch() throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(FETCH_TIMEOUT).GET().build();
+    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IOException("HTTP " + response.statusCode());
+    }
+    JwkSet set = Jwks.setParser().build().parse(response.body());
+    Map<String, PublicKey> fetched = new HashMap<>();
+    for (Jwk<?> jwk : set) {
+      if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+        fetched.put(jwk.getId(), publicKey);
+      }
+    }
+    return Map.copyOf(fetched);
+  }
+}
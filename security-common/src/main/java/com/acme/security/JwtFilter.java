@@ -0,0 +1,58 @@
+package com.acme.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Autentica a requisição pelos cabeçalhos assinados do gateway ou, em chamadas diretas, pelo Bearer token.
+ * Registrado só na cadeia do Spring Security (ver {@link SecurityCommonAutoConfiguration}).
+ */
+public class JwtFilter extends OncePerRequestFilter {
+
+  private final JwtService jwt;
+  private final IdentityHeaderVerifier identityHeaders;
+  private final boolean rejectInvalidToken;
+
+  /** @param rejectInvalidToken responde 401 para Bearer inválido em vez de seguir como anônimo */
+  public JwtFilter(JwtService jwt, IdentityHeaderVerifier identityHeaders, boolean rejectInvalidToken) {
+    this.jwt = jwt;
+    this.identityHeaders = identityHeaders;
+    this.rejectInvalidToken = rejectInvalidToken;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+      throws ServletException, IOException {
+    // Requisições vindas do gateway: o token já foi verificado lá
+    AuthPrincipal principal = identityHeaders.verify(req);
+
+    if (principal == null) {
+      String h = req.getHeader(HttpHeaders.AUTHORIZATION);
+      if (h != null && h.startsWith("Bearer ")) {
+        try {
+          principal = jwt.verify(h.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+          if (rejectInvalidToken) {
+            SecurityContextHolder.clearContext();
+            res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+          }
+        }
+      }
+    }
+
+    if (principal != null) {
+      SecurityContextHolder.getContext().setAuthentication(new AuthPrincipalAuthentication(principal));
+    }
+    chain.doFilter(req, res);
+  }
+}
@@ -0,0 +1,65 @@
+package com.acme.security;
+
+import java.security.Key;
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+
+/**
+ * Verificação de JWT compartilhada pelos serviços. Os tokens são assinados pelo auth-service com chaves
+ * assimétricas (ES256) e a chave pública é localizada pelo {@code kid} (ver {@link JwksKeyLocator}).
+ * O parser é montado uma vez (imutável e thread-safe) e tokens já verificados ficam em cache até o exp
+ * (ver {@link VerifiedTokenCache}).
+ */
+public class JwtService {
+
+  public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+  private final JwtParser parser;
+  private final VerifiedTokenCache<AuthPrincipal> verified;
+
+  public JwtService(Locator<Key> keyLocator, String issuer, String audience, int maxCachedTokens) {
+    this.verified = new VerifiedTokenCache<>(maxCachedTokens, AuthPrincipal::expiresAtMillis);
+    this.parser = Jwts.parser()
+        .requireIssuer(issuer)
+        .requireAudience(audience)
+        .keyLocator(keyLocator)
+        .build();
+  }
+
+  public Jws<Claims> parse(String token) {
+    return parser.parseSignedClaims(token);
+  }
+
+  /**
+   * Verifica o token e devolve o principal; tokens repetidos não são verificados de novo até expirarem.
+   *
+   * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+   */
+  public AuthPrincipal verify(String token) {
+    AuthPrincipal cached = verified.get(token, System.currentTimeMillis());
+    if (cached != null) {
+      return cached;
+    }
+
+    Claims claims = parse(token).getPayload();
+    Date exp = claims.getExpiration();
+    Object role = claims.get("role");
+    AuthPrincipal principal = AuthPrincipal.of(claims.getSubject(), role == null ? null : role.toString(),
+        exp == null ? Long.MAX_VALUE : exp.getTime());
+
+    // sem exp não há como saber até quando o token vale: não cacheia
+    if (exp != null) {
+      verified.put(token, principal);
+    }
+    return principal;
+  }
+
+  int cachedTokens() {
+    return verified.size();
+  }
+}
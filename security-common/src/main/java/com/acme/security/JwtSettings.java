@@ -0,0 +1,18 @@
+package com.acme.security;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Emissor, audiência e validade dos access tokens, lidos de JWT_ISSUER, JWT_AUDIENCE e
+ * JWT_ACCESS_TTL_MINUTES (.env opcional; variáveis de ambiente também valem).
+ */
+public record JwtSettings(String issuer, String audience, int accessTtlMinutes) {
+
+  public static JwtSettings fromEnv() {
+    Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+    return new JwtSettings(
+        dotenv.get("JWT_ISSUER", "your-real-issuer-name"),
+        dotenv.get("JWT_AUDIENCE", "your-real-audience-name"),
+        Integer.parseInt(dotenv.get("JWT_ACCESS_TTL_MINUTES", "15")));
+  }
+}
@@ -0,0 +1,66 @@
+package com.acme.security;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Beans de segurança compartilhados. Propriedades:
+ * security.jwt.jwks-uri (chaves públicas do auth-service), security.jwt.jwks-min-refresh,
+ * security.jwt.cache-size (tokens verificados em cache) e
+ * security.jwt.reject-invalid-token (401 imediato para Bearer inválido).
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SecurityCommonAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public JwtService jwtService(
+      @Value("${security.jwt.jwks-uri:http://localhost:8081/.well-known/jwks.json}") URI jwksUri,
+      @Value("${security.jwt.jwks-min-refresh:PT30S}") Duration minRefresh,
+      @Value("${security.jwt.cache-size:" + JwtService.DEFAULT_CACHE_SIZE + "}") int cacheSize) {
+    JwtSettings settings = JwtSettings.fromEnv();
+    return new JwtService(new JwksKeyLocator(jwksUri, minRefresh), settings.issuer(), settings.audience(), cacheSize);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public IdentityHeaderVerifier identityHeaderVerifier() {
+    return IdentityHeaderVerifier.fromEnv();
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public JwtFilter jwtFilter(JwtService jwtService, IdentityHeaderVerifier identityHeaderVerifier,
+      @Value("${security.jwt.reject-invalid-token:false}") boolean rejectInvalidToken) {
+    return new JwtFilter(jwtService, identityHeaderVerifier, rejectInvalidToken);
+  }
+
+  // O filtro roda dentro da SecurityFilterChain; sem isso o Boot o registraria também como filtro do servlet
+  @Bean
+  public FilterRegistrationBean<JwtFilter> jwtFilterRegistration(JwtFilter jwtFilter) {
+    var registration = new FilterRegistrationBean<>(jwtFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  @Bean
+  public WebMvcConfigurer currentUserWebMvcConfigurer() {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+      }
+    };
+  }
+}
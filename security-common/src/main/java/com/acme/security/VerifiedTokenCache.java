@@ -0,0 +1,89 @@
+package com.acme.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache de tokens já verificados, limitado em tamanho. Cada segmento é um LinkedHashMap em ordem de
+ * acesso que descarta o item menos usado a cada inserção acima do limite: nenhuma chamada varre ou
+ * esvazia o cache inteiro. Entradas expiradas saem quando lidas ou quando viram as menos usadas.
+ */
+public final class VerifiedTokenCache<V> {
+
+  private static final int SEGMENTS = 16;
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final Segment<V>[] segments;
+  private final ToLongFunction<V> expiresAtMillis;
+
+  /** @param maxEntries limite total; zero ou negativo desliga o cache */
+  @SuppressWarnings("unchecked")
+  public VerifiedTokenCache(int maxEntries, ToLongFunction<V> expiresAtMillis) {
+    this.expiresAtMillis = expiresAtMillis;
+    int count = maxEntries <= 0 ? 0 : maxEntries >= SEGMENTS * MIN_SEGMENT_SIZE ? SEGMENTS : 1;
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment<>(maxEntries / count);
+    }
+  }
+
+  /** Valor ainda válido em {@code nowMillis}, ou null. */
+  public V get(String key, long nowMillis) {
+    Segment<V> segment = segmentFor(key);
+    if (segment == null) {
+      return null;
+    }
+    synchronized (segment) {
+      V value = segment.get(key);
+      if (value != null && expiresAtMillis.applyAsLong(value) <= nowMillis) {
+        segment.remove(key);
+        return null;
+      }
+      return value;
+    }
+  }
+
+  public void put(String key, V value) {
+    Segment<V> segment = segmentFor(key);
+    if (segment == null) {
+      return;
+    }
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment<V> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  private Segment<V> segmentFor(String key) {
+    if (segments.length == 0) {
+      return null;
+    }
+    int h = key.hashCode();
+    return segments[((h ^ (h >>> 16)) & 0x7fffffff) % segments.length];
+  }
+
+  private static final class Segment<V> extends LinkedHashMap<String, V> {
+
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+      return size() > capacity;
+    }
+  }
+}
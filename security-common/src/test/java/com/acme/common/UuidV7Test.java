@@ -0,0 +1,111 @@
+package com.acme.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para UuidV7
+ */
+class UuidV7Test {
+
+    // Ordem do BINARY(16) no MySQL: bytes sem sinal, do mais significativo ao menos
+    private static int compareAsBinary(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @Test
+    void randomUUID_ShouldSetVersionVariantAndTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7.randomUUID();
+
+        // Then
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1, "timestamp " + millis);
+    }
+
+    @Test
+    void next_ShouldStayOrdered_WhenManyIdsShareTheSameMillisecondOrClockGoesBack() {
+        // Given: relógio parado e depois voltando 1 s
+        long[] now = {1_760_000_000_000L};
+        UuidV7 generator = new UuidV7(() -> now[0]);
+
+        // When
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next());
+        }
+        now[0] -= 1_000;
+        ids.add(generator.next());
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareAsBinary(ids.get(i - 1), ids.get(i)) < 0, "fora de ordem em " + i);
+        }
+    }
+
+    @Test
+    void next_ShouldBeUniqueAndOrderedPerThread_WhenCalledConcurrently() throws Exception {
+        // Given
+        UuidV7 generator = new UuidV7(System::currentTimeMillis);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<UUID[]>> batches = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                batches.add(pool.submit(() -> {
+                    UUID[] ids = new UUID[20_000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.next();
+                    }
+                    return ids;
+                }));
+            }
+
+            // Then
+            Set<UUID> all = new HashSet<>();
+            for (Future<UUID[]> batch : batches) {
+                UUID[] ids = batch.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(compareAsBinary(ids[i - 1], ids[i]) < 0);
+                }
+                Collections.addAll(all, ids);
+            }
+            assertEquals(8 * 20_000, all.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void next_ShouldKeepRandomTailDistinct_WhenTimestampAndCounterRepeatAcrossGenerators() {
+        // Given: duas instâncias (dois pods) no mesmo milissegundo
+        UuidV7 a = new UuidV7(() -> 1_760_000_000_000L);
+        UuidV7 b = new UuidV7(() -> 1_760_000_000_000L);
+
+        // When
+        UUID first = a.next();
+        UUID second = b.next();
+
+        // Then
+        assertEquals(first.getMostSignificantBits(), second.getMostSignificantBits());
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,47 @@
+package com.acme.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Testes unitários para IdentityHeaderKeys
+ */
+class IdentityHeaderKeysTest {
+
+    @TempDir
+    Path dir;
+
+    private Dotenv dotenv(String content) throws Exception {
+        Files.writeString(dir.resolve(".env"), content);
+        return Dotenv.configure().directory(dir.toString()).load();
+    }
+
+    @Test
+    void fromEnv_ShouldFailClosed_WhenNoSecretIsConfigured() throws Exception {
+        // Given
+        Dotenv dotenv = dotenv("OUTRA=1\n");
+
+        // When / Then: gateway e serviços não sobem sem a chave, em vez de ignorar os cabeçalhos em silêncio
+        assertThrows(IllegalStateException.class, () -> IdentityHeaderKeys.fromEnv(dotenv));
+    }
+
+    @Test
+    void fromEnv_ShouldPreferExplicitSecretOverDerivedOne() throws Exception {
+        // Given
+        Dotenv both = dotenv("IDENTITY_HEADER_SECRET_BASE64=AQIDBA==\nJWT_SECRET_BASE64=c2VncmVkbw==\n");
+
+        // When
+        byte[] key = IdentityHeaderKeys.fromEnv(both);
+
+        // Then
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, key);
+        assertEquals(32, IdentityHeaderKeys.fromEnv(dotenv("JWT_SECRET_BASE64=c2VncmVkbw==\n")).length);
+    }
+}
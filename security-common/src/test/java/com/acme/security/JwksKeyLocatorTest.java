@@ -0,0 +1,105 @@
+package com.acme.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.Jwks;
+
+/**
+ * Testes unitários para JwksKeyLocator, contra um endpoint JWKS local
+ */
+class JwksKeyLocatorTest {
+
+    private final List<TestTokens> published = new ArrayList<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private HttpServer server;
+    private URI jwksUri;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            List<Object> keys = new ArrayList<>();
+            for (TestTokens t : published) {
+                keys.add(Jwks.builder().key((ECPublicKey) t.keyPair().getPublic()).id(t.kid()).build());
+            }
+            byte[] body = new ObjectMapper().writeValueAsString(Map.of("keys", keys)).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        jwksUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private JwtService verifier(Duration minRefresh) {
+        return new JwtService(new JwksKeyLocator(jwksUri, minRefresh), TestTokens.ISSUER, TestTokens.AUDIENCE, 0);
+    }
+
+    @Test
+    void verify_KnownKid_ShouldFetchOnceAndReuse() {
+        TestTokens tokens = new TestTokens("k1");
+        published.add(tokens);
+        JwtService jwt = verifier(Duration.ZERO);
+
+        jwt.verify(tokens.issue(UUID.randomUUID().toString(), "USER"));
+        jwt.verify(tokens.issue(UUID.randomUUID().toString(), "USER"));
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void verify_RotatedKey_ShouldRefreshOnUnknownKid() {
+        TestTokens oldKey = new TestTokens("k1");
+        published.add(oldKey);
+        JwtService jwt = verifier(Duration.ZERO);
+        jwt.verify(oldKey.issue(UUID.randomUUID().toString(), "USER"));
+
+        TestTokens newKey = new TestTokens("k2");
+        published.add(newKey);
+
+        assertNotNull(jwt.verify(newKey.issue(UUID.randomUUID().toString(), "USER")));
+        assertNotNull(jwt.verify(oldKey.issue(UUID.randomUUID().toString(), "USER")));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void verify_RepeatedUnknownKids_ShouldBeRateLimited() {
+        published.add(new TestTokens("k1"));
+        JwtService jwt = verifier(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            String forged = new TestTokens("forjado-" + i).issue(UUID.randomUUID().toString(), "ADMIN");
+            assertThrows(JwtException.class, () -> jwt.verify(forged));
+        }
+
+        assertEquals(1, fetches.get());
+    }
+}
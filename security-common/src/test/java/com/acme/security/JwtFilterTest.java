@@ -0,0 +1,104 @@
+package com.acme.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Testes unitários para JwtFilter e IdentityHeaderVerifier
+ */
+class JwtFilterTest {
+
+    private final TestTokens tokens = new TestTokens("k1");
+    private final JwtService jwt = tokens.verifier(100);
+    private final byte[] identityKey = "chave-de-teste-identity-headers".getBytes(StandardCharsets.UTF_8);
+    private final IdentityHeaderVerifier identityHeaders = new IdentityHeaderVerifier(identityKey);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest gatewayRequest(String user, String role, long exp, String signature) {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader(IdentityHeaderKeys.USER, user);
+        req.addHeader(IdentityHeaderKeys.ROLE, role);
+        req.addHeader(IdentityHeaderKeys.EXPIRES, String.valueOf(exp));
+        req.addHeader(IdentityHeaderKeys.SIGNATURE, signature);
+        return req;
+    }
+
+    @Test
+    void doFilter_BearerToken_ShouldSetPrincipal() throws Exception {
+        UUID userId = UUID.randomUUID();
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("Authorization", "Bearer " + tokens.issue(userId.toString(), "USER"));
+
+        new JwtFilter(jwt, identityHeaders, false).doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(userId.toString(), authentication.getName());
+        assertEquals(userId, ((AuthPrincipal) authentication.getPrincipal()).userId());
+    }
+
+    @Test
+    void doFilter_InvalidBearerWhenRejecting_ShouldReturn401() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("Authorization", "Bearer invalido");
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new JwtFilter(jwt, identityHeaders, true).doFilter(req, res, chain);
+
+        assertEquals(401, res.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_InvalidBearerWhenLenient_ShouldContinueAnonymous() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("Authorization", "Bearer invalido");
+        MockFilterChain chain = new MockFilterChain();
+
+        new JwtFilter(jwt, identityHeaders, false).doFilter(req, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_SignedGatewayHeaders_ShouldSetPrincipal() throws Exception {
+        long exp = System.currentTimeMillis() / 1000 + 300;
+        var req = gatewayRequest("user-1", "ADMIN", exp, IdentityHeaderKeys.sign(identityKey, "user-1", "ADMIN", exp));
+
+        new JwtFilter(jwt, identityHeaders, true).doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+
+        var principal = (AuthPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals("user-1", principal.subject());
+        assertTrue(principal.isAdmin());
+    }
+
+    @Test
+    void verify_TamperedRole_ShouldReturnNull() {
+        long exp = System.currentTimeMillis() / 1000 + 300;
+        var req = gatewayRequest("user-1", "ADMIN", exp, IdentityHeaderKeys.sign(identityKey, "user-1", "USER", exp));
+
+        assertNull(identityHeaders.verify(req));
+    }
+
+    @Test
+    void verify_Expired_ShouldReturnNull() {
+        long exp = System.currentTimeMillis() / 1000 - 1;
+        var req = gatewayRequest("user-1", "USER", exp, IdentityHeaderKeys.sign(identityKey, "user-1", "USER", exp));
+
+        assertNull(identityHeaders.verify(req));
+    }
+}
@@ -0,0 +1,89 @@
+package com.acme.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Testes unitários para JwtService e AuthPrincipal
+ */
+class JwtServiceTest {
+
+    private final TestTokens tokens = new TestTokens("k1");
+    private final JwtService jwt = tokens.verifier(2);
+
+    @Test
+    void verify_ValidToken_ShouldReturnTypedPrincipal() {
+        UUID userId = UUID.randomUUID();
+        String token = tokens.issue(userId.toString(), "admin");
+
+        AuthPrincipal principal = jwt.verify(token);
+
+        assertEquals(userId, principal.userId());
+        assertEquals("ADMIN", principal.role());
+        assertTrue(principal.isAdmin());
+        assertEquals("ROLE_ADMIN", principal.authorities().get(0).getAuthority());
+    }
+
+    @Test
+    void verify_SameToken_ShouldHitCache() {
+        String token = tokens.issue(UUID.randomUUID().toString(), "USER");
+
+        AuthPrincipal first = jwt.verify(token);
+        AuthPrincipal second = jwt.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwt.cachedTokens());
+    }
+
+    @Test
+    void verify_CacheFull_ShouldStayBounded() {
+        for (int i = 0; i < 5; i++) {
+            jwt.verify(tokens.issue(UUID.randomUUID().toString(), "USER"));
+        }
+
+        assertTrue(jwt.cachedTokens() <= 2);
+    }
+
+    @Test
+    void verify_CacheFull_ShouldEvictOneTokenInsteadOfClearing() {
+        // Given
+        jwt.verify(tokens.issue(UUID.randomUUID().toString(), "USER"));
+        jwt.verify(tokens.issue(UUID.randomUUID().toString(), "USER"));
+
+        // When
+        jwt.verify(tokens.issue(UUID.randomUUID().toString(), "USER"));
+
+        // Then
+        assertEquals(2, jwt.cachedTokens());
+    }
+
+    @Test
+    void verify_WrongAudience_ShouldThrow() {
+        String token = tokens.issue(UUID.randomUUID().toString(), "USER", "outra");
+
+        assertThrows(JwtException.class, () -> jwt.verify(token));
+        assertEquals(0, jwt.cachedTokens());
+    }
+
+    @Test
+    void verify_SignedByUnknownKey_ShouldThrow() {
+        String token = new TestTokens("k1").issue(UUID.randomUUID().toString(), "USER");
+
+        assertThrows(JwtException.class, () -> jwt.verify(token));
+    }
+
+    @Test
+    void of_NonUuidSubjectAndPrefixedRole_ShouldNormalize() {
+        AuthPrincipal principal = AuthPrincipal.of("service-account", "role_operator", Long.MAX_VALUE);
+
+        assertNull(principal.userId());
+        assertEquals("OPERATOR", principal.role());
+        assertFalse(principal.isAdmin());
+        assertEquals("ROLE_OPERATOR", principal.authorities().get(0).getAuthority());
+    }
+}
@@ -0,0 +1,60 @@
+package com.acme.security;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+
+/**
+ * Emissor ES256 de testes, no lugar do auth-service.
+ */
+public class TestTokens {
+
+    public static final String ISSUER = "issuer";
+    public static final String AUDIENCE = "audience";
+
+    private final String kid;
+    private final KeyPair keyPair;
+
+    public TestTokens(String kid) {
+        this.kid = kid;
+        this.keyPair = Jwts.SIG.ES256.keyPair().build();
+    }
+
+    public String kid() {
+        return kid;
+    }
+
+    public KeyPair keyPair() {
+        return keyPair;
+    }
+
+    public String issue(String subject, String role) {
+        return issue(subject, role, AUDIENCE);
+    }
+
+    public String issue(String subject, String role, String audience) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject(subject)
+                .issuer(ISSUER)
+                .audience().add(audience).and()
+                .claim("role", role)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(900)))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+    }
+
+    /** JwtService que conhece apenas a chave pública deste emissor. */
+    public JwtService verifier(int maxCachedTokens) {
+        Map<String, PublicKey> keys = Map.of(kid, keyPair.getPublic());
+        return new JwtService(header -> keys.get(((ProtectedHeader) header).getKeyId()),
+                ISSUER, AUDIENCE, maxCachedTokens);
+    }
+}
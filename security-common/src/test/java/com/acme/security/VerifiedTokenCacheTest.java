@@ -0,0 +1,75 @@
+package com.acme.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes unitários para VerifiedTokenCache
+ */
+class VerifiedTokenCacheTest {
+
+    private static VerifiedTokenCache<Long> cache(int maxEntries) {
+        return new VerifiedTokenCache<>(maxEntries, exp -> exp);
+    }
+
+    @Test
+    void put_OverCapacity_ShouldEvictOnlyLeastRecentlyUsed() {
+        // Given
+        VerifiedTokenCache<Long> cache = cache(3);
+        cache.put("a", 1_000L);
+        cache.put("b", 1_000L);
+        cache.put("c", 1_000L);
+        cache.get("a", 0);
+
+        // When
+        cache.put("d", 1_000L);
+
+        // Then: só "b" sai; o cache não é esvaziado
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b", 0));
+        assertNotNull(cache.get("a", 0));
+        assertNotNull(cache.get("c", 0));
+        assertNotNull(cache.get("d", 0));
+    }
+
+    @Test
+    void put_ManyTokens_ShouldStayWithinLimitAndKeepRecentOnes() {
+        // Given
+        VerifiedTokenCache<Long> cache = cache(2_048);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("token-" + i, 1_000L);
+        }
+
+        // Then
+        assertTrue(cache.size() <= 2_048);
+        assertTrue(cache.size() > 1_024);
+        assertNotNull(cache.get("token-9999", 0));
+    }
+
+    @Test
+    void get_Expired_ShouldReturnNullAndRemove() {
+        // Given
+        VerifiedTokenCache<Long> cache = cache(10);
+        cache.put("a", 1_000L);
+
+        // When / Then
+        assertNull(cache.get("a", 1_000L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_ZeroCapacity_ShouldDisableCache() {
+        // Given
+        VerifiedTokenCache<Long> cache = cache(0);
+
+        // When
+        cache.put("a", 1_000L);
+
+        // Then
+        assertNull(cache.get("a", 0));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.acme.security.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.acme.security.AuthPrincipal;
+import com.acme.security.AuthPrincipalAuthentication;
+import com.acme.security.JwtService;
+import com.acme.security.TestTokens;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Custo por requisição de autenticar um Bearer token e obter (userId, isAdmin) no controller:
+ * cópia antiga por serviço (HS256, parser novo a cada chamada, stream de authorities) vs. security-common
+ * (ES256 via kid). Verificar ES256 custa bem mais que HS256, por isso o cache de tokens verificados.
+ * Rodar com: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.acme.security.bench.JwtVerificationBenchmark
+ * (acrescente -prof gc em {@link #main} para ver bytes alocados por operação)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private SecretKey key;
+    private String legacyToken;
+    private JwtService shared;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET);
+        legacyToken = Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .issuer("issuer")
+                .audience().add("audience").and()
+                .claim("role", "ADMIN")
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+
+        TestTokens tokens = new TestTokens("bench");
+        shared = tokens.verifier(JwtService.DEFAULT_CACHE_SIZE);
+        token = tokens.issue(UUID.randomUUID().toString(), "ADMIN");
+    }
+
+    @Benchmark
+    public void legacyPerServiceCopy(Blackhole bh) {
+        var claims = Jwts.parser().requireIssuer("issuer").requireAudience("audience").verifyWith(key).build()
+                .parseSignedClaims(legacyToken).getPayload();
+        var role = String.valueOf(claims.get("role"));
+        var authority = role.toUpperCase().startsWith("ROLE_") ? role.toUpperCase() : "ROLE_" + role.toUpperCase();
+        var authentication = new UsernamePasswordAuthenticationToken(
+                claims.getSubject(), null, List.of(new SimpleGrantedAuthority(authority)));
+
+        bh.consume(UUID.fromString(authentication.getName()));
+        bh.consume(authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(r -> r.equals("ROLE_ADMIN")));
+    }
+
+    @Benchmark
+    public void sharedUncachedVerify(Blackhole bh) {
+        var claims = shared.parse(token).getPayload();
+        AuthPrincipal principal = AuthPrincipal.of(claims.getSubject(), String.valueOf(claims.get("role")),
+                claims.getExpiration().getTime());
+        var authentication = new AuthPrincipalAuthentication(principal);
+
+        bh.consume(authentication.getPrincipal().userId());
+        bh.consume(authentication.getPrincipal().isAdmin());
+    }
+
+    @Benchmark
+    public void sharedCachedVerify(Blackhole bh) {
+        var authentication = new AuthPrincipalAuthentication(shared.verify(token));
+
+        bh.consume(authentication.getPrincipal().userId());
+        bh.consume(authentication.getPrincipal().isAdmin());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,42 @@
+package com.acme.user.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.acme.common.PooledHttpClients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Transporte do CardClient e do AuthClient (ver {@link PooledHttpClients}): um serviço lento vira erro
+ * rápido em vez de prender threads do Tomcat.
+ */
+@Configuration
+public class HttpClientConfig {
+
+  @Bean
+  HttpComponentsClientHttpRequestFactory cardServiceRequestFactory(
+      MeterRegistry meters,
+      @Value("${services.card.http.max-connections:50}") int maxConnections,
+      @Value("${services.card.http.connect-timeout:1s}") Duration connectTimeout,
+      @Value("${services.card.http.pool-timeout:500ms}") Duration poolTimeout,
+      @Value("${services.card.http.read-timeout:2s}") Duration readTimeout) {
+    return PooledHttpClients.requestFactory(
+        meters, "card-service", maxConnections, connectTimeout, poolTimeout, readTimeout);
+  }
+
+  @Bean
+  HttpComponentsClientHttpRequestFactory authServiceRequestFactory(
+      MeterRegistry meters,
+      @Value("${services.auth.http.max-connections:10}") int maxConnections,
+      @Value("${services.auth.http.connect-timeout:1s}") Duration connectTimeout,
+      @Value("${services.auth.http.pool-timeout:500ms}") Duration poolTimeout,
+      @Value("${services.auth.http.read-timeout:2s}") Duration readTimeout) {
+    return PooledHttpClients.requestFactory(
+        meters, "auth-service", maxConnections, connectTimeout, poolTimeout, readTimeout);
+  }
+}
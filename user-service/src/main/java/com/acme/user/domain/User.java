@@ -1,24 +1,34 @@
 package com.acme.user.domain;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import com.acme.common.UuidV7;
+
 @Entity 
 @Table(
-  name="users" 
+  name="users",
+  indexes = {
+    @Index(name="idx_users_created_at_id", columnList="created_at, id")
+  }
   )
 
 public class User {
   
-  @Id private UUID id = UUID.randomUUID();
+  @Id private UUID id = UuidV7.randomUUID();   // ordenado por tempo: inserts no fim do índice
   @Column(nullable=false, length=120) private String name;
   @Column(nullable=false, unique=true, length=160) private String email;
   @Column(name="password_hash", nullable=false, length=200) private String passwordHash;
   @Column(nullable=false, length=30) private String role = "ROLE_USER";
+  // Precisão de segundos, igual à coluna TIMESTAMP: o cursor de paginação usa este valor
+  @Column(name="created_at", nullable=false, updatable=false) private Instant createdAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
 
   protected User(){}
   public static User create(String name, String email, String passwordHash, String role){
@@ -44,6 +54,10 @@ public class User {
   public String getRole(){
     return role;
   }
+
+  public Instant getCreatedAt(){
+    return createdAt;
+  }
   public void rename(String n){
     this.name=n;
   } 
@@ -0,0 +1,9 @@
+package com.acme.user.repository;
+
+import java.util.UUID;
+
+/**
+ * Só o que o login precisa: sem carregar a entidade inteira nem colocá-la no contexto de persistência.
+ */
+public record UserCredentials(UUID id, String name, String email, String passwordHash, String role) {
+}
@@ -1,12 +1,37 @@
 package com.acme.user.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.acme.user.domain.User;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
   Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+  @Query("SELECT new com.acme.user.repository.UserCredentials(u.id, u.name, u.email, u.passwordHash, u.role) "
+      + "FROM User u WHERE u.email = :email")
+  Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+  // Rehash pós-login: só troca se o hash ainda for o verificado (não atropela troca de senha concorrente)
+  @Transactional
+  @Modifying
+  @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+  int updatePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+  // Paginação por cursor (keyset) sobre o índice idx_users_created_at_id
+  @Query("SELECT u FROM User u ORDER BY u.createdAt, u.id")
+  List<User> findFirstPage(Limit limit);
+
+  @Query("SELECT u FROM User u WHERE u.createdAt >= :createdAt "
+      + "AND (u.createdAt > :createdAt OR u.id > :id) ORDER BY u.createdAt, u.id")
+  List<User> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+}
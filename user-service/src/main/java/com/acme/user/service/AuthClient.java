@@ -0,0 +1,46 @@
+package com.acme.user.service;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Chamadas internas ao auth-service. Hoje só o encerramento de sessões: os refresh tokens copiam
+ * usuário e papel a cada renovação, então sem isso uma sessão sobreviveria à troca de senha ou à remoção.
+ */
+@Service
+public class AuthClient {
+
+    private final RestClient restClient;
+    private final String internalSecret;
+
+    public AuthClient(
+            @Value("${services.auth.base-url:http://localhost:8081}") String baseUrl,
+            @Value("${internal.secret:change-me}") String internalSecret,
+            @Qualifier("authServiceRequestFactory") ClientHttpRequestFactory authServiceRequestFactory) {
+        this.restClient = RestClient.builder()
+            .baseUrl(baseUrl)
+            .requestFactory(authServiceRequestFactory)
+            .build();
+        this.internalSecret = internalSecret;
+    }
+
+    /** @throws AuthServiceUnavailableException se o auth-service não confirmar a revogação */
+    public void revokeSessions(UUID userId) {
+        try {
+            restClient.delete()
+                .uri("/internal/auth/users/{userId}/sessions", userId)
+                .header("X-Internal-Secret", internalSecret)
+                .retrieve()
+                .toBodilessEntity();
+        } catch (RestClientException e) {
+            throw new AuthServiceUnavailableException(
+                "Não foi possível encerrar as sessões do usuário; tente novamente", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.acme.user.service;
+
+/**
+ * auth-service fora do ar ou lento além do prazo ao encerrar sessões: a alteração não é aplicada.
+ */
+public class AuthServiceUnavailableException extends RuntimeException {
+
+    public AuthServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,54 +1,212 @@
 package com.acme.user.service;
 
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
 import com.acme.user.web.dto.UserDTOs.CardSummary;
 
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cliente do card-service protegido por disjuntor ({@link CircuitBreaker}) e bulkhead (limite de chamadas
+ * simultâneas). Com o card-service fora, lento ou saturado as chamadas falham na hora com
+ * {@link CardServiceUnavailableException}; as leituras deixam em {@link #lastKnownCards} a última lista
+ * conhecida de cada usuário (LRU limitado), que o {@link UserService} serve marcada como desatualizada.
+ */
 @Service
 public class CardClient {
     
     private static final Logger log = LoggerFactory.getLogger(CardClient.class);
+
+    private static final ParameterizedTypeReference<Map<UUID, List<CardSummary>>> CARDS_BY_USER =
+        new ParameterizedTypeReference<>() {};
     
     private final RestClient restClient;
     private final String internalSecret;
+    private final CircuitBreaker breaker;
+    private final Semaphore bulkhead;
+    private final Map<UUID, List<CardSummary>> lastKnown;
+    private final ThreadPoolExecutor asyncExecutor;
+    private final long asyncDeadlineMs;
     
+    @Autowired
     public CardClient(
             @Value("${services.card.base-url:http://localhost:8083}") String baseUrl,
-            @Value("${internal.secret:change-me}") String internalSecret) {
+            @Value("${internal.secret:change-me}") String internalSecret,
+            @Qualifier("cardServiceRequestFactory") ClientHttpRequestFactory cardServiceRequestFactory,
+            @Value("${services.card.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${services.card.breaker.open-duration:10s}") Duration openDuration,
+            @Value("${services.card.bulkhead.max-concurrent:20}") int maxConcurrent,
+            @Value("${services.card.stale-cache-size:10000}") int staleCacheSize,
+            @Value("${services.card.async-deadline:2s}") Duration asyncDeadline) {
         this.restClient = RestClient.builder()
             .baseUrl(baseUrl)
+            .requestFactory(cardServiceRequestFactory)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
         this.internalSecret = internalSecret;
+        this.breaker = new CircuitBreaker("card-service", failureThreshold, openDuration, System::currentTimeMillis);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.lastKnown = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, List<CardSummary>> eldest) {
+                return size() > staleCacheSize;
+            }
+        });
+        // Threads do bulkhead: chamadas assíncronas além do limite esperam pouco na fila ou são recusadas
+        AtomicInteger seq = new AtomicInteger();
+        this.asyncExecutor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 30L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(maxConcurrent),
+            r -> {
+                Thread t = new Thread(r, "card-client-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.asyncExecutor.allowCoreThreadTimeOut(true);
+        this.asyncDeadlineMs = asyncDeadline.toMillis();
+    }
+
+    public CardClient(String baseUrl, String internalSecret, ClientHttpRequestFactory requestFactory) {
+        this(baseUrl, internalSecret, requestFactory, 5, Duration.ofSeconds(10), 20, 10_000, Duration.ofSeconds(2));
     }
     
+    /** @throws CardServiceUnavailableException se o card-service não responder (ou o circuito estiver aberto) */
     public List<CardSummary> getUserCards(UUID userId) {
+        List<CardSummary> result = fetchUserCards(userId);
+        lastKnown.put(userId, result);
+        return result;
+    }
+
+    private List<CardSummary> fetchUserCards(UUID userId) {
+        log.debug("Buscando cartões do usuário: {}", userId);
+
+        CardSummary[] cards = call(() -> restClient.get()
+            .uri("/internal/cards/user/{userId}", userId)
+            .header("X-Internal-Secret", internalSecret)
+            .retrieve()
+            .body(CardSummary[].class));
+
+        return cards != null ? List.of(cards) : Collections.emptyList();
+    }
+    
+    /**
+     * {@link #getUserCards} sem bloquear quem chama, para rodar junto com a leitura do usuário no banco.
+     * O prazo ({@code services.card.async-deadline}) conta a partir desta chamada; qualquer falha, inclusive
+     * prazo estourado, completa o future com {@link CardServiceUnavailableException}.
+     *
+     * <p>Cancelar o future (usuário inexistente) tira a tarefa da fila se ela ainda não começou e interrompe a
+     * thread se já começou. Uma leitura de socket em andamento não é interrompível e termina no read-timeout.
+     * Em nenhum dos casos a resposta vai para o cache da última lista. Prazo estourado só descarta a tarefa
+     * que ainda está na fila; a que já está em andamento termina e atualiza o cache.
+     */
+    public CompletableFuture<List<CardSummary>> getUserCardsAsync(UUID userId) {
+        CompletableFuture<List<CardSummary>> cards = new CompletableFuture<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Future<?> task;
         try {
-            log.debug("Buscando cartões do usuário: {}", userId);
-            
-            CardSummary[] cards = restClient.get()
-                .uri("/internal/cards/user/{userId}", userId)
-                .header("X-Internal-Secret", internalSecret)
-                .retrieve()
-                .body(CardSummary[].class);
-                
-            return cards != null ? List.of(cards) : Collections.emptyList();
-            
-        } catch (RestClientException e) {
-            log.error("Erro ao buscar cartões do usuário {}: {}", userId, e.getMessage());
-            return Collections.emptyList();
+            task = asyncExecutor.submit(() -> {
+                try {
+                    List<CardSummary> result = fetchUserCards(userId);
+                    synchronized (lastKnown) {
+                        if (!cancelled.get()) {
+                            lastKnown.put(userId, result);
+                        }
+                    }
+                    cards.complete(result);
+                } catch (RuntimeException e) {
+                    cards.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                new CardServiceUnavailableException("card-service saturado (fila assíncrona cheia)"));
         }
+        CompletableFuture<List<CardSummary>> result = cards
+            .orTimeout(asyncDeadlineMs, TimeUnit.MILLISECONDS)
+            .exceptionallyCompose(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                return CompletableFuture.failedFuture(cause instanceof CardServiceUnavailableException
+                    ? cause
+                    : new CardServiceUnavailableException("card-service sem resposta no prazo", cause));
+            });
+        result.whenComplete((r, e) -> {
+            if (e instanceof CancellationException) {
+                synchronized (lastKnown) {
+                    cancelled.set(true);
+                    lastKnown.remove(userId);
+                }
+                task.cancel(true);
+                asyncExecutor.remove((Runnable) task);   // libera a vaga da fila
+            } else if (e != null && task.cancel(false)) {
+                asyncExecutor.remove((Runnable) task);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncExecutor.shutdownNow();
+    }
+    
+    /** @throws CardServiceUnavailableException se o card-service não responder (ou o circuito estiver aberto) */
+    public Map<UUID, List<CardSummary>> getCardsByUserIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        log.debug("Buscando cartões de {} usuários em lote", userIds.size());
+
+        Map<UUID, List<CardSummary>> cards = call(() -> restClient.post()
+            .uri("/internal/cards/users/batch")
+            .header("X-Internal-Secret", internalSecret)
+            .body(userIds)
+            .retrieve()
+            .body(CARDS_BY_USER));
+
+        Map<UUID, List<CardSummary>> result = cards != null ? cards : Collections.emptyMap();
+        for (UUID userId : userIds) {
+            lastKnown.put(userId, result.getOrDefault(userId, List.of()));
+        }
+        return result;
+    }
+
+    /** Última lista lida com sucesso para o usuário; vazio se nunca lida ou já descartada. */
+    public Optional<List<CardSummary>> lastKnownCards(UUID userId) {
+        return Optional.ofNullable(lastKnown.get(userId));
     }
     
     public CardSummary createCard(UUID userId, String numeroCartao, String nome, String tipoCartao) {
@@ -57,12 +215,14 @@ public class CardClient {
             
             var request = new CreateCardRequest(userId, numeroCartao, nome, tipoCartao);
             
-            return restClient.post()
+            CardSummary created = call(() -> restClient.post()
                 .uri("/internal/cards")
                 .header("X-Internal-Secret", internalSecret)
                 .body(request)
                 .retrieve()
-                .body(CardSummary.class);
+                .body(CardSummary.class));
+            lastKnown.remove(userId);
+            return created;
                 
         } catch (RestClientException e) {
             log.error("Erro ao criar cartão para usuário {}: {}", userId, e.getMessage());
@@ -74,11 +234,12 @@ public class CardClient {
         try {
             log.debug("Removendo cartão {} do usuário: {}", cardId, userId);
             
-            restClient.delete()
+            call(() -> restClient.delete()
                 .uri("/internal/cards/{cardId}/user/{userId}", cardId, userId)
                 .header("X-Internal-Secret", internalSecret)
                 .retrieve()
-                .toBodilessEntity();
+                .toBodilessEntity());
+            lastKnown.remove(userId);
                 
         } catch (RestClientException e) {
             log.error("Erro ao remover cartão {} do usuário {}: {}", cardId, userId, e.getMessage());
@@ -92,12 +253,13 @@ public class CardClient {
             
             String endpoint = activate ? "/internal/cards/{cardId}/activate" : "/internal/cards/{cardId}/deactivate";
             
-            restClient.put()
+            call(() -> restClient.put()
                 .uri(endpoint, cardId)
                 .header("X-Internal-Secret", internalSecret)
                 .header("X-User-Id", userId.toString())
                 .retrieve()
-                .toBodilessEntity();
+                .toBodilessEntity());
+            lastKnown.remove(userId);
                 
         } catch (RestClientException e) {
             log.error("Erro ao {} cartão {} do usuário {}: {}", 
@@ -110,19 +272,71 @@ public class CardClient {
     try {
         var req = new UpdateCardRequest(nome, status);
 
-        return restClient.put()
+        CardSummary updated = call(() -> restClient.put()
             .uri("/internal/cards/{cardId}", cardId)
             .header("X-Internal-Secret", internalSecret)
             .header("X-User-Id", userId.toString())
             .body(req)
             .retrieve()
-            .body(CardSummary.class);
+            .body(CardSummary.class));
+        lastKnown.remove(userId);
+        return updated;
     } catch (RestClientException e) {
         log.error("Erro ao atualizar cartão {} do usuário {}: {}", cardId, userId, e.getMessage());
         throw new RuntimeException("Erro ao atualizar cartão: " + e.getMessage());
     }
 }
 
+    /**
+     * Bulkhead e disjuntor em volta de uma chamada. Resposta 4xx é erro do pedido, não do card-service:
+     * sai como veio e conta como sucesso para o disjuntor. Falha de rede, prazo estourado e 5xx abrem o circuito;
+     * chamada interrompida por cancelamento não conta.
+     */
+    private <T> T call(Supplier<T> remote) {
+        if (!bulkhead.tryAcquire()) {
+            throw new CardServiceUnavailableException("card-service saturado (limite de chamadas simultâneas)");
+        }
+        try {
+            if (!breaker.tryAcquire()) {
+                throw new CardServiceUnavailableException("card-service indisponível (circuito aberto)");
+            }
+            try {
+                T result = remote.get();
+                breaker.onSuccess();
+                return result;
+            } catch (HttpClientErrorException e) {
+                breaker.onSuccess();
+                throw e;
+            } catch (RestClientException e) {
+                onFailure(e);
+                throw new CardServiceUnavailableException("card-service indisponível: " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                onFailure(e);
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // Chamada interrompida pelo cancelamento em getUserCardsAsync não diz nada sobre a saúde do card-service
+    private void onFailure(RuntimeException e) {
+        if (Thread.currentThread().isInterrupted() || interruptedBy(e)) {
+            breaker.onAbandoned();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    private static boolean interruptedBy(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     static class UpdateCardRequest {
         public String nome;
         public Boolean status;
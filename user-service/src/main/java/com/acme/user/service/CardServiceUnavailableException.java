@@ -0,0 +1,15 @@
+package com.acme.user.service;
+
+/**
+ * card-service fora do ar, lento além do prazo, com o circuito aberto ou com o bulkhead cheio.
+ */
+public class CardServiceUnavailableException extends RuntimeException {
+
+    public CardServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public CardServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
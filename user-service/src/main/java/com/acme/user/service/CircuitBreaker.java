@@ -0,0 +1,81 @@
+package com.acme.user.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disjuntor por falhas consecutivas. Fechado: tudo passa. Depois de {@code failureThreshold} falhas
+ * seguidas abre e recusa na hora durante {@code openDuration}; passado esse tempo deixa uma única
+ * chamada de teste (meio-aberto): sucesso fecha, falha reabre.
+ */
+final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openUntil = 0;   // 0 = fechado
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    State state() {
+        long until = openUntil;
+        if (until == 0) return State.CLOSED;
+        return clock.getAsLong() < until ? State.OPEN : State.HALF_OPEN;
+    }
+
+    /** false = recusar sem chamar o serviço remoto. */
+    boolean tryAcquire() {
+        return switch (state()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> probeInFlight.compareAndSet(false, true);
+        };
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openUntil != 0) {
+            openUntil = 0;
+            probeInFlight.set(false);
+            log.info("Circuito {} fechado", name);
+        }
+    }
+
+    /** Chamada abandonada por quem pediu (cancelamento): não conta como sucesso nem como falha. */
+    void onAbandoned() {
+        if (openUntil != 0) {
+            probeInFlight.set(false);
+        }
+    }
+
+    void onFailure() {
+        if (openUntil != 0) {
+            // teste do meio-aberto falhou (ou atrasada de antes de abrir): mais um período aberto
+            openUntil = clock.getAsLong() + openMillis;
+            probeInFlight.set(false);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntil = clock.getAsLong() + openMillis;
+            log.warn("Circuito {} aberto por {} ms após {} falhas seguidas", name, openMillis, failureThreshold);
+        }
+    }
+}
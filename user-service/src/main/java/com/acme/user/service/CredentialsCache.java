@@ -0,0 +1,105 @@
+package com.acme.user.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.acme.user.repository.UserCredentials;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache LRU limitado de email normalizado para {@link UserCredentials}, na frente da consulta do login.
+ * O {@link UserService} invalida a entrada depois de gravar email, senha, papel ou remoção; o TTL cobre
+ * gravações feitas por outras instâncias. Emails inexistentes não são guardados.
+ *
+ * <p>Uma leitura do banco que começou antes de uma invalidação não é guardada: senão os dados antigos
+ * voltariam ao cache logo depois de removidos.
+ */
+@Component
+public class CredentialsCache {
+
+    private record Entry(UserCredentials credentials, long expiresAt) {}
+
+    private final Map<String, Entry> entries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Counter hits;
+    private final Counter misses;
+    private long invalidations = 0;   // protegido pelo lock de entries
+
+    @Autowired
+    public CredentialsCache(
+            MeterRegistry meters,
+            @Value("${credentials.cache.max-size:10000}") int maxSize,
+            @Value("${credentials.cache.ttl:60s}") Duration ttl) {
+        this(meters, maxSize, ttl, System::currentTimeMillis);
+    }
+
+    CredentialsCache(MeterRegistry meters, int maxSize, Duration ttl, LongSupplier clock) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.hits = Counter.builder("users.credentials.cache").tag("result", "hit").register(meters);
+        this.misses = Counter.builder("users.credentials.cache").tag("result", "miss").register(meters);
+        Gauge.builder("users.credentials.cache.size", this, CredentialsCache::size).register(meters);
+    }
+
+    static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<UserCredentials> get(String email, Function<String, Optional<UserCredentials>> loader) {
+        String key = normalize(email);
+        long stamp;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > clock.getAsLong()) {
+                hits.increment();
+                return Optional.of(entry.credentials());
+            }
+            stamp = invalidations;
+        }
+        misses.increment();
+
+        // consulta fora do lock: um email lento não segura os demais
+        Optional<UserCredentials> loaded = loader.apply(email);
+        loaded.ifPresent(credentials -> {
+            synchronized (entries) {
+                if (invalidations == stamp) {
+                    entries.put(key, new Entry(credentials, clock.getAsLong() + ttlMillis));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        String key = normalize(email);
+        synchronized (entries) {
+            invalidations++;
+            entries.remove(key);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
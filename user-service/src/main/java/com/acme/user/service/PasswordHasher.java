@@ -0,0 +1,188 @@
+package com.acme.user.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * bcrypt fora das threads do Tomcat: pool fixo com fila limitada. Com o pool e a fila cheios a chamada
+ * falha na hora com {@link RejectedExecutionException} (503), em vez de prender mais threads de requisição
+ * e deixar endpoints baratos sem atendimento num pico de logins.
+ *
+ * <p>O custo do bcrypt é calibrado na subida para caber em {@code password.hasher.target-ms} no hardware
+ * atual (ou fixado por {@code password.hasher.cost}). Algoritmo e custo já vão no próprio hash
+ * ({@code $2a$12$...}); {@link #needsRehash} compara com o custo em vigor, com folga de +1 para cima:
+ * nós calibrados em máquinas um pouco diferentes não ficam refazendo o hash um do outro a cada login.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    static final int MIN_COST = 10;   // piso: abaixo disso o hash é considerado fraco em qualquer máquina
+    static final int MAX_COST = 16;
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$[./A-Za-z0-9]{53}$");
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            MeterRegistry meters,
+            @Value("${password.hasher.threads:0}") int threads,
+            @Value("${password.hasher.queue-capacity:64}") int queueCapacity,
+            @Value("${password.hasher.timeout-ms:5000}") long timeoutMs,
+            @Value("${password.hasher.cost:0}") int cost,
+            @Value("${password.hasher.target-ms:250}") long targetMs) {
+        this.cost = cost > 0 ? cost : calibrate(targetMs);
+        this.encoder = new BCryptPasswordEncoder(this.cost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+
+        this.encodeTimer = Timer.builder("password.hasher.duration").tag("op", "encode")
+                .description("Tempo de bcrypt, sem a espera na fila").register(meters);
+        this.verifyTimer = Timer.builder("password.hasher.duration").tag("op", "verify")
+                .description("Tempo de bcrypt, sem a espera na fila").register(meters);
+        this.rejected = Counter.builder("password.hasher.rejected")
+                .description("Pedidos recusados com pool e fila cheios").register(meters);
+        Gauge.builder("password.hasher.queue.depth", executor, e -> e.getQueue().size()).register(meters);
+        Gauge.builder("password.hasher.active", executor, ThreadPoolExecutor::getActiveCount).register(meters);
+        Gauge.builder("password.hasher.cost", () -> this.cost).register(meters);
+
+        log.info("PasswordHasher: {} thread(s), fila de {}, custo bcrypt {}", poolSize, queueCapacity, this.cost);
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * Hash de outro algoritmo, mais fraco (custo menor) ou caro demais (mais de um acima do calibrado):
+     * deve ser refeito no próximo login bem-sucedido.
+     */
+    public boolean needsRehash(String hash) {
+        if (hash == null) {
+            return false;
+        }
+        Matcher m = BCRYPT.matcher(hash);
+        if (!m.matches()) {
+            return true;
+        }
+        int hashCost = Integer.parseInt(m.group(1));
+        return hashCost < cost || hashCost > cost + 1;
+    }
+
+    /** @throws RejectedExecutionException se o pool estiver saturado */
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> encoder.encode(rawPassword)));
+    }
+
+    /** @throws RejectedExecutionException se o pool estiver saturado */
+    public boolean matches(String rawPassword, String hash) {
+        if (rawPassword == null || hash == null || hash.isBlank()) {
+            return false;
+        }
+        return run(() -> verifyTimer.recordCallable(() -> encoder.matches(rawPassword, hash)));
+    }
+
+    /**
+     * Igual a {@link #encode}, mas sem esperar: usado no rehash pós-login, que não deve atrasar a resposta.
+     * Com o pool saturado devolve um future já falho.
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encodeTimer.record(() -> encoder.encode(rawPassword)), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Maior custo cujo bcrypt cabe em {@code targetMs}. Mede o custo mínimo e extrapola (cada +1 dobra o
+     * tempo), para a subida não pagar vários hashes caros.
+     */
+    static int calibrate(long targetMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        probe.encode("calibracao");   // aquecimento do JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibracao");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double ms = best / 1_000_000.0;
+        int cost = MIN_COST;
+        while (cost < MAX_COST && ms * 2 <= targetMs) {
+            cost++;
+            ms *= 2;
+        }
+        log.info("bcrypt calibrado: custo {} (~{} ms, alvo {} ms)", cost, Math.round(ms), targetMs);
+        return cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Servidor ocupado processando senhas; tente novamente");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("Tempo esgotado aguardando verificação de senha");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompido aguardando verificação de senha");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
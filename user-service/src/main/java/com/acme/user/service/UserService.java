@@ -1,17 +1,28 @@
 package com.acme.user.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.acme.user.domain.User;
+import com.acme.user.repository.UserCredentials;
 import com.acme.user.repository.UserRepository;
 import com.acme.user.web.UserMapper;
 import com.acme.user.web.dto.UserDTOs.AddCardToUserRequest;
@@ -19,17 +30,39 @@ import com.acme.user.web.dto.UserDTOs.CardSummary;
 import com.acme.user.web.dto.UserDTOs.ChangePasswordRequest;
 import com.acme.user.web.dto.UserDTOs.CreateUserRequest;
 import com.acme.user.web.dto.UserDTOs.UpdateUserRequest;
+import com.acme.user.web.dto.UserDTOs.UserPage;
 import com.acme.user.web.dto.UserDTOs.UserResponse;
 
+import jakarta.annotation.PreDestroy;
+
 
 @Service
 public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    // Mantido abaixo do limite do endpoint em lote do card-service
+    private static final int CARD_BATCH_SIZE = 500;
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository repository;
     private final CardClient cardClient;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate tx;
+    private final CredentialsCache credentialsCache;
+    private final AuthClient authClient;
+
+    // Grava o hash refeito fora das threads do bcrypt; fila cheia adia o rehash para o próximo login
+    private final ThreadPoolExecutor rehashWriter = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(256),
+            r -> {
+                Thread t = new Thread(r, "password-rehash-writer");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
 
     private String normalizeRole(String role) {
         if (role == null || role.isBlank())
@@ -37,26 +70,98 @@ public class UserService {
         return role.startsWith("ROLE_") ? role : "ROLE_" + role.toUpperCase();
     }
 
-    public UserService(UserRepository repository, CardClient cardClient) {
+    public UserService(UserRepository repository, CardClient cardClient, PasswordHasher passwordHasher,
+            TransactionTemplate tx, CredentialsCache credentialsCache, AuthClient authClient) {
         this.repository = repository;
         this.cardClient = cardClient;
+        this.passwordHasher = passwordHasher;
+        this.tx = tx;
+        this.credentialsCache = credentialsCache;
+        this.authClient = authClient;
+        this.rehashWriter.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rehashWriter.shutdownNow();
+    }
+
+    public UserPage getUsersPage(String cursor, int limit) {
+        return getUsersPage(cursor, limit, true);
+    }
+
+    public UserPage getUsersPage(String cursor, int limit, boolean withCards) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.debug("Listando usuários (cursor: {}, limite: {})", cursor, pageSize);
+
+        // Busca um item a mais só para saber se existe próxima página
+        List<User> users = findPage(cursor == null || cursor.isBlank() ? null : UserCursor.decode(cursor), pageSize + 1);
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext) {
+            users = users.subList(0, pageSize);
+        }
+
+        String nextCursor = hasNext ? UserCursor.of(users.get(users.size() - 1)).encode() : null;
+        return new UserPage(withCards ? mapToResponsesWithCards(users) : mapToResponses(users), nextCursor);
+    }
+
+    public void forEachUserPage(Consumer<List<UserResponse>> consumer) {
+        forEachUserPage(true, consumer);
+    }
+
+    public void forEachUserPage(boolean withCards, Consumer<List<UserResponse>> consumer) {
+        log.debug("Exportando todos os usuários em páginas de {}", CARD_BATCH_SIZE);
+
+        UserCursor cursor = null;
+        List<User> users;
+        do {
+            users = findPage(cursor, CARD_BATCH_SIZE);
+            if (users.isEmpty()) {
+                break;
+            }
+            consumer.accept(withCards ? mapToResponsesWithCards(users) : mapToResponses(users));
+            cursor = UserCursor.of(users.get(users.size() - 1));
+        } while (users.size() == CARD_BATCH_SIZE);
     }
 
-    public List<UserResponse> getAllUsers() {
-        log.debug("Listando todos os usuários");
-        return repository.findAll().stream()
-                .map(this::mapToResponseWithCards)
-                .toList();
+    private List<User> findPage(UserCursor after, int size) {
+        return after == null
+                ? repository.findFirstPage(Limit.of(size))
+                : repository.findPageAfter(after.createdAt(), after.id(), Limit.of(size));
     }
 
+    /**
+     * A busca de cartões só precisa do ID: começa antes da leitura no banco e as duas correm em paralelo,
+     * então a resposta leva o tempo da mais lenta e não a soma.
+     */
     public UserResponse getUserById(UUID id) {
+        return getUserById(id, true);
+    }
+
+    /** Sem {@code withCards} não há chamada ao card-service; {@code cards} fica nulo. */
+    public UserResponse getUserById(UUID id, boolean withCards) {
         log.debug("Buscando usuário por ID: {}", id);
-        User user = repository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado"));
-        return mapToResponseWithCards(user);
+        if (!withCards) {
+            return UserMapper.toResponse(repository.findById(id)
+                    .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado")));
+        }
+        CompletableFuture<List<CardSummary>> cards = cardClient.getUserCardsAsync(id);
+
+        User user;
+        try {
+            user = repository.findById(id)
+                    .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado"));
+        } catch (RuntimeException e) {
+            cards.cancel(true);
+            throw e;
+        }
+
+        UserResponse response = UserMapper.toResponse(user);
+        fillCards(response, id, () -> await(cards));
+        return response;
     }
 
-    @Transactional
+    // Sem transação envolvendo o método: bcrypt e a chamada ao card-service não seguram conexão do pool
     public UserResponse createUser(CreateUserRequest request, boolean isAdmin) {
         log.debug("Criando novo usuário: {}", request.email);
 
@@ -71,19 +176,43 @@ public class UserService {
         User user = User.create(
                 request.name,
                 request.email,
-                encoder.encode(request.password),
+                passwordHasher.encode(request.password),
                 isAdmin && request.role != null ? normalizeRole(request.role) : "ROLE_USER");
 
-        User savedUser = repository.save(user);
+        User savedUser = repository.save(user);   // transação própria e curta do repositório
         log.info("Usuário criado com sucesso: {} (ID: {})", savedUser.getEmail(), savedUser.getId());
 
-        return mapToResponseWithCards(savedUser);
+        // Usuário recém-criado não tem cartões: nada a perguntar ao card-service
+        UserResponse response = UserMapper.toResponse(savedUser);
+        response.cards = List.of();
+        response.cardsStale = false;
+        return response;
     }
 
-    @Transactional
     public UserResponse updateUser(UUID id, UpdateUserRequest request, UUID authUserId, boolean isAdmin) {
+        return updateUser(id, request, authUserId, isAdmin, true);
+    }
+
+    public UserResponse updateUser(UUID id, UpdateUserRequest request, UUID authUserId, boolean isAdmin,
+            boolean withCards) {
         log.debug("Atualizando usuário: {}", id);
 
+        // Commit antes de buscar os cartões: a conexão volta ao pool antes de qualquer I/O de rede
+        Update update = tx.execute(status -> applyUpdate(id, request, authUserId, isAdmin));
+        User updated = update.user();
+        // Depois do commit: invalidar antes deixaria um login concorrente recarregar o valor antigo.
+        // Nome e email fazem parte do registro em cache, e toda atualização muda ao menos um dos dois.
+        credentialsCache.invalidate(update.previousEmail());
+        if (!update.previousEmail().equals(updated.getEmail())) {
+            credentialsCache.invalidate(updated.getEmail());
+        }
+        log.info("Usuário atualizado com sucesso: {}", id);
+        return withCards ? mapToResponseWithCards(updated) : UserMapper.toResponse(updated);
+    }
+
+    private record Update(User user, String previousEmail) {}
+
+    private Update applyUpdate(UUID id, UpdateUserRequest request, UUID authUserId, boolean isAdmin) {
         User user = repository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado"));
 
@@ -91,6 +220,7 @@ public class UserService {
             throw new AccessDeniedException("Não autorizado a alterar este usuário");
         }
 
+        String previousEmail = user.getEmail();
         boolean hasName = request.name != null && !request.name.isBlank();
         boolean hasEmail = request.email != null && !request.email.isBlank();
 
@@ -111,33 +241,32 @@ public class UserService {
         if (hasName) {
             user.rename(request.name.trim());
         }
-
-        log.info("Usuário atualizado com sucesso: {}", id);
-        return mapToResponseWithCards(user);
+        return new Update(user, previousEmail);
     }
 
-    @Transactional
     public void deleteUser(UUID id) {
         deleteUser(id, id, true);
     }
 
-    @Transactional
+    // Sem transação envolvendo o método: o delete do repositório já commitou quando o cache é invalidado
     public void deleteUser(UUID id, UUID authUserId, boolean isAdmin) {
         log.debug("Removendo usuário: {}", id);
 
-        if (!repository.existsById(id)) {
-            throw new NoSuchElementException("Usuário não encontrado");
-        }
+        User user = repository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado"));
 
         if (!isAdmin && !id.equals(authUserId)) {
             throw new AccessDeniedException("Não autorizado a remover este usuário");
         }
 
-        repository.deleteById(id);
+        authClient.revokeSessions(id);
+        repository.delete(user);
+        credentialsCache.invalidate(user.getEmail());
+        revokeSessionsAgain(id);
         log.info("Usuário removido com sucesso: {}", id);
     }
 
-    @Transactional
+    // bcrypt (verificar e gerar) fora de transação; a gravação é um UPDATE condicional curto
     public void changePassword(UUID id, ChangePasswordRequest request, UUID authUserId, boolean isAdmin) {
         log.debug("Alterando senha do usuário: {}", id);
 
@@ -148,15 +277,32 @@ public class UserService {
             throw new AccessDeniedException("Não autorizado a alterar senha deste usuário");
         }
 
-        if (!isAdmin && !encoder.matches(request.currentPassword, user.getPasswordHash())) {
+        if (!isAdmin && !passwordHasher.matches(request.currentPassword, user.getPasswordHash())) {
             throw new IllegalArgumentException("Senha atual incorreta");
         }
 
-        user.changePassword(encoder.encode(request.newPassword));
+        String newHash = passwordHasher.encode(request.newPassword);
+        // Todas as sessões caem, inclusive a atual: quem tinha a senha antiga não renova mais o acesso
+        authClient.revokeSessions(id);
+        if (repository.updatePasswordHash(id, user.getPasswordHash(), newHash) == 0) {
+            throw new OptimisticLockingFailureException("Senha alterada por outra requisição; tente novamente");
+        }
+        credentialsCache.invalidate(user.getEmail());
+        revokeSessionsAgain(id);
         log.info("Senha alterada com sucesso para usuário: {}", id);
     }
 
-    @Transactional
+    // A revogação antes da alteração garante que nada muda sem o auth-service (503). Esta segunda, depois
+    // do commit, pega um login feito com a credencial antiga entre as duas; se falhar, só registra.
+    private void revokeSessionsAgain(UUID userId) {
+        try {
+            authClient.revokeSessions(userId);
+        } catch (AuthServiceUnavailableException e) {
+            log.warn("Segunda revogação de sessões do usuário {} falhou: {}", userId, e.getMessage());
+        }
+    }
+
+    // existsById usa e devolve a conexão antes da chamada HTTP ao card-service
     public CardSummary addCardToUser(UUID userId, AddCardToUserRequest request) {
         log.debug("Adicionando cartão ao usuário: {}", userId);
 
@@ -174,7 +320,6 @@ public class UserService {
         return card;
     }
 
-    @Transactional
     public void removeCardFromUser(UUID userId, UUID cardId) {
         log.debug("Removendo cartão {} do usuário: {}", cardId, userId);
 
@@ -186,7 +331,6 @@ public class UserService {
         log.info("Cartão {} removido do usuário: {}", cardId, userId);
     }
 
-    @Transactional
     public void toggleCardStatus(UUID userId, UUID cardId, boolean activate) {
         log.debug("{} cartão {} do usuário: {}", activate ? "Ativando" : "Desativando", cardId, userId);
 
@@ -198,48 +342,118 @@ public class UserService {
         log.info("Cartão {} {} para usuário: {}", cardId, activate ? "ativado" : "desativado", userId);
     }
 
-    public User internalFindByEmail(String email) {
-        return repository.findByEmail(email).orElse(null);
+    public UserCredentials internalFindByEmail(String email) {
+        return credentialsCache.get(email, repository::findCredentialsByEmail).orElse(null);
     }
 
-    @Transactional
+    /**
+     * Sem consulta prévia: a unicidade fica com a constraint de email; duplicado sai como
+     * DataIntegrityViolationException (flush imediato). O bcrypt roda antes, sem conexão aberta.
+     */
     public User internalCreateUser(CreateUserRequest request) {
         log.debug("Criando usuário interno: {}", request.email);
 
-        repository.findByEmail(request.email).ifPresent(u -> {
-            throw new IllegalArgumentException("Email já está em uso");
-        });
-
         User user = User.create(
                 request.name,
                 request.email,
-                encoder.encode(request.password),
+                passwordHasher.encode(request.password),
                 normalizeRole(request.role));
 
-        User savedUser = repository.save(user);
+        User savedUser = repository.saveAndFlush(user);
         log.info("Usuário interno criado: {} (ID: {})", savedUser.getEmail(), savedUser.getId());
 
         return savedUser;
     }
 
-    public User internalVerifyCredentials(String email, String rawPassword) {
-        var user = repository.findByEmail(email).orElse(null);
+    // Login repetido não vai ao banco: só o bcrypt roda
+    public UserCredentials internalVerifyCredentials(String email, String rawPassword) {
+        var user = internalFindByEmail(email);
         if (user == null) return null;
-        if (!encoder.matches(rawPassword, user.getPasswordHash())) return null;
+        if (!passwordHasher.matches(rawPassword, user.passwordHash())) return null;
+        if (passwordHasher.needsRehash(user.passwordHash())) {
+            rehashInBackground(user, rawPassword);
+        }
         return user;
     }
 
+    // Único momento em que temos a senha em claro: refaz o hash com o custo atual sem atrasar o login
+    private void rehashInBackground(UserCredentials user, String rawPassword) {
+        UUID userId = user.id();
+        passwordHasher.encodeAsync(rawPassword)
+                .thenAcceptAsync(newHash -> {
+                    if (repository.updatePasswordHash(userId, user.passwordHash(), newHash) == 1) {
+                        credentialsCache.invalidate(user.email());
+                        log.info("Hash de senha atualizado para custo {} (usuário {})", passwordHasher.cost(), userId);
+                    }
+                }, rehashWriter)
+                .exceptionally(e -> {
+                    log.debug("Rehash adiado para o próximo login (usuário {}): {}", userId, e.getMessage());
+                    return null;
+                });
+    }
+
     private UserResponse mapToResponseWithCards(User user) {
         UserResponse response = UserMapper.toResponse(user);
+        fillCards(response, user.getId(), () -> cardClient.getUserCards(user.getId()));
+        return response;
+    }
 
-        // Busca cartões do usuário
+    // Com o card-service fora, serve a última lista conhecida marcada como tal
+    private void fillCards(UserResponse response, UUID userId, Supplier<List<CardSummary>> fetch) {
         try {
-            response.cards = cardClient.getUserCards(user.getId());
-        } catch (Exception e) {
-            log.warn("Erro ao buscar cartões do usuário {}: {}", user.getId(), e.getMessage());
-            response.cards = List.of(); // Lista vazia em caso de erro
+            response.cards = fetch.get();
+            response.cardsStale = false;
+        } catch (CardServiceUnavailableException e) {
+            log.warn("Cartões do usuário {} servidos do cache: {}", userId, e.getMessage());
+            response.cards = cardClient.lastKnownCards(userId).orElse(List.of());
+            response.cardsStale = true;
         }
+    }
 
-        return response;
+    private static List<CardSummary> await(CompletableFuture<List<CardSummary>> cards) {
+        try {
+            return cards.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static List<UserResponse> mapToResponses(List<User> users) {
+        return users.stream().map(UserMapper::toResponse).toList();
+    }
+
+    private List<UserResponse> mapToResponsesWithCards(List<User> users) {
+        List<UserResponse> responses = new ArrayList<>(users.size());
+
+        // Uma chamada ao card-service por lote de usuários, em vez de uma por usuário
+        for (int from = 0; from < users.size(); from += CARD_BATCH_SIZE) {
+            List<User> batch = users.subList(from, Math.min(from + CARD_BATCH_SIZE, users.size()));
+            Map<UUID, List<CardSummary>> cardsByUser;
+            boolean stale = false;
+            try {
+                cardsByUser = cardClient.getCardsByUserIds(batch.stream().map(User::getId).toList());
+            } catch (CardServiceUnavailableException e) {
+                log.warn("Cartões de {} usuários servidos do cache: {}", batch.size(), e.getMessage());
+                cardsByUser = Map.of();
+                stale = true;
+            }
+
+            for (User user : batch) {
+                UserResponse response = UserMapper.toResponse(user);
+                if (stale) {
+                    response.cards = cardClient.lastKnownCards(user.getId()).orElse(List.of());
+                    response.cardsStale = true;
+                } else {
+                    response.cards = cardsByUser.getOrDefault(user.getId(), List.of());
+                    response.cardsStale = false;
+                }
+                responses.add(response);
+            }
+        }
+
+        return responses;
     }
 }
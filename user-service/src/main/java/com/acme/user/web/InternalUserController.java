@@ -1,9 +1,17 @@
 package com.acme.user.web;
 
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -14,12 +22,15 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.acme.user.domain.User;
+import com.acme.user.repository.UserCredentials;
 import com.acme.user.service.UserService;
 
 @RestController
 @RequestMapping("/api/internal/users")
 public class InternalUserController {
 
+  private static final Set<String> EMAIL_UNIQUE_KEYS = Set.of("email", "users.email");
+
   private final UserService svc;
   private final String internalSecret;
 
@@ -71,9 +82,25 @@ public class InternalUserController {
     dto.password = req.password;
     dto.role = req.role;
 
-    var user = svc.internalCreateUser(dto);
+    try {
+      return toResponse(svc.internalCreateUser(dto));
+    } catch (DataIntegrityViolationException e) {
+      if (isDuplicateEmail(e)) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Email já está em uso");
+      }
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dados inválidos", e);
+    }
+  }
 
-    return toResponse(user);
+  // Só a chave única de users.email vira 409; o MySQL a chama de "email" (ou "users.email" a partir do 8.0)
+  static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+    for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+      if (t instanceof ConstraintViolationException violation) {
+        return violation.getKind() == ConstraintKind.UNIQUE
+            && EMAIL_UNIQUE_KEYS.contains(String.valueOf(violation.getConstraintName()).toLowerCase(Locale.ROOT));
+      }
+    }
+    return false;
   }
 
   @PostMapping("/verify")
@@ -99,5 +126,22 @@ public class InternalUserController {
       "role", user.getRole()
     );
   }
-}
 
+  private Map<String, String> toResponse(UserCredentials user) {
+    return Map.of(
+      "id", user.id().toString(),
+      "name", user.name(),
+      "email", user.email(),
+      "passwordHash", user.passwordHash(),
+      "role", user.role()
+    );
+  }
+
+  // PasswordHasher saturado: o auth-service recebe 503 na hora
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<Map<String, String>> passwordHasherBusy(RejectedExecutionException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header("Retry-After", "1")
+        .body(Map.of("message", e.getMessage()));
+  }
+}
@@ -1,30 +1,44 @@
 package com.acme.user.web;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.acme.user.service.CardClient;
+import com.acme.user.service.AuthServiceUnavailableException;
+import com.acme.user.service.CardServiceUnavailableException;
 import com.acme.user.service.UserService;
 import com.acme.user.web.dto.UserDTOs.AddCardToUserRequest;
 import com.acme.user.web.dto.UserDTOs.CardSummary;
 import com.acme.user.web.dto.UserDTOs.ChangePasswordRequest;
 import com.acme.user.web.dto.UserDTOs.CreateUserRequest;
 import com.acme.user.web.dto.UserDTOs.UpdateUserRequest;
+import com.acme.user.web.dto.UserDTOs.UserPage;
 import com.acme.user.web.dto.UserDTOs.UserResponse;
+import com.acme.security.AuthPrincipal;
+import com.acme.security.CurrentUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -40,10 +54,12 @@ public class UserController {
 
     private final UserService userService;
     private final CardClient cardClient;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService, CardClient cardClient) {
+    public UserController(UserService userService, CardClient cardClient, ObjectMapper objectMapper) {
         this.userService = userService;
         this.cardClient = cardClient;
+        this.objectMapper = objectMapper;
     }
 
     public static class UpdateUserCardRequest {
@@ -55,9 +71,13 @@ public class UserController {
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Busca dados do usuário logado", description = "Retorna os dados do usuário autenticado")
     @ApiResponse(responseCode = "200", description = "Dados do usuário retornados com sucesso")
-    public UserResponse getCurrentUser(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
-        return userService.getUserById(userId);
+    public UserResponse getCurrentUser(
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include,
+            @CurrentUser AuthPrincipal principal) {
+        UUID userId = principal.userId();
+        UserFields selected = UserFields.parse(fields, include, true);
+        return selected.apply(userService.getUserById(userId, selected.cards()));
     }
 
     @PutMapping("/me")
@@ -70,10 +90,13 @@ public class UserController {
     })
     public UserResponse updateMyProfile(
             @Parameter(description = "Dados a serem atualizados") @Valid @RequestBody UpdateUserRequest request,
-            Authentication authentication) {
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include,
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID userId = UUID.fromString(authentication.getName());
-        return userService.updateUser(userId, request, userId, true);
+        UUID userId = principal.userId();
+        UserFields selected = UserFields.parse(fields, include, false);
+        return selected.apply(userService.updateUser(userId, request, userId, true, selected.cards()));
     }
 
     @PutMapping("/me/password")
@@ -82,13 +105,15 @@ public class UserController {
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Senha alterada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Senha atual incorreta ou dados inválidos"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Senha alterada por outra requisição"),
+            @ApiResponse(responseCode = "503", description = "Sessões abertas não puderam ser encerradas")
     })
     public ResponseEntity<Void> changeMyPassword(
             @Parameter(description = "Dados para alteração de senha") @Valid @RequestBody ChangePasswordRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID userId = UUID.fromString(authentication.getName());
+        UUID userId = principal.userId();
 
         userService.changePassword(userId, request, userId, true);
         return ResponseEntity.noContent().build();
@@ -100,12 +125,10 @@ public class UserController {
             @PathVariable UUID userId,
             @PathVariable UUID cardId,
             @RequestBody UpdateUserCardRequest req,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch("ROLE_ADMIN"::equals);
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         if (!isAdmin && !authUserId.equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).<CardSummary>build();
@@ -117,10 +140,50 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    @Operation(summary = "Lista todos os usuários", description = "Retorna uma lista de todos os usuários cadastrados")
-    @ApiResponse(responseCode = "200", description = "Lista de usuários retornada com sucesso")
-    public List<UserResponse> getAllUsers() {
-        return userService.getAllUsers();
+    @Operation(summary = "Lista usuários paginados", description = "Retorna uma página de usuários; use nextCursor para buscar a próxima")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de usuários retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou campos inválidos")
+    })
+    public UserPage getUsers(
+            @Parameter(description = "Cursor retornado pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 200)") @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include) {
+        UserFields selected = UserFields.parse(fields, include, true);
+        UserPage page;
+        try {
+            page = userService.getUsersPage(cursor, limit, selected.cards());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        page.items.forEach(selected::apply);
+        return page;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Exporta todos os usuários", description = "Envia um usuário por linha (NDJSON) à medida que são lidos do banco")
+    @ApiResponse(responseCode = "200", description = "Usuários enviados com sucesso")
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include) {
+        UserFields selected = UserFields.parse(fields, include, true);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                userService.forEachUserPage(selected.cards(), page -> {
+                    try {
+                        page.forEach(selected::apply);
+                        writer.writeAll(page);
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -131,8 +194,11 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
     public UserResponse getUserById(
-            @Parameter(description = "ID do usuário") @PathVariable UUID id) {
-        return userService.getUserById(id);
+            @Parameter(description = "ID do usuário") @PathVariable UUID id,
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include) {
+        UserFields selected = UserFields.parse(fields, include, true);
+        return selected.apply(userService.getUserById(id, selected.cards()));
     }
 
     @PostMapping
@@ -141,12 +207,16 @@ public class UserController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Usuário criado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "409", description = "Email já está em uso")
+            @ApiResponse(responseCode = "409", description = "Email já está em uso"),
+            @ApiResponse(responseCode = "503", description = "Processamento de senhas saturado; tente novamente")
     })
     public ResponseEntity<UserResponse> createUser(
-            @Parameter(description = "Dados do usuário a ser criado") @Valid @RequestBody CreateUserRequest request) {
+            @Parameter(description = "Dados do usuário a ser criado") @Valid @RequestBody CreateUserRequest request,
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include) {
 
-        UserResponse user = userService.createUser(request, true);
+        UserFields selected = UserFields.parse(fields, include, false);
+        UserResponse user = selected.apply(userService.createUser(request, true));
         return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
 
@@ -162,14 +232,15 @@ public class UserController {
     public UserResponse updateUser(
             @Parameter(description = "ID do usuário") @PathVariable UUID id,
             @Parameter(description = "Dados a serem atualizados") @Valid @RequestBody UpdateUserRequest request,
-            Authentication authentication) {
+            @Parameter(description = "Campos a retornar: id,name,email,role,cards") @RequestParam(required = false) String fields,
+            @Parameter(description = "Campos extras além do padrão (ex.: cards)") @RequestParam(required = false) String include,
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
-        return userService.updateUser(id, request, authUserId, isAdmin);
+        UserFields selected = UserFields.parse(fields, include, false);
+        return selected.apply(userService.updateUser(id, request, authUserId, isAdmin, selected.cards()));
     }
 
     @DeleteMapping("/{id}")
@@ -182,12 +253,10 @@ public class UserController {
     })
     public ResponseEntity<Void> deleteUser(
             @Parameter(description = "ID do usuário") @PathVariable UUID id,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         if (!isAdmin && !authUserId.equals(id)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -204,8 +273,8 @@ public class UserController {
             @ApiResponse(responseCode = "204", description = "Conta removida com sucesso"),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
-    public ResponseEntity<Void> deleteMyAccount(Authentication authentication) {
-        UUID userId = UUID.fromString(authentication.getName());
+    public ResponseEntity<Void> deleteMyAccount(@CurrentUser AuthPrincipal principal) {
+        UUID userId = principal.userId();
         userService.deleteUser(userId, userId, false);
         return ResponseEntity.noContent().build();
     }
@@ -217,17 +286,16 @@ public class UserController {
             @ApiResponse(responseCode = "204", description = "Senha alterada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Senha atual incorreta"),
             @ApiResponse(responseCode = "403", description = "Não autorizado"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "503", description = "Processamento de senhas saturado; tente novamente")
     })
     public ResponseEntity<Void> changePassword(
             @Parameter(description = "ID do usuário") @PathVariable UUID id,
             @Parameter(description = "Dados para alteração de senha") @Valid @RequestBody ChangePasswordRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         userService.changePassword(id, request, authUserId, isAdmin);
         return ResponseEntity.noContent().build();
@@ -244,12 +312,10 @@ public class UserController {
     public ResponseEntity<CardSummary> addCardToUser(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
             @Parameter(description = "Dados do cartão") @Valid @RequestBody AddCardToUserRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         if (!isAdmin && !authUserId.equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -269,12 +335,10 @@ public class UserController {
     public ResponseEntity<Void> removeCardFromUser(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         if (!isAdmin && !authUserId.equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -294,12 +358,10 @@ public class UserController {
     public ResponseEntity<Void> activateCard(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         if (!isAdmin && !authUserId.equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -319,12 +381,10 @@ public class UserController {
     public ResponseEntity<Void> deactivateCard(
             @Parameter(description = "ID do usuário") @PathVariable UUID userId,
             @Parameter(description = "ID do cartão") @PathVariable UUID cardId,
-            Authentication authentication) {
+            @CurrentUser AuthPrincipal principal) {
 
-        UUID authUserId = UUID.fromString(authentication.getName());
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+        UUID authUserId = principal.userId();
+        boolean isAdmin = principal.isAdmin();
 
         if (!isAdmin && !authUserId.equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -333,4 +393,34 @@ public class UserController {
         userService.toggleCardStatus(userId, cardId, false);
         return ResponseEntity.noContent().build();
     }
+
+    // PasswordHasher saturado: falha rápida em vez de prender a thread da requisição
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> passwordHasherBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    // Troca de senha concorrente venceu a corrida: o cliente relê e tenta de novo
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> concurrentUpdate(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+    }
+
+    // card-service fora ou circuito aberto numa operação de escrita: não há o que servir do cache
+    @ExceptionHandler(CardServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> cardServiceUnavailable(CardServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    // Sem confirmação de que as sessões foram encerradas a senha não muda e o usuário não é removido
+    @ExceptionHandler(AuthServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> authServiceUnavailable(AuthServiceUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of("message", e.getMessage()));
+    }
 }
@@ -0,0 +1,73 @@
+package com.acme.user.web;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.user.web.dto.UserDTOs.UserResponse;
+
+/**
+ * Campos pedidos via {@code ?fields=id,name,...} ou {@code ?include=cards}. Os cartões vêm do
+ * card-service, então só são buscados quando fazem parte da seleção; os demais campos não pedidos
+ * são zerados e não aparecem no JSON.
+ */
+final class UserFields {
+
+    enum Field { ID, NAME, EMAIL, ROLE, CARDS }
+
+    private static final Set<Field> PROFILE = EnumSet.of(Field.ID, Field.NAME, Field.EMAIL, Field.ROLE);
+
+    private final Set<Field> selected;
+
+    private UserFields(Set<Field> selected) {
+        this.selected = selected;
+    }
+
+    /** Sem {@code fields}: o padrão do endpoint mais o que vier em {@code include}. */
+    static UserFields parse(String fields, String include, boolean cardsByDefault) {
+        Set<Field> selected;
+        if (fields != null && !fields.isBlank()) {
+            selected = EnumSet.noneOf(Field.class);
+            addAll(selected, fields, "fields");
+        } else {
+            selected = EnumSet.copyOf(PROFILE);
+            if (cardsByDefault) selected.add(Field.CARDS);
+        }
+        if (include != null && !include.isBlank()) {
+            addAll(selected, include, "include");
+        }
+        return new UserFields(selected);
+    }
+
+    private static void addAll(Set<Field> target, String csv, String param) {
+        for (String name : csv.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            try {
+                target.add(Field.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Campo desconhecido em " + param + ": " + trimmed);
+            }
+        }
+    }
+
+    boolean cards() {
+        return selected.contains(Field.CARDS);
+    }
+
+    UserResponse apply(UserResponse response) {
+        if (!selected.contains(Field.ID)) response.id = null;
+        if (!selected.contains(Field.NAME)) response.name = null;
+        if (!selected.contains(Field.EMAIL)) response.email = null;
+        if (!selected.contains(Field.ROLE)) response.role = null;
+        if (!cards()) {
+            response.cards = null;
+            response.cardsStale = null;
+        }
+        return response;
+    }
+}
@@ -3,6 +3,8 @@ package com.acme.user.web.dto;
 import java.util.List;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,12 +12,15 @@ import jakarta.validation.constraints.Size;
 
 public class UserDTOs {
     
+    // Campos nulos (não pedidos em ?fields=) não são serializados
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class UserResponse {
         public UUID id;
         public String name;
         public String email;
         public String role;
         public List<CardSummary> cards;
+        public Boolean cardsStale;   // true = card-service indisponível; cards é a última lista conhecida
         
         public UserResponse() {}
         
@@ -27,6 +32,18 @@ public class UserDTOs {
         }
     }
     
+    public static class UserPage {
+        public List<UserResponse> items;
+        public String nextCursor;
+
+        public UserPage() {}
+
+        public UserPage(List<UserResponse> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+    }
+    
     public static class CreateUserRequest {
         @NotBlank(message = "Nome é obrigatório")
         @Size(max = 120, message = "Nome deve ter no máximo 120 caracteres")
@@ -0,0 +1,110 @@
+package com.acme.user.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.acme.common.PooledHttpClients;
+import com.acme.user.service.CardClient;
+import com.acme.user.web.dto.UserDTOs.CardSummary;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * CardClient sob carga concorrente (32 threads) contra um card-service simulado local com 2 ms de
+ * processamento: transporte padrão do RestClient antes desta mudança (JDK HttpClient, sem limites nem
+ * prazos) vs. pool HttpComponents do {@link PooledHttpClients}. Modo SampleTime dá p50/p99 por chamada.
+ * Rodar com: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.acme.user.bench.CardClientTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class CardClientTransportBenchmark {
+
+    private static final byte[] BODY = ("[{\"id\":\"" + UUID.randomUUID() + "\",\"numeroCartao\":\"90.04.01987473-3\","
+            + "\"nome\":\"Cartão\",\"status\":true,\"tipoCartao\":\"COMUM\"}]").getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private HttpComponentsClientHttpRequestFactory pooledFactory;
+    private CardClient defaultClient;
+    private CardClient pooledClient;
+    private final UUID userId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");   // sem isso o ACK atrasado do TCP domina a latência
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        serverThreads = Executors.newFixedThreadPool(64);
+        server.setExecutor(serverThreads);
+        server.createContext("/internal/cards/user/", exchange -> {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        defaultClient = new CardClient(baseUrl, "bench", new JdkClientHttpRequestFactory());
+        pooledFactory = PooledHttpClients.requestFactory(
+                PooledHttpClients.connectionManager(50, Duration.ofSeconds(1), Duration.ofSeconds(2)),
+                Duration.ofMillis(500), Duration.ofSeconds(2));
+        pooledClient = new CardClient(baseUrl, "bench", pooledFactory);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        pooledFactory.destroy();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public List<CardSummary> defaultJdkTransport() {
+        return defaultClient.getUserCards(userId);
+    }
+
+    @Benchmark
+    public List<CardSummary> pooledTransport() {
+        return pooledClient.getUserCards(userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CardClientTransportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
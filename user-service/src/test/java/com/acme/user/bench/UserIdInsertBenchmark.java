@@ -0,0 +1,119 @@
+package com.acme.user.bench;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import com.acme.common.UuidV7;
+
+/**
+ * Inserts em lote numa cópia da tabela {@code users} (PK BINARY(16) + email único) com ids v4 aleatórios
+ * e com {@link UuidV7}: linhas/s medidas em janelas ao longo da carga e, no MySQL, tamanho final de dados
+ * (índice clusterizado) e índices secundários via information_schema. A diferença aparece quando a tabela
+ * passa do buffer pool; rode com alguns milhões de linhas e um innodb_buffer_pool_size menor que a tabela.
+ * Não é JMH: cada medição é uma carga inteira, não um laço quente.
+ * Rodar com: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.acme.user.bench.UserIdInsertBenchmark
+ *   -Dbench.url=jdbc:mysql://localhost:3306/bench -Dbench.user=root -Dbench.password= -Dbench.rows=3000000
+ * Sem bench.url roda em H2 (só para conferir o benchmark, os números não valem para o InnoDB).
+ */
+public class UserIdInsertBenchmark {
+
+    private static final int BATCH = 1_000;
+    private static final int REPORTS = 10;
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        String user = System.getProperty("bench.user", "sa");
+        String password = System.getProperty("bench.password", "");
+        int rows = Integer.getInteger("bench.rows", 3_000_000);
+
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            conn.setAutoCommit(false);
+            run(conn, "users_bench_v4", rows, UUID::randomUUID);
+            run(conn, "users_bench_v7", rows, UuidV7::randomUUID);
+        }
+    }
+
+    private static void run(Connection conn, String table, int rows, Supplier<UUID> ids) throws SQLException {
+        try (Statement ddl = conn.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            ddl.execute("CREATE TABLE " + table + " ("
+                    + "id BINARY(16) NOT NULL, "
+                    + "name VARCHAR(120) NOT NULL, "
+                    + "email VARCHAR(160) NOT NULL UNIQUE, "
+                    + "password_hash VARCHAR(200) NOT NULL, "
+                    + "role VARCHAR(30) NOT NULL, "
+                    + "created_at TIMESTAMP NOT NULL, "
+                    + "PRIMARY KEY (id))" + (isMySql(conn) ? " ENGINE=InnoDB DEFAULT CHARSET=utf8mb4" : ""));
+            conn.commit();
+        }
+
+        String hash = "$2a$12$" + "x".repeat(53);
+        int reportEvery = Math.max(BATCH, rows / REPORTS / BATCH * BATCH);
+        long start = System.nanoTime();
+        long windowStart = start;
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO " + table
+                + " (id, name, email, password_hash, role, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setBytes(1, toBytes(ids.get()));
+                insert.setString(2, "Usuário " + i);
+                insert.setString(3, "user" + i + "@bench.local");
+                insert.setString(4, hash);
+                insert.setString(5, "ROLE_USER");
+                insert.setTimestamp(6, Timestamp.from(Instant.now()));
+                insert.addBatch();
+                if (i % BATCH == 0 || i == rows) {
+                    insert.executeBatch();
+                    conn.commit();
+                }
+                if (i % reportEvery == 0) {
+                    long now = System.nanoTime();
+                    System.out.printf("%s: %,d linhas, %,.0f linhas/s na janela%n",
+                            table, i, reportEvery / ((now - windowStart) / 1e9));
+                    windowStart = now;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %,d linhas em %.1f s (%,.0f linhas/s)%n", table, rows, seconds, rows / seconds);
+
+        if (isMySql(conn)) {
+            printSizes(conn, table);
+        }
+    }
+
+    // InnoDB: data_length é o índice clusterizado (PK), index_length os secundários (email)
+    private static void printSizes(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("ANALYZE TABLE " + table);
+            try (ResultSet rs = st.executeQuery("SELECT data_length, index_length, data_free "
+                    + "FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+                if (rs.next()) {
+                    System.out.printf("%s: dados (PK) %,d MB, índices secundários %,d MB, livre %,d MB%n", table,
+                            rs.getLong(1) >> 20, rs.getLong(2) >> 20, rs.getLong(3) >> 20);
+                }
+            }
+            conn.commit();
+        }
+    }
+
+    private static boolean isMySql(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    // Mesma ordem de bytes que o Hibernate grava em BINARY(16)
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,166 @@
+package com.acme.user.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.acme.common.PooledHttpClients;
+import com.acme.user.web.dto.UserDTOs.CardSummary;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Testes unitários para CardClient (transporte com pool e prazos, disjuntor e cache da última lista)
+ */
+class CardClientTest {
+
+    private HttpServer server;
+    private HttpComponentsClientHttpRequestFactory factory;
+    private CardClient client;
+    private volatile long serverDelayMs;
+    private volatile boolean failing;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/internal/cards/user/", exchange -> {
+            requests.incrementAndGet();
+            if (failing) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            try {
+                Thread.sleep(serverDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[{\"numeroCartao\":\"90.04.01987473-3\",\"status\":true}]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // cliente já desistiu
+            }
+        });
+        server.start();
+
+        factory = PooledHttpClients.requestFactory(
+                PooledHttpClients.connectionManager(2, Duration.ofSeconds(1), Duration.ofMillis(300)),
+                Duration.ofMillis(200), Duration.ofMillis(300));
+        client = new CardClient("http://127.0.0.1:" + server.getAddress().getPort(), "secret", factory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        factory.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void getUserCards_ShouldReturnCards_WhenCardServiceAnswersInTime() {
+        // When
+        List<CardSummary> cards = client.getUserCards(UUID.randomUUID());
+
+        // Then
+        assertEquals(1, cards.size());
+        assertEquals("90.04.01987473-3", cards.get(0).numeroCartao);
+    }
+
+    @Test
+    void getUserCards_ShouldGiveUpAtReadTimeout_WhenCardServiceIsSlow() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        client.getUserCards(userId);
+        serverDelayMs = 3_000;
+
+        // When
+        long start = System.nanoTime();
+        assertThrows(CardServiceUnavailableException.class, () -> client.getUserCards(userId));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then: a última lista lida continua disponível como fallback
+        assertTrue(elapsedMs < 2_000, "esperou " + elapsedMs + " ms");
+        assertEquals(1, client.lastKnownCards(userId).orElseThrow().size());
+    }
+
+    @Test
+    void getUserCards_ShouldFailFastWithoutCallingCardService_WhenCircuitIsOpen() {
+        // Given: 5 falhas seguidas abrem o circuito
+        failing = true;
+        for (int i = 0; i < 5; i++) {
+            assertThrows(CardServiceUnavailableException.class, () -> client.getUserCards(UUID.randomUUID()));
+        }
+        int callsBefore = requests.get();
+
+        // When
+        long start = System.nanoTime();
+        assertThrows(CardServiceUnavailableException.class, () -> client.getUserCards(UUID.randomUUID()));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(callsBefore, requests.get());
+        assertTrue(elapsedMs < 50, "esperou " + elapsedMs + " ms");
+    }
+
+    @Test
+    void getUserCardsAsync_ShouldSkipCallAndCache_WhenCancelledWhileQueued() throws Exception {
+        // Given: um único slot assíncrono, ocupado por uma chamada lenta
+        CardClient single = new CardClient("http://127.0.0.1:" + server.getAddress().getPort(), "secret", factory,
+                5, Duration.ofSeconds(10), 1, 100, Duration.ofSeconds(2));
+        serverDelayMs = 100;
+        UUID existing = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        CompletableFuture<List<CardSummary>> busy = single.getUserCardsAsync(existing);
+        CompletableFuture<List<CardSummary>> queued = single.getUserCardsAsync(unknown);
+
+        // When: o usuário não existe e quem chamou desiste
+        queued.cancel(true);
+        busy.get(2, TimeUnit.SECONDS);
+        single.getUserCardsAsync(existing).get(2, TimeUnit.SECONDS);   // fila FIFO: passa depois da cancelada
+
+        // Then
+        assertEquals(2, requests.get());
+        assertTrue(single.lastKnownCards(unknown).isEmpty());
+        assertTrue(single.lastKnownCards(existing).isPresent());
+        single.shutdown();
+    }
+
+    @Test
+    void getUserCardsAsync_ShouldNotOpenCircuit_WhenCancelledWhileInFlight() throws Exception {
+        // Given: o circuito abre na primeira falha e a chamada em andamento passa do read-timeout
+        CardClient single = new CardClient("http://127.0.0.1:" + server.getAddress().getPort(), "secret", factory,
+                1, Duration.ofSeconds(10), 1, 100, Duration.ofSeconds(2));
+        serverDelayMs = 1_000;
+        CompletableFuture<List<CardSummary>> inFlight = single.getUserCardsAsync(UUID.randomUUID());
+        while (requests.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When: quem chamou desiste; a thread é interrompida e a leitura termina no read-timeout
+        inFlight.cancel(true);
+        Thread.sleep(600);
+        serverDelayMs = 0;
+
+        // Then: o cancelamento não contou como falha do card-service
+        assertEquals(1, single.getUserCards(UUID.randomUUID()).size());
+        single.shutdown();
+    }
+}
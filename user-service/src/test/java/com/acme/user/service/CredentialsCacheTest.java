@@ -0,0 +1,96 @@
+package com.acme.user.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.acme.user.repository.UserCredentials;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Testes unitários para CredentialsCache
+ */
+class CredentialsCacheTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CredentialsCache cache = new CredentialsCache(meters, 2, Duration.ofSeconds(60), now::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<UserCredentials> load(String email) {
+        loads.incrementAndGet();
+        return Optional.of(new UserCredentials(UUID.randomUUID(), "João Silva", email, "hash", "ROLE_USER"));
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndCountHitsAndMisses() {
+        // When
+        cache.get("joao@email.com", this::load);
+        cache.get("JOAO@email.com ", this::load);
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meters.get("users.credentials.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meters.get("users.credentials.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_ShouldReload_WhenEntryExpiredOrInvalidated() {
+        // Given
+        cache.get("joao@email.com", this::load);
+
+        // When
+        now.addAndGet(60_001);
+        cache.get("joao@email.com", this::load);
+        cache.invalidate("Joao@Email.com");
+        cache.get("joao@email.com", this::load);
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheAbsentEmail() {
+        // When
+        cache.get("inexistente@email.com", email -> { loads.incrementAndGet(); return Optional.empty(); });
+        cache.get("inexistente@email.com", email -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ShouldNotStoreLoad_WhenInvalidatedWhileLoading() {
+        // When: a senha muda enquanto o login ainda lê o hash antigo do banco
+        cache.get("joao@email.com", email -> {
+            cache.invalidate(email);
+            return load(email);
+        });
+        cache.get("joao@email.com", this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        // When
+        cache.get("a@email.com", this::load);
+        cache.get("b@email.com", this::load);
+        cache.get("a@email.com", this::load);
+        cache.get("c@email.com", this::load);
+        cache.get("a@email.com", this::load);
+
+        // Then: b saiu, a continuou
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,94 @@
+package com.acme.user.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Testes unitários para PasswordHasher
+ */
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRoundTrip_AndRecordLatency() {
+        // Given
+        hasher = new PasswordHasher(meters, 1, 4, 5000, 10, 0);
+
+        // When
+        String hash = hasher.encode("senha123");
+
+        // Then
+        assertTrue(hasher.matches("senha123", hash));
+        assertFalse(hasher.matches("outra", hash));
+        assertFalse(hasher.matches("senha123", null));
+        assertEquals(1, meters.get("password.hasher.duration").tag("op", "encode").timer().count());
+        assertEquals(2, meters.get("password.hasher.duration").tag("op", "verify").timer().count());
+    }
+
+    @Test
+    void encode_ShouldRejectImmediately_WhenPoolAndQueueAreFull() throws Exception {
+        // Given: 1 thread + fila de 1; dispara bem mais pedidos do que cabem
+        hasher = new PasswordHasher(meters, 1, 1, 10_000, 10, 0);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> hasher.encode("senha123")));
+        }
+
+        // When
+        int rejectedCalls = 0;
+        for (CompletableFuture<String> call : calls) {
+            try {
+                call.get(30, TimeUnit.SECONDS);
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                rejectedCalls++;
+            }
+        }
+
+        // Then
+        assertTrue(rejectedCalls > 0);
+        assertEquals(rejectedCalls, meters.get("password.hasher.rejected").counter().count());
+    }
+
+    @Test
+    void needsRehash_ShouldFlagWeakerMuchStrongerAndForeignHashes() {
+        // Given
+        hasher = new PasswordHasher(meters, 1, 4, 5000, 11, 0);
+        String cost13 = "$2a$13$" + "x".repeat(53);
+
+        // Then: um acima do calibrado é tolerado (outro nó calibrou em 12), dois acima não
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(11).encode("senha123")));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(12).encode("senha123")));
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(10).encode("senha123")));
+        assertTrue(hasher.needsRehash(cost13));
+        assertTrue(hasher.needsRehash("{noop}senha123"));
+        assertFalse(hasher.needsRehash(null));
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        assertEquals(PasswordHasher.MIN_COST, PasswordHasher.calibrate(1));
+        int cost = PasswordHasher.calibrate(250);
+        assertTrue(cost >= PasswordHasher.MIN_COST && cost <= PasswordHasher.MAX_COST);
+    }
+}
@@ -0,0 +1,139 @@
+package com.acme.user.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.acme.user.domain.User;
+import com.acme.user.repository.UserRepository;
+import com.acme.user.web.dto.UserDTOs.CardSummary;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pool Hikari real (H2) com o card-service "travado" por latches: enquanto as chamadas ao card-service
+ * estão em andamento nenhuma conexão pode estar emprestada. Se alguma operação de cartão segurasse
+ * conexão durante o I/O de rede, as conexões ativas não voltariam a zero antes da liberação.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:poolload;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "spring.datasource.hikari.connection-timeout=10000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserServicePoolLoadTest.Config.class})
+class UserServicePoolLoadTest {
+
+    private static final int CALLS = 4;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordHasher passwordHasher() {
+            return new PasswordHasher(new SimpleMeterRegistry(), 1, 4, 5000, 4, 0);
+        }
+
+        @Bean
+        CredentialsCache credentialsCache() {
+            return new CredentialsCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private CardClient cardClient;
+
+    @MockitoBean
+    private AuthClient authClient;
+
+    @Test
+    void cardOperations_ShouldNotHoldConnections_WhileCardServiceCallIsInFlight() throws Exception {
+        // Given: o card-service só responde quando o teste liberar
+        User user = repository.save(User.create("João Silva", "joao.pool@email.com", "hash", "ROLE_USER"));
+        CountDownLatch togglesInFlight = new CountDownLatch(CALLS);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            togglesInFlight.countDown();
+            release.await();
+            return null;
+        }).when(cardClient).toggleCardStatus(any(), any(), anyBoolean());
+        CompletableFuture<List<CardSummary>> cards = new CompletableFuture<>();
+        when(cardClient.getUserCardsAsync(any())).thenReturn(cards);
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2 * CALLS);
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            // When
+            for (int i = 0; i < CALLS; i++) {
+                calls.add(pool.submit(() -> userService.toggleCardStatus(user.getId(), UUID.randomUUID(), true)));
+                calls.add(pool.submit(() -> userService.getUserById(user.getId())));
+            }
+            assertTrue(togglesInFlight.await(10, TimeUnit.SECONDS), "toggles não chegaram ao card-service");
+
+            // Then: com todas as chamadas ainda presas no card-service, o pool está livre
+            assertTrue(awaitNoActiveConnections(hikari),
+                    "conexões ativas durante a chamada: " + hikari.getHikariPoolMXBean().getActiveConnections());
+            assertTrue(calls.stream().noneMatch(Future::isDone));
+
+            release.countDown();
+            cards.complete(List.of());
+            for (Future<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        verify(cardClient, times(CALLS)).toggleCardStatus(any(), any(), anyBoolean());
+    }
+
+    // As leituras de getUserById rodam em paralelo com a chamada de cartões; dá tempo a elas terminarem
+    private static boolean awaitNoActiveConnections(HikariDataSource hikari) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (hikari.getHikariPoolMXBean().getActiveConnections() == 0) return true;
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
@@ -4,21 +4,34 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.acme.user.domain.User;
+import com.acme.user.repository.UserCredentials;
 import com.acme.user.repository.UserRepository;
 import com.acme.user.web.dto.UserDTOs.AddCardToUserRequest;
 import com.acme.user.web.dto.UserDTOs.CardSummary;
@@ -26,8 +39,11 @@ import com.acme.user.web.dto.UserDTOs.ChangePasswordRequest;
 import com.acme.user.web.dto.UserDTOs.CreateUserRequest;
 import com.acme.user.web.dto.UserDTOs.TipoCartao;
 import com.acme.user.web.dto.UserDTOs.UpdateUserRequest;
+import com.acme.user.web.dto.UserDTOs.UserPage;
 import com.acme.user.web.dto.UserDTOs.UserResponse;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * Testes unitários para UserService
  * Implementa cenários de sucesso e falha para todas as operações
@@ -41,6 +57,18 @@ class UserServiceTest {
     @Mock
     private CardClient cardClient;
 
+    @Mock
+    private AuthClient authClient;
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(new SimpleMeterRegistry(), 2, 8, 5000, 10, 0);
+
+    @Spy
+    private TransactionTemplate tx = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private CredentialsCache credentialsCache = new CredentialsCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private UserService userService;
 
@@ -56,28 +84,52 @@ class UserServiceTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnAllUsers() {
+    void getUsersPage_ShouldReturnFirstPageWithCursor_WhenMoreUsersExist() {
         // Given
-        List<User> users = List.of(user);
-        when(repository.findAll()).thenReturn(users);
-        when(cardClient.getUserCards(any(UUID.class))).thenReturn(List.of());
+        User other = User.create("Maria Santos", "maria@email.com", "hashedPassword", "ROLE_USER");
+        CardSummary cardSummary = new CardSummary();
+        cardSummary.numeroCartao = "90.04.01987473-3";
+        when(repository.findFirstPage(Limit.of(2))).thenReturn(List.of(user, other));
+        when(cardClient.getCardsByUserIds(List.of(userId))).thenReturn(Map.of(userId, List.of(cardSummary)));
 
         // When
-        List<UserResponse> result = userService.getAllUsers();
+        UserPage result = userService.getUsersPage(null, 1);
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("João Silva", result.get(0).name);
-        assertEquals("joao@email.com", result.get(0).email);
-        verify(repository).findAll();
+        assertEquals(1, result.items.size());
+        assertEquals("João Silva", result.items.get(0).name);
+        assertEquals("joao@email.com", result.items.get(0).email);
+        assertEquals(1, result.items.get(0).cards.size());
+        assertEquals(UserCursor.of(user), UserCursor.decode(result.nextCursor));
+        verify(cardClient, never()).getUserCards(any(UUID.class));
+    }
+
+    @Test
+    void getUsersPage_ShouldContinueAfterCursor_AndEndWithoutNextCursor() {
+        // Given
+        UserCursor cursor = UserCursor.of(user);
+        when(repository.findPageAfter(cursor.createdAt(), cursor.id(), Limit.of(51))).thenReturn(List.of());
+
+        // When
+        UserPage result = userService.getUsersPage(cursor.encode(), UserService.DEFAULT_PAGE_SIZE);
+
+        // Then
+        assertTrue(result.items.isEmpty());
+        assertNull(result.nextCursor);
+        verify(repository, never()).findFirstPage(any());
+    }
+
+    @Test
+    void getUsersPage_ShouldThrowException_WhenCursorIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsersPage("not-a-cursor", 10));
     }
 
     @Test
     void getUserById_ShouldReturnUser_WhenUserExists() {
         // Given
         when(repository.findById(userId)).thenReturn(Optional.of(user));
-        when(cardClient.getUserCards(userId)).thenReturn(List.of());
+        when(cardClient.getUserCardsAsync(userId)).thenReturn(CompletableFuture.completedFuture(List.of()));
 
         // When
         UserResponse result = userService.getUserById(userId);
@@ -89,14 +141,76 @@ class UserServiceTest {
         verify(repository).findById(userId);
     }
 
+    @Test
+    void getUserById_ShouldServeLastKnownCardsMarkedStale_WhenCardServiceIsUnavailable() {
+        // Given
+        CardSummary cached = new CardSummary();
+        cached.numeroCartao = "90.04.01987473-3";
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        when(cardClient.getUserCardsAsync(userId))
+                .thenReturn(CompletableFuture.failedFuture(new CardServiceUnavailableException("circuito aberto")));
+        when(cardClient.lastKnownCards(userId)).thenReturn(Optional.of(List.of(cached)));
+
+        // When
+        UserResponse result = userService.getUserById(userId);
+
+        // Then
+        assertTrue(result.cardsStale);
+        assertEquals(List.of(cached), result.cards);
+    }
+
+    @Test
+    void getUserById_ShouldFetchUserRowAndCardsInParallel() {
+        // Given: a chamada de cartões só responde quando a leitura do banco já está em andamento
+        CardSummary card = new CardSummary();
+        card.numeroCartao = "90.04.01987473-3";
+        CompletableFuture<List<CardSummary>> cards = new CompletableFuture<>();
+        when(cardClient.getUserCardsAsync(userId)).thenReturn(cards);
+        AtomicBoolean cardCallInFlightDuringDbRead = new AtomicBoolean();
+        when(repository.findById(userId)).thenAnswer(inv -> {
+            cardCallInFlightDuringDbRead.set(!cards.isDone());
+            cards.complete(List.of(card));
+            return Optional.of(user);
+        });
+
+        // When
+        UserResponse result = userService.getUserById(userId);
+
+        // Then: a chamada ao card-service saiu antes da leitura do banco e as duas se sobrepuseram
+        InOrder order = inOrder(cardClient, repository);
+        order.verify(cardClient).getUserCardsAsync(userId);
+        order.verify(repository).findById(userId);
+        assertTrue(cardCallInFlightDuringDbRead.get());
+        assertEquals(List.of(card), result.cards);
+        assertFalse(result.cardsStale);
+    }
+
     @Test
     void getUserById_ShouldThrowException_WhenUserNotFound() {
         // Given
+        CompletableFuture<List<CardSummary>> cards = new CompletableFuture<>();
+        when(cardClient.getUserCardsAsync(userId)).thenReturn(cards);
         when(repository.findById(userId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(NoSuchElementException.class, () -> userService.getUserById(userId));
         verify(repository).findById(userId);
+        assertTrue(cards.isCancelled());
+    }
+
+    @Test
+    void getUserById_ShouldNotCallCardService_WhenCardsNotRequested() {
+        // Given
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+
+        // When
+        UserResponse result = userService.getUserById(userId, false);
+
+        // Then
+        assertEquals(userId, result.id);
+        assertNull(result.cards);
+        assertNull(result.cardsStale);
+        verifyNoInteractions(cardClient);
     }
 
     @Test
@@ -109,15 +223,16 @@ class UserServiceTest {
 
         when(repository.findByEmail("maria@email.com")).thenReturn(Optional.empty());
         when(repository.save(any(User.class))).thenReturn(user);
-        when(cardClient.getUserCards(any(UUID.class))).thenReturn(List.of());
 
         // When
         UserResponse result = userService.createUser(request, false);
 
-        // Then
+        // Then: usuário novo não tem cartões, o card-service não é consultado
         assertNotNull(result);
+        assertEquals(List.of(), result.cards);
         verify(repository).findByEmail("maria@email.com");
         verify(repository).save(any(User.class));
+        verifyNoInteractions(cardClient);
     }
 
     @Test
@@ -170,6 +285,23 @@ class UserServiceTest {
         verify(user).changeEmail("joao.novo@email.com");
     }
 
+    @Test
+    void updateUser_ShouldNotCallCardService_WhenCardsNotRequested() {
+        // Given
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.name = "João Silva Atualizado";
+
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+
+        // When
+        UserResponse result = userService.updateUser(userId, request, userId, false, false);
+
+        // Then
+        assertEquals("João Silva Atualizado", result.name);
+        assertNull(result.cards);
+        verifyNoInteractions(cardClient);
+    }
+
     @Test
     void updateUser_ShouldThrowException_WhenNotAuthorized() {
         // Given
@@ -222,38 +354,51 @@ class UserServiceTest {
     @Test
     void deleteUser_ShouldDeleteUser_WhenUserExists() {
         // Given
-        when(repository.existsById(userId)).thenReturn(true);
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
 
         // When
         userService.deleteUser(userId, userId, false);
 
         // Then
-        verify(repository).existsById(userId);
-        verify(repository).deleteById(userId);
+        verify(repository).findById(userId);
+        verify(repository).delete(user);
+        verify(credentialsCache).invalidate("joao@email.com");
+        verify(authClient, times(2)).revokeSessions(userId);
+    }
+
+    @Test
+    void deleteUser_ShouldKeepUser_WhenSessionsCannotBeRevoked() {
+        // Given
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        doThrow(new AuthServiceUnavailableException("auth-service fora", null)).when(authClient).revokeSessions(userId);
+
+        // When & Then: sem confirmar o fim das sessões o usuário não é removido
+        assertThrows(AuthServiceUnavailableException.class, () -> userService.deleteUser(userId, userId, false));
+        verify(repository, never()).delete(any());
     }
 
     @Test
     void deleteUser_ShouldThrowException_WhenUserNotFound() {
         // Given
-        when(repository.existsById(userId)).thenReturn(false);
+        when(repository.findById(userId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(NoSuchElementException.class, () -> userService.deleteUser(userId, userId, true));
-        verify(repository).existsById(userId);
-        verify(repository, never()).deleteById(any());
+        verify(repository).findById(userId);
+        verify(repository, never()).delete(any());
     }
 
     @Test
     void deleteUser_ShouldThrowException_WhenNotAuthorized() {
         // Given
-        when(repository.existsById(userId)).thenReturn(true);
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
         UUID anotherUserId = UUID.randomUUID();
 
         // When & Then
         assertThrows(AccessDeniedException.class, () ->
             userService.deleteUser(userId, anotherUserId, false));
-        verify(repository).existsById(userId);
-        verify(repository, never()).deleteById(any());
+        verify(repository).findById(userId);
+        verify(repository, never()).delete(any());
     }
 
     @Test
@@ -263,15 +408,56 @@ class UserServiceTest {
         request.currentPassword = "senhaAtual";
         request.newPassword = "novaSenha123";
 
+        String currentHash = new BCryptPasswordEncoder().encode("senhaAtual");
         when(repository.findById(userId)).thenReturn(Optional.of(user));
-        when(user.getPasswordHash()).thenReturn(new BCryptPasswordEncoder().encode("senhaAtual"));
+        when(user.getPasswordHash()).thenReturn(currentHash);
+        when(repository.updatePasswordHash(eq(userId), eq(currentHash), anyString())).thenReturn(1);
 
         // When
         userService.changePassword(userId, request, userId, false);
 
         // Then
         verify(repository).findById(userId);
-        verify(user).changePassword(anyString());
+        verify(repository).updatePasswordHash(eq(userId), eq(currentHash), startsWith("$2a$10$"));
+        verify(credentialsCache).invalidate("joao@email.com");
+        InOrder order = inOrder(authClient, repository);
+        order.verify(authClient).revokeSessions(userId);
+        order.verify(repository).updatePasswordHash(any(), any(), any());
+        order.verify(authClient).revokeSessions(userId);
+    }
+
+    @Test
+    void changePassword_ShouldNotChangeHash_WhenSessionsCannotBeRevoked() {
+        // Given
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.currentPassword = "senhaAtual";
+        request.newPassword = "novaSenha123";
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        when(user.getPasswordHash()).thenReturn(new BCryptPasswordEncoder(4).encode("senhaAtual"));
+        doThrow(new AuthServiceUnavailableException("auth-service fora", null)).when(authClient).revokeSessions(userId);
+
+        // When & Then
+        assertThrows(AuthServiceUnavailableException.class,
+            () -> userService.changePassword(userId, request, userId, false));
+        verify(repository, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void changePassword_ShouldFailWithConflict_WhenHashChangedConcurrently() {
+        // Given: outra requisição trocou a senha entre a leitura e o UPDATE condicional
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.currentPassword = "senhaAtual";
+        request.newPassword = "novaSenha123";
+
+        String currentHash = new BCryptPasswordEncoder().encode("senhaAtual");
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        when(user.getPasswordHash()).thenReturn(currentHash);
+        when(repository.updatePasswordHash(eq(userId), eq(currentHash), anyString())).thenReturn(0);
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class,
+            () -> userService.changePassword(userId, request, userId, false));
+        verify(credentialsCache, never()).invalidate(anyString());
     }
 
     @Test
@@ -284,11 +470,50 @@ class UserServiceTest {
         when(repository.findById(userId)).thenReturn(Optional.of(user));
         when(user.getPasswordHash()).thenReturn(new BCryptPasswordEncoder().encode("senhaCorreta"));
 
-        // When & Then
+        // When & Then: senha atual errada não derruba as sessões de ninguém
         assertThrows(IllegalArgumentException.class, () -> 
             userService.changePassword(userId, request, userId, false));
         verify(repository).findById(userId);
         verify(user, never()).changePassword(anyString());
+        verifyNoInteractions(authClient);
+    }
+
+    @Test
+    void internalVerifyCredentials_ShouldRehashInBackground_WhenHashCostIsStale() {
+        // Given: hash antigo com custo 4, serviço calibrado em 10
+        String oldHash = new BCryptPasswordEncoder(4).encode("senha123");
+        UserCredentials credentials = credentials(oldHash);
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(credentials));
+        AtomicReference<String> writerThread = new AtomicReference<>();
+        when(repository.updatePasswordHash(eq(userId), eq(oldHash), anyString())).thenAnswer(inv -> {
+            writerThread.set(Thread.currentThread().getName());
+            return 1;
+        });
+
+        // When
+        UserCredentials result = userService.internalVerifyCredentials("joao@email.com", "senha123");
+
+        // Then: hash novo gravado fora do pool do bcrypt e a entrada com o hash antigo sai do cache
+        assertSame(credentials, result);
+        verify(repository, timeout(5000)).updatePasswordHash(eq(userId), eq(oldHash), startsWith("$2a$10$"));
+        verify(credentialsCache, timeout(5000)).invalidate("joao@email.com");
+        assertFalse(writerThread.get().startsWith("password-hasher-"), writerThread.get());
+    }
+
+    @Test
+    void internalVerifyCredentials_ShouldNotRehash_WhenHashIsCurrentOrPasswordWrong() {
+        // Given
+        UserCredentials credentials = credentials(new BCryptPasswordEncoder(10).encode("senha123"));
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(credentials));
+
+        // When
+        UserCredentials ok = userService.internalVerifyCredentials("joao@email.com", "senha123");
+        UserCredentials wrong = userService.internalVerifyCredentials("joao@email.com", "outraSenha");
+
+        // Then
+        assertSame(credentials, ok);
+        assertNull(wrong);
+        verify(repository, never()).updatePasswordHash(any(), any(), any());
     }
 
     @Test
@@ -363,27 +588,116 @@ class UserServiceTest {
     @Test
     void internalFindByEmail_ShouldReturnUser_WhenUserExists() {
         // Given
-        when(repository.findByEmail("joao@email.com")).thenReturn(Optional.of(user));
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(credentials("hash")));
 
         // When
-        User result = userService.internalFindByEmail("joao@email.com");
+        UserCredentials result = userService.internalFindByEmail("joao@email.com");
 
         // Then
         assertNotNull(result);
-        assertEquals("joao@email.com", result.getEmail());
-        verify(repository).findByEmail("joao@email.com");
+        assertEquals("joao@email.com", result.email());
+        verify(repository).findCredentialsByEmail("joao@email.com");
+    }
+
+    @Test
+    void internalVerifyCredentials_ShouldSkipDatabase_WhenCredentialsAreCached() {
+        // Given
+        UserCredentials credentials = credentials(new BCryptPasswordEncoder(10).encode("senha123"));
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(credentials));
+        userService.internalVerifyCredentials("joao@email.com", "senha123");
+
+        // When: mesmo email com outra grafia
+        UserCredentials result = userService.internalVerifyCredentials(" Joao@Email.com", "senha123");
+
+        // Then
+        assertSame(credentials, result);
+        verify(repository, times(1)).findCredentialsByEmail(any());
+    }
+
+    @Test
+    void updateUser_ShouldInvalidateCachedCredentials_WhenOnlyNameChanges() {
+        // Given
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(credentials("hash")));
+        userService.internalFindByEmail("joao@email.com");
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.name = "João Silva Atualizado";
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        UserCredentials renamed = new UserCredentials(userId, "João Silva Atualizado", "joao@email.com", "hash", "ROLE_USER");
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(renamed));
+
+        // When
+        userService.updateUser(userId, request, userId, false, false);
+
+        // Then: o login seguinte já devolve o nome novo
+        assertEquals("João Silva Atualizado", userService.internalFindByEmail("joao@email.com").name());
+    }
+
+    @Test
+    void updateUser_ShouldInvalidateCachedCredentials_WhenEmailChanges() {
+        // Given
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.of(credentials("hash")));
+        userService.internalFindByEmail("joao@email.com");
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.email = "joao.novo@email.com";
+        when(repository.findById(userId)).thenReturn(Optional.of(user));
+        when(repository.findByEmail("joao.novo@email.com")).thenReturn(Optional.empty());
+        when(repository.findCredentialsByEmail("joao@email.com")).thenReturn(Optional.empty());
+
+        // When
+        userService.updateUser(userId, request, userId, false, false);
+
+        // Then: o email antigo não autentica mais a partir do cache
+        assertNull(userService.internalFindByEmail("joao@email.com"));
+        verify(credentialsCache).invalidate("joao@email.com");
+        verify(credentialsCache).invalidate("joao.novo@email.com");
     }
 
     @Test
     void internalFindByEmail_ShouldReturnNull_WhenUserNotFound() {
         // Given
-        when(repository.findByEmail("inexistente@email.com")).thenReturn(Optional.empty());
+        when(repository.findCredentialsByEmail("inexistente@email.com")).thenReturn(Optional.empty());
 
         // When
-        User result = userService.internalFindByEmail("inexistente@email.com");
+        UserCredentials result = userService.internalFindByEmail("inexistente@email.com");
 
         // Then
         assertNull(result);
-        verify(repository).findByEmail("inexistente@email.com");
+        verify(repository).findCredentialsByEmail("inexistente@email.com");
+    }
+
+    @Test
+    void internalCreateUser_ShouldInsertWithoutEmailLookup() {
+        // Given
+        CreateUserRequest request = new CreateUserRequest();
+        request.name = "Maria Santos";
+        request.email = "maria@email.com";
+        request.password = "senha123";
+        when(repository.saveAndFlush(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        User result = userService.internalCreateUser(request);
+
+        // Then
+        assertEquals("maria@email.com", result.getEmail());
+        verify(repository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void internalCreateUser_ShouldPropagateConstraintViolation_WhenEmailExists() {
+        // Given
+        CreateUserRequest request = new CreateUserRequest();
+        request.name = "João Silva";
+        request.email = "joao@email.com";
+        request.password = "senha123";
+        when(repository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'joao@email.com'"));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> userService.internalCreateUser(request));
+        verify(repository, never()).findByEmail(anyString());
+    }
+
+    private UserCredentials credentials(String passwordHash) {
+        return new UserCredentials(userId, "João Silva", "joao@email.com", passwordHash, "ROLE_USER");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.acme.user.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.user.service.UserService;
+
+/**
+ * Testes unitários para InternalUserController
+ */
+class InternalUserControllerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final InternalUserController controller = new InternalUserController(userService, "segredo");
+
+    private static DataIntegrityViolationException violation(ConstraintKind kind, String constraint) {
+        return new DataIntegrityViolationException("falha",
+                new ConstraintViolationException("falha", new SQLException("falha"), "insert", kind, constraint));
+    }
+
+    private static InternalUserController.CreateReq request() {
+        var req = new InternalUserController.CreateReq();
+        req.name = "Maria";
+        req.email = "maria@example.com";
+        req.password = "senha-forte";
+        return req;
+    }
+
+    @Test
+    void create_ShouldReturn409_WhenEmailUniqueKeyIsViolated() {
+        // Given
+        when(userService.internalCreateUser(any())).thenThrow(violation(ConstraintKind.UNIQUE, "users.email"));
+
+        // When
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> controller.create("segredo", request()));
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void create_ShouldReturn400_WhenOtherConstraintIsViolated() {
+        // Given
+        when(userService.internalCreateUser(any())).thenThrow(violation(ConstraintKind.OTHER, null));
+
+        // When
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> controller.create("segredo", request()));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+}
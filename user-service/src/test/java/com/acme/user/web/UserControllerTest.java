@@ -0,0 +1,36 @@
+package com.acme.user.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.user.service.CardClient;
+import com.acme.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Testes unitários para UserController
+ */
+class UserControllerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final UserController controller = new UserController(userService, mock(CardClient.class), new ObjectMapper());
+
+    @Test
+    void getUsers_ShouldReturn400_WhenCursorIsInvalid() {
+        // Given
+        when(userService.getUsersPage(eq("not-a-cursor"), anyInt(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        // When
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> controller.getUsers("not-a-cursor", 10, null, null));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+}
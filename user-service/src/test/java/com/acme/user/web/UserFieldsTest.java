@@ -0,0 +1,61 @@
+package com.acme.user.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.acme.user.web.dto.UserDTOs.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Testes unitários para UserFields
+ */
+class UserFieldsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_ShouldUseEndpointDefault_WhenNoParameterGiven() {
+        assertTrue(UserFields.parse(null, null, true).cards());
+        assertFalse(UserFields.parse(null, null, false).cards());
+    }
+
+    @Test
+    void parse_ShouldAddCards_WhenIncludeCards() {
+        assertTrue(UserFields.parse(null, "cards", false).cards());
+    }
+
+    @Test
+    void parse_ShouldSkipCards_WhenFieldsOmitsThem() {
+        assertFalse(UserFields.parse("id, name", null, true).cards());
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownField() {
+        // When
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> UserFields.parse("id,password", null, true));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void apply_ShouldSerializeOnlyRequestedFields() throws Exception {
+        // Given
+        UserResponse response = new UserResponse(UUID.randomUUID(), "João Silva", "joao@email.com", "ROLE_USER");
+        response.cards = List.of();
+        response.cardsStale = false;
+
+        // When
+        String json = objectMapper.writeValueAsString(UserFields.parse("name,email", null, true).apply(response));
+
+        // Then
+        assertEquals("{\"name\":\"João Silva\",\"email\":\"joao@email.com\"}", json);
+    }
+}